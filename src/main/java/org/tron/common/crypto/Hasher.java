@@ -0,0 +1,174 @@
+package org.tron.common.crypto;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.MessageLite;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import org.tron.common.crypto.cryptohash.DigestEngine;
+import org.tron.common.crypto.cryptohash.Keccak256;
+import org.tron.common.crypto.cryptohash.Keccak512;
+
+/**
+ * SHA-256 and Keccak hashing on engines kept per thread, so a hash costs no provider lookup and
+ * no digest allocation, and is safe from any thread.
+ *
+ * <p>Protobuf messages are hashed from their serialized form written into a per-thread buffer,
+ * not from a fresh {@code toByteArray()} copy.</p>
+ */
+public class Hasher {
+
+  // serialized messages up to this size reuse the buffer of the thread
+  private static final int MAX_BUFFER_SIZE = 1 << 20;
+
+  private static final ThreadLocal<Engines> ENGINES = ThreadLocal.withInitial(Engines::new);
+
+  private Hasher() {
+  }
+
+  private static class Engines {
+
+    private final MessageDigest sha256;
+    private final DigestEngine keccak256 = new Keccak256();
+    private final DigestEngine keccak512 = new Keccak512();
+    private byte[] buffer = new byte[1024];
+
+    Engines() {
+      try {
+        sha256 = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new RuntimeException(e); // Can't happen.
+      }
+    }
+
+    MessageDigest sha256() {
+      sha256.reset();
+      return sha256;
+    }
+
+    DigestEngine keccak256() {
+      keccak256.reset();
+      return keccak256;
+    }
+
+    byte[] buffer(int size) {
+      if (size > MAX_BUFFER_SIZE) {
+        return new byte[size];
+      }
+      if (buffer.length < size) {
+        buffer = new byte[Math.max(size, Math.min(buffer.length * 2, MAX_BUFFER_SIZE))];
+      }
+      return buffer;
+    }
+  }
+
+  public static byte[] sha256(byte[] input) {
+    return sha256(input, 0, input.length);
+  }
+
+  public static byte[] sha256(byte[] input, int offset, int length) {
+    MessageDigest digest = ENGINES.get().sha256();
+    digest.update(input, offset, length);
+    return digest.digest();
+  }
+
+  /**
+   * the hash of the two inputs one after the other.
+   */
+  public static byte[] sha256(byte[] input1, byte[] input2) {
+    MessageDigest digest = ENGINES.get().sha256();
+    digest.update(input1);
+    digest.update(input2);
+    return digest.digest();
+  }
+
+  /**
+   * the hash of the remaining bytes of the buffer, which are consumed.
+   */
+  public static byte[] sha256(ByteBuffer input) {
+    MessageDigest digest = ENGINES.get().sha256();
+    digest.update(input);
+    return digest.digest();
+  }
+
+  /**
+   * the hash of the serialized message, the same as of its {@code toByteArray()}.
+   */
+  public static byte[] sha256(MessageLite message) {
+    Engines engines = ENGINES.get();
+    int size = message.getSerializedSize();
+    byte[] buffer = serialize(message, engines.buffer(size), size);
+    MessageDigest digest = engines.sha256();
+    digest.update(buffer, 0, size);
+    return digest.digest();
+  }
+
+  public static byte[] keccak256(byte[] input) {
+    return keccak256(input, 0, input.length);
+  }
+
+  public static byte[] keccak256(byte[] input, int offset, int length) {
+    DigestEngine digest = ENGINES.get().keccak256();
+    digest.update(input, offset, length);
+    return digest.digest();
+  }
+
+  /**
+   * the hash of the two inputs one after the other.
+   */
+  public static byte[] keccak256(byte[] input1, byte[] input2) {
+    DigestEngine digest = ENGINES.get().keccak256();
+    digest.update(input1, 0, input1.length);
+    digest.update(input2, 0, input2.length);
+    return digest.digest();
+  }
+
+  /**
+   * the hash of the remaining bytes of the buffer, which are consumed.
+   */
+  public static byte[] keccak256(ByteBuffer input) {
+    Engines engines = ENGINES.get();
+    DigestEngine digest = engines.keccak256();
+    if (input.hasArray()) {
+      digest.update(input.array(), input.arrayOffset() + input.position(), input.remaining());
+      input.position(input.limit());
+    } else {
+      // the engine does not take buffers, copy through the thread's buffer
+      byte[] chunk = engines.buffer(Math.min(input.remaining(), 8192));
+      while (input.hasRemaining()) {
+        int length = Math.min(input.remaining(), chunk.length);
+        input.get(chunk, 0, length);
+        digest.update(chunk, 0, length);
+      }
+    }
+    return digest.digest();
+  }
+
+  public static byte[] keccak256(MessageLite message) {
+    Engines engines = ENGINES.get();
+    int size = message.getSerializedSize();
+    byte[] buffer = serialize(message, engines.buffer(size), size);
+    DigestEngine digest = engines.keccak256();
+    digest.update(buffer, 0, size);
+    return digest.digest();
+  }
+
+  public static byte[] keccak512(byte[] input) {
+    DigestEngine digest = ENGINES.get().keccak512;
+    digest.reset();
+    digest.update(input, 0, input.length);
+    return digest.digest();
+  }
+
+  private static byte[] serialize(MessageLite message, byte[] buffer, int size) {
+    try {
+      CodedOutputStream output = CodedOutputStream.newInstance(buffer, 0, size);
+      message.writeTo(output);
+      output.checkNoSpaceLeft();
+      return buffer;
+    } catch (IOException e) {
+      throw new IllegalStateException("Serializing to a byte array threw an IOException", e);
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package org.tron.common.crypto;
+
+import java.math.BigInteger;
+import java.security.SignatureException;
+import java.util.Arrays;
+import org.spongycastle.asn1.x9.X9ECParameters;
+import org.spongycastle.crypto.ec.CustomNamedCurves;
+import org.spongycastle.math.ec.ECCurve;
+import org.spongycastle.math.ec.ECMultiplier;
+import org.spongycastle.math.ec.ECPoint;
+import org.spongycastle.math.ec.FixedPointCombMultiplier;
+import org.spongycastle.math.ec.GLVMultiplier;
+import org.spongycastle.math.ec.endo.GLVEndomorphism;
+
+/**
+ * Recovers the signer address of secp256k1 signatures given as raw 65 bytes r || s || v, the
+ * way transactions and blocks carry them.
+ *
+ * <p>Recovers the same keys as {@link ECKey#signatureToAddress(byte[], ECKey.ECDSASignature)},
+ * but uses the dedicated secp256k1 field arithmetic, a precomputed comb for the generator, the
+ * GLV endomorphism for the point R and, for batches, a single modular inversion for all r values
+ * and one for all resulting points. The cofactor of the curve is 1, so every decoded R is in the
+ * group and needs no check.</p>
+ */
+public class SignatureRecovery {
+
+  public static final int SIGNATURE_LENGTH = 65;
+
+  private static final ECCurve CURVE;
+  private static final ECPoint G;
+  private static final BigInteger N;
+  private static final BigInteger P;
+  private static final ECMultiplier FIXED_BASE = new FixedPointCombMultiplier();
+  private static final ECMultiplier GLV;
+
+  static {
+    X9ECParameters params = CustomNamedCurves.getByName("secp256k1");
+    CURVE = params.getCurve();
+    G = params.getG();
+    N = params.getN();
+    P = CURVE.getField().getCharacteristic();
+    GLV = new GLVMultiplier(CURVE, (GLVEndomorphism) CURVE.getEndomorphism());
+    // builds the comb table of the generator once, later multiplications share it
+    FIXED_BASE.multiply(G, BigInteger.ONE);
+  }
+
+  private SignatureRecovery() {
+  }
+
+  /**
+   * @param messageHash 32-byte hash of the signed data
+   * @param signature r || s || v, v being the recovery id with or without the offset of 27
+   * @return the 21-byte address of the signer
+   */
+  public static byte[] recoverAddress(byte[] messageHash, byte[] signature)
+      throws SignatureException {
+    byte[] address = recoverAddresses(new byte[][]{messageHash}, new byte[][]{signature})[0];
+    if (address == null) {
+      throw new SignatureException("Could not recover public key from signature");
+    }
+    return address;
+  }
+
+  /**
+   * recover the signers of many signatures at once.
+   *
+   * @return the addresses in the order of the signatures, null for a signature no key can be
+   * recovered from
+   */
+  public static byte[][] recoverAddresses(byte[][] messageHashes, byte[][] signatures) {
+    byte[][] keys = recoverPublicKeys(messageHashes, signatures);
+    byte[][] addresses = new byte[keys.length][];
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != null) {
+        addresses[i] = Hash.sha3omit12(keys[i]);
+      }
+    }
+    return addresses;
+  }
+
+  /**
+   * @return the 64-byte X, Y public keys in the order of the signatures, null for a signature no
+   * key can be recovered from
+   */
+  public static byte[][] recoverPublicKeys(byte[][] messageHashes, byte[][] signatures) {
+    if (messageHashes.length != signatures.length) {
+      throw new IllegalArgumentException(
+          messageHashes.length + " hashes for " + signatures.length + " signatures");
+    }
+    int size = signatures.length;
+    BigInteger[] r = new BigInteger[size];
+    BigInteger[] s = new BigInteger[size];
+    ECPoint[] points = new ECPoint[size];
+    for (int i = 0; i < size; i++) {
+      byte[] signature = signatures[i];
+      if (messageHashes[i] == null || messageHashes[i].length != 32
+          || signature == null || signature.length < SIGNATURE_LENGTH) {
+        continue;
+      }
+      int recId = recoveryId(signature[64]);
+      if (recId < 0) {
+        continue;
+      }
+      BigInteger sigR = new BigInteger(1, Arrays.copyOfRange(signature, 0, 32));
+      if (sigR.signum() == 0) {
+        continue;
+      }
+      points[i] = decompress(sigR, recId);
+      if (points[i] != null) {
+        r[i] = sigR;
+        s[i] = new BigInteger(1, Arrays.copyOfRange(signature, 32, 64));
+      }
+    }
+
+    BigInteger[] rInv = invertAll(r);
+    for (int i = 0; i < size; i++) {
+      if (points[i] == null || rInv[i] == null) {
+        points[i] = null;
+        continue;
+      }
+      // Q = r^-1 * (s * R - e * G)
+      BigInteger e = new BigInteger(1, messageHashes[i]);
+      BigInteger u1 = N.subtract(e).multiply(rInv[i]).mod(N);
+      BigInteger u2 = s[i].multiply(rInv[i]).mod(N);
+      points[i] = FIXED_BASE.multiply(G, u1).add(GLV.multiply(points[i], u2));
+    }
+    CURVE.normalizeAll(points);
+
+    byte[][] keys = new byte[size][];
+    for (int i = 0; i < size; i++) {
+      if (points[i] == null || points[i].isInfinity()) {
+        continue;
+      }
+      byte[] key = new byte[64];
+      System.arraycopy(points[i].getAffineXCoord().getEncoded(), 0, key, 0, 32);
+      System.arraycopy(points[i].getAffineYCoord().getEncoded(), 0, key, 32, 32);
+      keys[i] = key;
+    }
+    return keys;
+  }
+
+  /**
+   * the recovery id as ECKey reads the header byte, -1 if out of range.
+   */
+  private static int recoveryId(byte v) {
+    int header = v;
+    if (header < 27) {
+      header += 27;
+    }
+    if (header < 27 || header > 34) {
+      return -1;
+    }
+    if (header >= 31) {
+      header -= 4;
+    }
+    return header - 27;
+  }
+
+  /**
+   * the point R with x coordinate r + (recId / 2) * n and the y parity of recId, null if there is
+   * no such point.
+   */
+  private static ECPoint decompress(BigInteger r, int recId) {
+    BigInteger x = recId >= 2 ? r.add(N) : r;
+    if (x.compareTo(P) >= 0) {
+      return null;
+    }
+    byte[] encoded = new byte[33];
+    encoded[0] = (byte) ((recId & 1) == 1 ? 0x03 : 0x02);
+    byte[] xBytes = x.toByteArray();
+    int length = Math.min(xBytes.length, 32);
+    System.arraycopy(xBytes, xBytes.length - length, encoded, 33 - length, length);
+    try {
+      return CURVE.decodePoint(encoded);
+    } catch (IllegalArgumentException e) {
+      // x is not on the curve
+      return null;
+    }
+  }
+
+  /**
+   * the inverses modulo n of all non null values with one modular inversion (Montgomery's trick).
+   */
+  static BigInteger[] invertAll(BigInteger[] values) {
+    BigInteger[] inverses = new BigInteger[values.length];
+    BigInteger[] prefix = new BigInteger[values.length];
+    BigInteger product = BigInteger.ONE;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] != null) {
+        prefix[i] = product;
+        product = product.multiply(values[i]).mod(N);
+      }
+    }
+    if (product.signum() == 0) {
+      // a multiple of n, invert one by one
+      for (int i = 0; i < values.length; i++) {
+        if (values[i] != null && values[i].mod(N).signum() != 0) {
+          inverses[i] = values[i].modInverse(N);
+        }
+      }
+      return inverses;
+    }
+    BigInteger inverse = product.modInverse(N);
+    for (int i = values.length - 1; i >= 0; i--) {
+      if (values[i] != null) {
+        inverses[i] = inverse.multiply(prefix[i]).mod(N);
+        inverse = inverse.multiply(values[i]).mod(N);
+      }
+    }
+    return inverses;
+  }
+}
@@ -3,13 +3,7 @@ package org.tron.common.overlay.client;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
-import io.netty.channel.ChannelOption;
-import io.netty.channel.DefaultMessageSizeEstimator;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioSocketChannel;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,8 +13,8 @@ import org.springframework.stereotype.Component;
 import org.tron.common.overlay.discover.Node;
 import org.tron.common.overlay.discover.NodeHandler;
 import org.tron.common.overlay.message.ReasonCode;
+import org.tron.common.overlay.server.NettyTransport;
 import org.tron.common.overlay.server.TronChannelInitializer;
-import org.tron.core.config.args.Args;
 import org.tron.core.net.node.NodeImpl;
 
 @Component
@@ -38,13 +32,7 @@ public class PeerClient {
     private EventLoopGroup workerGroup;
 
     public PeerClient() {
-        workerGroup = new NioEventLoopGroup(0, new ThreadFactory() {
-            AtomicInteger cnt = new AtomicInteger(0);
-            @Override
-            public Thread newThread(Runnable r) {
-                return new Thread(r, "TronJClientWorker-" + cnt.getAndIncrement());
-            }
-        });
+        workerGroup = NettyTransport.newEventLoopGroup(0, "TronJClientWorker");
     }
 
     public void connect(String host, int port, String remoteId) {
@@ -80,11 +68,9 @@ public class PeerClient {
 
         Bootstrap b = new Bootstrap();
         b.group(workerGroup);
-        b.channel(NioSocketChannel.class);
+        b.channel(NettyTransport.socketChannel());
 
-        b.option(ChannelOption.SO_KEEPALIVE, true);
-        b.option(ChannelOption.MESSAGE_SIZE_ESTIMATOR, DefaultMessageSizeEstimator.DEFAULT);
-        b.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, Args.getInstance().getNodeConnectionTimeout());
+        NettyTransport.configureClient(b);
         b.remoteAddress(host, port);
 
         b.handler(tronChannelInitializer);
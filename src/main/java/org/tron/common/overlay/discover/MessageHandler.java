@@ -17,13 +17,15 @@
  */
 package org.tron.common.overlay.discover;
 
+import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.DatagramPacket;
-import io.netty.channel.socket.nio.NioDatagramChannel;
 import org.slf4j.LoggerFactory;
+import org.tron.common.overlay.discover.message.Message;
 
 import java.net.InetSocketAddress;
 import java.util.function.Consumer;
@@ -37,7 +39,7 @@ public class MessageHandler extends SimpleChannelInboundHandler<DiscoveryEvent>
 
     NodeManager nodeManager;
 
-    public MessageHandler(NioDatagramChannel ch, NodeManager nodeManager) {
+    public MessageHandler(DatagramChannel ch, NodeManager nodeManager) {
         channel = ch;
         this.nodeManager = nodeManager;
     }
@@ -49,25 +51,33 @@ public class MessageHandler extends SimpleChannelInboundHandler<DiscoveryEvent>
 
     @Override
     public void channelRead0(ChannelHandlerContext ctx, DiscoveryEvent discoveryEvent) throws Exception {
-        logger.debug("rcv udp msg type {}, len {} from {} ",
-                discoveryEvent.getMessage().getType(),
-                discoveryEvent.getMessage().getSendData().length,
-                discoveryEvent.getAddress());
+        if (logger.isDebugEnabled()) {
+            logger.debug("rcv udp msg type {}, len {} from {} ",
+                    discoveryEvent.getMessage().getType(),
+                    discoveryEvent.getMessage().getData().length + 1,
+                    discoveryEvent.getAddress());
+        }
         nodeManager.handleInbound(discoveryEvent);
     }
 
     @Override
     public void accept(DiscoveryEvent discoveryEvent) {
+        Message message = discoveryEvent.getMessage();
         logger.debug("send udp msg type {}, len {} to {} ",
-                discoveryEvent.getMessage().getType(),
-                discoveryEvent.getMessage().getSendData().length,
+                message.getType(),
+                message.getData().length + 1,
                 discoveryEvent.getAddress());
         InetSocketAddress address = discoveryEvent.getAddress();
-        sendPacket(discoveryEvent.getMessage().getSendData(), address);
+        // the type byte and the body go out as one composite buffer, the body is not copied
+        sendPacket(Unpooled.wrappedBuffer(new byte[]{message.getType()}, message.getData()), address);
     }
 
     void sendPacket(byte[] wire, InetSocketAddress address) {
-        DatagramPacket packet = new DatagramPacket(Unpooled.copiedBuffer(wire), address);
+        sendPacket(Unpooled.wrappedBuffer(wire), address);
+    }
+
+    private void sendPacket(ByteBuf wire, InetSocketAddress address) {
+        DatagramPacket packet = new DatagramPacket(wire, address);
         channel.write(packet);
         channel.flush();
     }
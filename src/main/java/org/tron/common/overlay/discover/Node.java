@@ -19,6 +19,7 @@ package org.tron.common.overlay.discover;
 
 import static org.tron.common.crypto.Hash.sha3;
 
+import com.google.protobuf.ByteString;
 import java.io.Serializable;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -26,6 +27,7 @@ import org.spongycastle.util.encoders.Hex;
 import org.tron.common.crypto.ECKey;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.Utils;
+import org.tron.protos.Discover.Endpoint;
 
 public class Node implements Serializable {
 
@@ -39,6 +41,10 @@ public class Node implements Serializable {
 
   private boolean isFakeNodeId = false;
 
+  // derived from id, host and port, reset when they change
+  private transient String hexId;
+  private transient Endpoint endpoint;
+
   public int getReputation() {
     return reputation;
   }
@@ -94,7 +100,28 @@ public class Node implements Serializable {
   }
 
   public String getHexId() {
-    return Hex.toHexString(id);
+    String hex = hexId;
+    if (hex == null) {
+      hex = Hex.toHexString(id);
+      hexId = hex;
+    }
+    return hex;
+  }
+
+  /**
+   * the discovery endpoint of the node, encoded once.
+   */
+  public Endpoint getEndpoint() {
+    Endpoint result = endpoint;
+    if (result == null) {
+      result = Endpoint.newBuilder()
+          .setAddress(ByteString.copyFrom(ByteArray.fromString(host)))
+          .setPort(port)
+          .setNodeId(ByteString.copyFrom(id))
+          .build();
+      endpoint = result;
+    }
+    return result;
   }
 
   public String getHexIdShort() {
@@ -111,6 +138,8 @@ public class Node implements Serializable {
 
   public void setId(byte[] id) {
     this.id = id;
+    this.hexId = null;
+    this.endpoint = null;
   }
 
   public String getHost() {
@@ -123,6 +152,7 @@ public class Node implements Serializable {
 
   public void setPort(int port) {
     this.port = port;
+    this.endpoint = null;
   }
 
   @Override
@@ -130,7 +160,7 @@ public class Node implements Serializable {
     return "Node{" +
         " host='" + host + '\'' +
         ", port=" + port +
-        ", id=" + ByteArray.toHexString(id) +
+        ", id=" + getHexId() +
         '}';
   }
 
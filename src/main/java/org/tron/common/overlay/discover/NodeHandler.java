@@ -17,9 +17,11 @@
  */
 package org.tron.common.overlay.discover;
 
+import io.netty.util.Timeout;
 import java.net.InetSocketAddress;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.LoggerFactory;
 import org.spongycastle.util.encoders.Hex;
 import org.tron.common.overlay.discover.message.FindNodeMessage;
@@ -84,8 +86,10 @@ public class NodeHandler {
   private NodeStatistics nodeStatistics;
 
   State state;
-  boolean waitForPong = false;
+  volatile boolean waitForPong = false;
   long pingSent;
+  private final AtomicBoolean pingQueued = new AtomicBoolean();
+  private volatile Timeout pongTimeout;
   int pingTrials = 3;
   NodeHandler replaceCandidate;
 
@@ -183,8 +187,14 @@ public class NodeHandler {
   void handlePong(PongMessage msg) {
     if (waitForPong) {
       waitForPong = false;
+      Timeout timeout = pongTimeout;
+      if (timeout != null) {
+        timeout.cancel();
+      }
+      long rtt = System.currentTimeMillis() - pingSent;
       getNodeStatistics().discoverInPong.add();
-      getNodeStatistics().discoverMessageLatency.add(System.currentTimeMillis() - pingSent);
+      getNodeStatistics().discoverMessageLatency.add(rtt);
+      nodeManager.getPongRttHistogram().add(rtt);
       getNodeStatistics().lastPongReplyTime.set(System.currentTimeMillis());
       node.setId(msg.getNodeId());
       if (msg.getVersion() != Args.getInstance().getNodeP2pVersion()) {
@@ -226,17 +236,24 @@ public class NodeHandler {
     }
   }
 
+  /**
+   * queue a ping, the ping scheduler sends it within the rate limit.
+   */
   void sendPing() {
+    if (pingQueued.compareAndSet(false, true)) {
+      nodeManager.getPingScheduler().schedulePing(this);
+    }
+  }
+
+  void doSendPing() {
+    pingQueued.set(false);
     Message ping = new PingMessage(nodeManager.table.getNode(), getNode());
     waitForPong = true;
     pingSent = System.currentTimeMillis();
     sendMessage(ping);
     getNodeStatistics().discoverOutPing.add();
 
-    if (nodeManager.getPongTimer().isShutdown()) {
-      return;
-    }
-    nodeManager.getPongTimer().schedule(() -> {
+    pongTimeout = nodeManager.getPingScheduler().newTimeout(timeout -> {
       try {
         if (waitForPong) {
           waitForPong = false;
@@ -255,7 +272,8 @@ public class NodeHandler {
   }
 
   void sendNeighbours(List<Node> neighbours) {
-    Message neighbors = new NeighborsMessage(nodeManager.getPublicHomeNode(), neighbours);
+    Message neighbors = new NeighborsMessage(nodeManager.getPublicHomeNode(),
+        nodeManager.getEncodedNeighbours(neighbours));
     sendMessage(neighbors);
     getNodeStatistics().discoverOutNeighbours.add();
   }
@@ -17,20 +17,22 @@
  */
 package org.tron.common.overlay.discover;
 
-import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.Timer;
-import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
 import org.slf4j.LoggerFactory;
@@ -46,6 +48,7 @@ import org.tron.common.overlay.discover.table.NodeTable;
 import org.tron.common.utils.CollectionUtils;
 import org.tron.core.config.args.Args;
 import org.tron.core.db.Manager;
+import org.tron.protos.Discover.Endpoint;
 
 @Component
 public class NodeManager {
@@ -60,11 +63,14 @@ public class NodeManager {
   private static final long DB_COMMIT_RATE = 1 * 60 * 1000;
   static final int MAX_NODES = 2000;
   static final int NODES_TRIM_THRESHOLD = 3000;
+  private static final int MAX_PINGS_PER_SECOND = 500;
 
   Consumer<DiscoveryEvent> messageSender;
 
   NodeTable table;
-  private Map<String, NodeHandler> nodeHandlerMap = new ConcurrentHashMap<>();
+  // keyed by endpoint: boot nodes carry made-up ids until they answer
+  private Map<InetSocketAddress, NodeHandler> nodeHandlerMap = new ConcurrentHashMap<>();
+  private final AtomicBoolean trimming = new AtomicBoolean();
   final Node homeNode;
   private List<Node> bootNodes = new ArrayList<>();
 
@@ -76,9 +82,12 @@ public class NodeManager {
   private Map<DiscoverListener, ListenerHandler> listeners = new IdentityHashMap<>();
 
   private boolean inited = false;
-  private Timer logStatsTimer = new Timer();
-  private Timer nodeManagerTasksTimer = new Timer("NodeManagerTasks");
-  private ScheduledExecutorService pongTimer;
+  private ScheduledExecutorService nodeManagerTasks = Executors
+      .newSingleThreadScheduledExecutor(r -> new Thread(r, "NodeManagerTasks"));
+  private PingScheduler pingScheduler;
+  private RttHistogram pongRttHistogram = new RttHistogram();
+  // the last neighbours reply, most find node requests get the same closest nodes
+  private final AtomicReference<EncodedNeighbours> lastNeighbours = new AtomicReference<>();
 
   @Autowired
   public NodeManager(Manager dbManager) {
@@ -99,18 +108,77 @@ public class NodeManager {
 
     table = new NodeTable(homeNode);
 
-    logStatsTimer.scheduleAtFixedRate(new TimerTask() {
-      @Override
-      public void run() {
+    nodeManagerTasks.scheduleAtFixedRate(() -> {
+      if (logger.isTraceEnabled()) {
         logger.trace("Statistics:\n {}", dumpAllStatistics());
       }
-    }, 1 * 1000, 60 * 1000);
+      logger.debug("Node states: {}, {}, queued pings: {}", getNodeStateCounts(),
+          pongRttHistogram, pingScheduler.getQueuedPings());
+    }, 1 * 1000, 60 * 1000, TimeUnit.MILLISECONDS);
 
-    this.pongTimer = Executors.newSingleThreadScheduledExecutor();
+    this.pingScheduler = new PingScheduler(MAX_PINGS_PER_SECOND);
   }
 
-  public ScheduledExecutorService getPongTimer() {
-    return pongTimer;
+  public PingScheduler getPingScheduler() {
+    return pingScheduler;
+  }
+
+  public RttHistogram getPongRttHistogram() {
+    return pongRttHistogram;
+  }
+
+  /**
+   * the encoding of the neighbours, reused while the same endpoints are asked for.
+   */
+  byte[] getEncodedNeighbours(List<Node> neighbours) {
+    EncodedNeighbours last = lastNeighbours.get();
+    if (last != null && last.isFor(neighbours)) {
+      return last.encoded;
+    }
+    EncodedNeighbours encoded = new EncodedNeighbours(neighbours);
+    lastNeighbours.set(encoded);
+    return encoded.encoded;
+  }
+
+  private static final class EncodedNeighbours {
+
+    private final Endpoint[] endpoints;
+    private final byte[] encoded;
+
+    // the endpoints are taken before encoding, a node changed meanwhile only costs a new encoding
+    EncodedNeighbours(List<Node> neighbours) {
+      this.endpoints = neighbours.stream().map(Node::getEndpoint).toArray(Endpoint[]::new);
+      this.encoded = NeighborsMessage.encodeNeighbours(neighbours);
+    }
+
+    // nodes are updated in place when a pong brings their id, so their id and address are
+    // compared, not the instances. A node builds its endpoint once until it changes, mostly
+    // the very same endpoint is found.
+    boolean isFor(List<Node> neighbours) {
+      if (neighbours.size() != endpoints.length) {
+        return false;
+      }
+      for (int i = 0; i < endpoints.length; i++) {
+        if (!neighbours.get(i).getEndpoint().equals(endpoints[i])) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  /**
+   * the number of known nodes in every state.
+   */
+  public Map<State, Integer> getNodeStateCounts() {
+    Map<State, Integer> counts = new EnumMap<>(State.class);
+    for (NodeHandler handler : nodeHandlerMap.values()) {
+      State state = handler.getState();
+      if (state != null) {
+        counts.merge(state, 1, Integer::sum);
+      }
+    }
+    return counts;
   }
 
   void channelActivated() {
@@ -122,21 +190,18 @@ public class NodeManager {
       // this task is done asynchronously with some fixed rate
       // to avoid any overhead in the NodeStatistics classes keeping them lightweight
       // (which might be critical since they might be invoked from time critical sections)
-      nodeManagerTasksTimer.scheduleAtFixedRate(new TimerTask() {
-        @Override
-        public void run() {
-          processListeners();
-        }
-      }, LISTENER_REFRESH_RATE, LISTENER_REFRESH_RATE);
+      nodeManagerTasks.scheduleAtFixedRate(this::processListeners,
+          LISTENER_REFRESH_RATE, LISTENER_REFRESH_RATE, TimeUnit.MILLISECONDS);
 
       if (args.isNodeDiscoveryPersist()) {
         dbRead();
-        nodeManagerTasksTimer.scheduleAtFixedRate(new TimerTask() {
-          @Override
-          public void run() {
+        nodeManagerTasks.scheduleAtFixedRate(() -> {
+          try {
             dbWrite();
+          } catch (Exception e) {
+            logger.warn("Write Node statistics failed", e);
           }
-        }, DB_COMMIT_RATE, DB_COMMIT_RATE);
+        }, DB_COMMIT_RATE, DB_COMMIT_RATE, TimeUnit.MILLISECONDS);
       }
 
       for (Node node : bootNodes) {
@@ -164,12 +229,10 @@ public class NodeManager {
 
   private void dbWrite() {
     Set<Node> batch = new HashSet<>();
-    synchronized (this) {
-      for (NodeHandler nodeHandler : nodeHandlerMap.values()) {
-        int reputation = nodeHandler.getNodeStatistics().getReputation();
-        nodeHandler.getNode().setReputation(reputation);
-        batch.add(nodeHandler.getNode());
-      }
+    for (NodeHandler nodeHandler : nodeHandlerMap.values()) {
+      int reputation = nodeHandler.getNodeStatistics().getReputation();
+      nodeHandler.getNode().setReputation(reputation);
+      batch.add(nodeHandler.getNode());
     }
     logger.info("Write Node statistics to PeersStore: " + batch.size() + " nodes.");
     dbManager.clearAndWriteNeighbours(batch);
@@ -179,40 +242,53 @@ public class NodeManager {
     this.messageSender = messageSender;
   }
 
-  private String getKey(Node n) {
-    return getKey(new InetSocketAddress(n.getHost(), n.getPort()));
+  private InetSocketAddress getKey(Node n) {
+    return new InetSocketAddress(n.getHost(), n.getPort());
   }
 
-  private String getKey(InetSocketAddress address) {
-    InetAddress addr = address.getAddress();
-    return (addr == null ? address.getHostString() : addr.getHostAddress()) + ":" + address
-        .getPort();
+  public NodeHandler getNodeHandler(Node n) {
+    return getNodeHandler(getKey(n), n);
   }
 
-  public synchronized NodeHandler getNodeHandler(Node n) {
-    String key = getKey(n);
+  private NodeHandler getNodeHandler(InetSocketAddress key, Node n) {
     NodeHandler ret = nodeHandlerMap.get(key);
     if (ret == null) {
       trimTable();
-      ret = new NodeHandler(n, this);
-      nodeHandlerMap.put(key, ret);
-    } else if (ret.getNode().isDiscoveryNode() && !n.isDiscoveryNode()) {
+      ret = nodeHandlerMap.computeIfAbsent(key, k -> new NodeHandler(n, this));
+    }
+    if (ret.getNode().isDiscoveryNode() && !n.isDiscoveryNode()) {
       ret.node = n;
     }
     return ret;
   }
 
+  /**
+   * drop the handlers with the lowest reputation once the map overflows. Only one thread trims,
+   * the others go on with the map as it is.
+   */
   private void trimTable() {
-    if (nodeHandlerMap.size() > NODES_TRIM_THRESHOLD) {
-      List<NodeHandler> sorted = new ArrayList<>(nodeHandlerMap.values());
-      // reverse sort by reputation
-      sorted.sort(Comparator.comparingInt(o -> o.getNodeStatistics().getReputation()));
-      for (NodeHandler handler : sorted) {
-        nodeHandlerMap.remove(getKey(handler.getNode()));
+    if (nodeHandlerMap.size() <= NODES_TRIM_THRESHOLD || !trimming.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      List<Map.Entry<InetSocketAddress, NodeHandler>> entries =
+          new ArrayList<>(nodeHandlerMap.entrySet());
+      // reputations are computed from the statistics, take them once
+      int[] reputations = new int[entries.size()];
+      Integer[] order = new Integer[entries.size()];
+      for (int i = 0; i < order.length; i++) {
+        reputations[i] = entries.get(i).getValue().getNodeStatistics().getReputation();
+        order[i] = i;
+      }
+      Arrays.sort(order, Comparator.comparingInt(i -> reputations[i]));
+      for (Integer i : order) {
         if (nodeHandlerMap.size() <= MAX_NODES) {
           break;
         }
+        nodeHandlerMap.remove(entries.get(i).getKey(), entries.get(i).getValue());
       }
+    } finally {
+      trimming.set(false);
     }
   }
 
@@ -232,14 +308,17 @@ public class NodeManager {
     Message m = discoveryEvent.getMessage();
     InetSocketAddress sender = discoveryEvent.getAddress();
 
-    Node n = new Node(m.getNodeId(), sender.getHostString(), sender.getPort());
-
-    if (inboundOnlyFromKnownNodes && !hasNodeHandler(n)) {
+    NodeHandler nodeHandler = nodeHandlerMap.get(sender);
+    if (inboundOnlyFromKnownNodes && nodeHandler == null) {
       logger.debug(
           "=/=> (" + sender + "): inbound packet from unknown peer rejected due to config option.");
       return;
     }
-    NodeHandler nodeHandler = getNodeHandler(n);
+    // known senders keep their node, only new ones and boot nodes need the id from the packet
+    if (nodeHandler == null || nodeHandler.getNode().isDiscoveryNode()) {
+      Node n = new Node(m.getNodeId(), sender.getHostString(), sender.getPort());
+      nodeHandler = getNodeHandler(sender, n);
+    }
 
     byte type = m.getType();
     switch (type) {
@@ -264,7 +343,7 @@ public class NodeManager {
     }
   }
 
-  public synchronized List<NodeHandler> getNodes(int minReputation) {
+  public List<NodeHandler> getNodes(int minReputation) {
     List<NodeHandler> ret = new ArrayList<>();
     for (NodeHandler nodeHandler : nodeHandlerMap.values()) {
       if (nodeHandler.getNodeStatistics().getReputation() >= minReputation) {
@@ -276,11 +355,9 @@ public class NodeManager {
 
   public List<NodeHandler> getNodes(Predicate<NodeHandler> predicate, int limit) {
     ArrayList<NodeHandler> filtered = new ArrayList<>();
-    synchronized (this) {
-      for (NodeHandler handler : nodeHandlerMap.values()) {
-        if (predicate.test(handler)) {
-          filtered.add(handler);
-        }
+    for (NodeHandler handler : nodeHandlerMap.values()) {
+      if (predicate.test(handler)) {
+        filtered.add(handler);
       }
     }
 
@@ -288,9 +365,7 @@ public class NodeManager {
         filtered.size());
 
     //TODO: here can use head num sort.
-    filtered.sort(Comparator.comparingInt((NodeHandler o) -> o.getNodeStatistics().getReputation()).reversed());
-
-    return CollectionUtils.truncate(filtered, limit);
+    return CollectionUtils.truncate(sortByReputation(filtered), limit);
   }
 
   public List<NodeHandler> dumpActiveNodes() {
@@ -320,9 +395,18 @@ public class NodeManager {
     listeners.put(listener, new ListenerHandler(listener, filter));
   }
 
-  public synchronized String dumpAllStatistics() {
-    List<NodeHandler> l = new ArrayList<>(nodeHandlerMap.values());
-    l.sort(Comparator.comparingInt((NodeHandler o) -> o.getNodeStatistics().getReputation()).reversed());
+  /**
+   * the handlers by descending reputation, each reputation is computed once.
+   */
+  private static List<NodeHandler> sortByReputation(List<NodeHandler> handlers) {
+    Map<NodeHandler, Integer> reputations = new IdentityHashMap<>(handlers.size() * 2);
+    handlers.forEach(h -> reputations.put(h, h.getNodeStatistics().getReputation()));
+    handlers.sort(Comparator.comparingInt((NodeHandler h) -> reputations.get(h)).reversed());
+    return handlers;
+  }
+
+  public String dumpAllStatistics() {
+    List<NodeHandler> l = sortByReputation(new ArrayList<>(nodeHandlerMap.values()));
 
     StringBuilder sb = new StringBuilder();
     int zeroReputCount = 0;
@@ -343,9 +427,8 @@ public class NodeManager {
 
   public void close() {
     try {
-      nodeManagerTasksTimer.cancel();
-      pongTimer.shutdownNow();
-      logStatsTimer.cancel();
+      nodeManagerTasks.shutdownNow();
+      pingScheduler.stop();
     } catch (Exception e) {
       logger.warn("close failed.", e);
     }
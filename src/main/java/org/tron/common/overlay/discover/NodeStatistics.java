@@ -74,6 +74,7 @@ public class NodeStatistics {
   public final StatHandler p2pHandShake = new StatHandler();
   public final StatHandler tronOutMessage = new StatHandler();
   public final StatHandler tronInMessage = new StatHandler();
+  public final StatHandler tronInBlock = new StatHandler();
 
   private ReasonCode tronLastRemoteDisconnectReason = null;
   private ReasonCode tronLastLocalDisconnectReason = null;
@@ -216,6 +217,10 @@ public class NodeStatistics {
     persistedReputation = persistedReputation / 2;
   }
 
+  public int getDisconnectTimes() {
+    return disconnectTimes;
+  }
+
   public boolean wasDisconnected() {
     return lastDisconnectedTime > 0;
   }
@@ -36,17 +36,20 @@ public class PacketDecoder extends MessageToMessageDecoder<DatagramPacket> {
     public void decode(ChannelHandlerContext ctx, DatagramPacket packet, List<Object> out) throws Exception {
         ByteBuf buf = packet.content();
         int length = buf.readableBytes();
-        if (length > maxSize){
+        if (length <= 1 || length > maxSize){
             logger.error("UDP rcv bad packet, from {} length = {}", ctx.channel().remoteAddress(), length);
             return;
         }
-        byte[] encoded = new byte[length];
-        buf.readBytes(encoded);
+        // the message is parsed straight from the packet buffer, nothing is copied out of it
+        int index = buf.readerIndex();
+        byte type = buf.getByte(index);
         try {
-            DiscoveryEvent event = new DiscoveryEvent(Message.parse(encoded), packet.sender());
-            out.add(event);
+            Message message = Message.parse(type, buf.nioBuffer(index + 1, length - 1));
+            out.add(new DiscoveryEvent(message, packet.sender()));
         } catch (Exception e) {
-            logger.error("Parse msg failed, type {}, len {}, address {}", encoded[0], encoded.length, ctx.channel().remoteAddress());
+            logger.error("Parse msg failed, type {}, len {}, address {}", type, length, ctx.channel().remoteAddress());
+        } finally {
+            buf.skipBytes(length);
         }
     }
 }
@@ -0,0 +1,93 @@
+package org.tron.common.overlay.discover;
+
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
+import io.netty.util.TimerTask;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules the discovery timeouts on one hashed timing wheel and paces the pings. Handlers queue
+ * their pings here; every tick sends at most its share of the per second budget, so a burst of
+ * newly discovered nodes turns into an even stream of liveness checks.
+ */
+public class PingScheduler {
+
+  static final org.slf4j.Logger logger = LoggerFactory.getLogger("PingScheduler");
+
+  private static final long TICK_MILLIS = 100;
+  private static final int TICKS_PER_WHEEL = 512;
+
+  private final HashedWheelTimer wheel;
+  private final int pingsPerTick;
+  private final Queue<NodeHandler> pingQueue = new ConcurrentLinkedQueue<>();
+  private final AtomicInteger queuedPings = new AtomicInteger();
+  private volatile boolean stopped;
+
+  public PingScheduler(int pingsPerSecond) {
+    ThreadFactory threadFactory = r -> {
+      Thread thread = new Thread(r, "DiscoveryTimer");
+      thread.setDaemon(true);
+      return thread;
+    };
+    this.wheel = new HashedWheelTimer(threadFactory, TICK_MILLIS, TimeUnit.MILLISECONDS,
+        TICKS_PER_WHEEL);
+    this.pingsPerTick = Math.max(1, (int) (pingsPerSecond * TICK_MILLIS / 1000));
+    wheel.newTimeout(this::sendPings, TICK_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * run the task after the delay, null once the scheduler is stopped.
+   */
+  public Timeout newTimeout(TimerTask task, long delay, TimeUnit unit) {
+    if (stopped) {
+      return null;
+    }
+    try {
+      return wheel.newTimeout(task, delay, unit);
+    } catch (IllegalStateException e) {
+      // stopped meanwhile
+      return null;
+    }
+  }
+
+  /**
+   * queue a ping of the handler, it is sent within the rate limit.
+   */
+  public void schedulePing(NodeHandler handler) {
+    if (!stopped) {
+      pingQueue.offer(handler);
+      queuedPings.incrementAndGet();
+    }
+  }
+
+  private void sendPings(Timeout timeout) {
+    for (int i = 0; i < pingsPerTick; i++) {
+      NodeHandler handler = pingQueue.poll();
+      if (handler == null) {
+        break;
+      }
+      queuedPings.decrementAndGet();
+      try {
+        handler.doSendPing();
+      } catch (Throwable t) {
+        logger.error("Unhandled exception", t);
+      }
+    }
+    newTimeout(this::sendPings, TICK_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  public int getQueuedPings() {
+    return queuedPings.get();
+  }
+
+  public void stop() {
+    stopped = true;
+    wheel.stop();
+    pingQueue.clear();
+  }
+}
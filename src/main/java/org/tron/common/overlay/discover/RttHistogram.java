@@ -0,0 +1,47 @@
+package org.tron.common.overlay.discover;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Histogram of ping round trip times over fixed buckets, safe to update from any thread.
+ */
+public class RttHistogram {
+
+  private static final long[] BOUNDS = {10, 20, 50, 100, 200, 500, 1000, 2000, 5000};
+
+  // the last bucket counts everything above the largest bound
+  private final AtomicLongArray counts = new AtomicLongArray(BOUNDS.length + 1);
+
+  public void add(long rttMillis) {
+    int i = 0;
+    while (i < BOUNDS.length && rttMillis > BOUNDS[i]) {
+      i++;
+    }
+    counts.incrementAndGet(i);
+  }
+
+  /**
+   * the counts per bucket, bucket i holds the round trips up to bound i.
+   */
+  public long[] getCounts() {
+    long[] result = new long[counts.length()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = counts.get(i);
+    }
+    return result;
+  }
+
+  public static long[] getBounds() {
+    return BOUNDS.clone();
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder sb = new StringBuilder("rtt[");
+    for (int i = 0; i < counts.length(); i++) {
+      sb.append(i < BOUNDS.length ? "<=" + BOUNDS[i] : ">" + BOUNDS[BOUNDS.length - 1])
+          .append("ms:").append(counts.get(i)).append(i + 1 < counts.length() ? " " : "]");
+    }
+    return sb.toString();
+  }
+}
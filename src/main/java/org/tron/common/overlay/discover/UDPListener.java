@@ -20,15 +20,20 @@ package org.tron.common.overlay.discover;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelInitializer;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
 import io.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
 import io.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import io.netty.util.concurrent.Promise;
 import java.net.BindException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.tron.common.overlay.server.NettyTransport;
 import org.tron.common.overlay.server.WireTrafficStats;
 import org.tron.core.config.args.Args;
 
@@ -47,7 +52,8 @@ public class UDPListener {
 
   Args args = Args.getInstance();
 
-  private Channel channel;
+  // several channels share the port when the transport supports SO_REUSEPORT
+  private volatile List<Channel> channels = Collections.emptyList();
   private volatile boolean shutdown = false;
   private DiscoveryExecutor discoveryExecutor;
 
@@ -72,17 +78,19 @@ public class UDPListener {
   }
 
   public void start() throws Exception {
-    NioEventLoopGroup group = new NioEventLoopGroup(args.getUdpNettyWorkThreadNum());
+    EventLoopGroup group = NettyTransport.newEventLoopGroup(args.getUdpNettyWorkThreadNum(),
+        "UDPListenerWorker");
+    int channelCount = NettyTransport.datagramChannelCount();
     try {
       discoveryExecutor = new DiscoveryExecutor(nodeManager);
       discoveryExecutor.start();
       while (!shutdown) {
         Bootstrap b = new Bootstrap();
         b.group(group)
-            .channel(NioDatagramChannel.class)
-            .handler(new ChannelInitializer<NioDatagramChannel>() {
+            .channel(NettyTransport.datagramChannel())
+            .handler(new ChannelInitializer<DatagramChannel>() {
               @Override
-              public void initChannel(NioDatagramChannel ch)
+              public void initChannel(DatagramChannel ch)
                   throws Exception {
                 ch.pipeline().addLast(stats.udp);
                 ch.pipeline().addLast(new ProtobufVarint32LengthFieldPrepender());
@@ -93,12 +101,22 @@ public class UDPListener {
                 ch.pipeline().addLast(messageHandler);
               }
             });
+        NettyTransport.configureDatagram(b);
 
-        channel = b.bind(port).sync().channel();
+        List<Channel> bound = new ArrayList<>();
+        for (int i = 0; i < channelCount; i++) {
+          bound.add(b.bind(port).sync().channel());
+        }
+        channels = bound;
 
-        logger.info("Discovery UDPListener started, bind port {}", port);
+        logger.info("Discovery UDPListener started, bind port {}, {} channels", port,
+            channelCount);
 
-        channel.closeFuture().sync();
+        // the channels are recreated together once any of them closes
+        Promise<Void> closed = group.next().newPromise();
+        bound.forEach(ch -> ch.closeFuture().addListener(future -> closed.trySuccess(null)));
+        closed.sync();
+        bound.forEach(Channel::close);
         if (shutdown) {
           logger.info("Shutdown discovery UDPListener");
           break;
@@ -121,7 +139,7 @@ public class UDPListener {
   public void close() {
     logger.info("Closing UDPListener...");
     shutdown = true;
-    if (channel != null) {
+    for (Channel channel : channels) {
       try {
         channel.close().await(10, TimeUnit.SECONDS);
       } catch (Exception e) {
@@ -4,9 +4,7 @@ import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.overlay.discover.Node;
-import org.tron.common.utils.ByteArray;
 import org.tron.protos.Discover;
-import org.tron.protos.Discover.Endpoint;
 import org.tron.protos.Discover.FindNeighbours;
 
 @Slf4j
@@ -23,21 +21,26 @@ public class FindNodeMessage extends Message {
     }
   }
 
+  public FindNodeMessage(FindNeighbours findNeighbours) {
+    super(Message.FINE_PEERS, null);
+    this.findNeighbours = findNeighbours;
+  }
+
   public FindNodeMessage(Node from, byte[] targetId) {
     super(Message.FINE_PEERS, null);
-    Endpoint fromEndpoint = Endpoint.newBuilder()
-        .setAddress(ByteString.copyFrom(ByteArray.fromString(from.getHost())))
-        .setPort(from.getPort())
-        .setNodeId(ByteString.copyFrom(from.getId()))
-        .build();
     this.findNeighbours = FindNeighbours.newBuilder()
-        .setFrom(fromEndpoint)
+        .setFrom(from.getEndpoint())
         .setTargetId(ByteString.copyFrom(targetId))
         .setTimestamp(System.currentTimeMillis())
         .build();
     this.data = this.findNeighbours.toByteArray();
   }
 
+  @Override
+  protected byte[] encode() {
+    return this.findNeighbours.toByteArray();
+  }
+
   public byte[] getTargetId(){
     return this.findNeighbours.getTargetId().toByteArray();
   }
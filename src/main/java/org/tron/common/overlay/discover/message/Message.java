@@ -1,8 +1,10 @@
 package org.tron.common.overlay.discover.message;
 
+import java.nio.ByteBuffer;
 import org.apache.commons.lang3.ArrayUtils;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.exception.P2pException;
+import org.tron.protos.Discover;
 
 public abstract class Message {
 
@@ -24,11 +26,19 @@ public abstract class Message {
   }
 
   public byte[] getData() {
+    if (this.data == null) {
+      this.data = encode();
+    }
     return this.data;
   }
 
+  /**
+   * the encoding of a message parsed from the wire, only built if its bytes are asked for.
+   */
+  protected abstract byte[] encode();
+
   public byte[] getSendData() {
-    return ArrayUtils.add(this.data, 0 ,type);
+    return ArrayUtils.add(getData(), 0 ,type);
   }
 
   public Sha256Hash getMessageId() {
@@ -48,19 +58,24 @@ public abstract class Message {
   }
 
   public static Message parse(byte[] encode) throws  Exception{
-    byte type = encode[0];
-    byte[] data = ArrayUtils.subarray(encode, 1, encode.length);
+    return parse(encode[0], ByteBuffer.wrap(encode, 1, encode.length - 1));
+  }
+
+  /**
+   * parse the message body straight from the buffer, without copying it first.
+   */
+  public static Message parse(byte type, ByteBuffer body) throws Exception {
     switch (type) {
       case 1:
-        return new PingMessage(data);
+        return new PingMessage(Discover.PingMessage.parseFrom(body));
       case 2:
-        return new PongMessage(data);
+        return new PongMessage(Discover.PongMessage.parseFrom(body));
       case 3:
-        return new FindNodeMessage(data);
+        return new FindNodeMessage(Discover.FindNeighbours.parseFrom(body));
       case 4:
-        return new NeighborsMessage(data);
+        return new NeighborsMessage(Discover.Neighbours.parseFrom(body));
       default:
-        throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE, "type=" + encode[0]);
+        throw new P2pException(P2pException.TypeEnum.NO_SUCH_MESSAGE, "type=" + type);
     }
   }
 }
@@ -1,14 +1,13 @@
 package org.tron.common.overlay.discover.message;
 
-import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import java.util.ArrayList;
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
 import org.tron.common.overlay.discover.Node;
 import org.tron.common.utils.ByteArray;
 import org.tron.protos.Discover;
-import org.tron.protos.Discover.Endpoint;
 import org.tron.protos.Discover.Neighbours;
 import org.tron.protos.Discover.Neighbours.Builder;
 
@@ -16,6 +15,7 @@ import org.tron.protos.Discover.Neighbours.Builder;
 public class NeighborsMessage extends Message {
 
   private Discover.Neighbours neighbours;
+  private List<Node> nodes;
 
   public NeighborsMessage(byte[] data) {
     super(Message.GET_PEERS, data);
@@ -26,51 +26,72 @@ public class NeighborsMessage extends Message {
     }
   }
 
-  public NeighborsMessage(Node from, List<Node> neighbours) {
+  public NeighborsMessage(Neighbours neighbours) {
     super(Message.GET_PEERS, null);
-    Builder builder = Neighbours.newBuilder()
-        .setTimestamp(System.currentTimeMillis());
-
-    neighbours.forEach(neighbour -> {
-      Endpoint endpoint = Endpoint.newBuilder()
-          .setAddress(ByteString.copyFrom(ByteArray.fromString(neighbour.getHost())))
-          .setPort(neighbour.getPort())
-          .setNodeId(ByteString.copyFrom(neighbour.getId()))
-          .build();
+    this.neighbours = neighbours;
+  }
 
-      builder.addNeighbours(endpoint);
-    });
+  public NeighborsMessage(Node from, List<Node> neighbours) {
+    this(from, encodeNeighbours(neighbours));
+  }
 
-    Endpoint fromEndpoint = Endpoint.newBuilder()
-        .setAddress(ByteString.copyFrom(ByteArray.fromString(from.getHost())))
-        .setPort(from.getPort())
-        .setNodeId(ByteString.copyFrom(from.getId()))
+  /**
+   * @param encodedNeighbours the neighbours as encoded by {@link #encodeNeighbours(List)}, shared
+   * by every reply with the same neighbours. Protobuf merges concatenated encodings, so only the
+   * sender and the timestamp are encoded per message.
+   */
+  public NeighborsMessage(Node from, byte[] encodedNeighbours) {
+    super(Message.GET_PEERS, null);
+    Neighbours header = Neighbours.newBuilder()
+        .setFrom(from.getEndpoint())
+        .setTimestamp(System.currentTimeMillis())
         .build();
+    this.data = ArrayUtils.addAll(encodedNeighbours, header.toByteArray());
+  }
 
-    builder.setFrom(fromEndpoint);
+  public static byte[] encodeNeighbours(List<Node> neighbours) {
+    Builder builder = Neighbours.newBuilder();
+    neighbours.forEach(neighbour -> builder.addNeighbours(neighbour.getEndpoint()));
+    return builder.build().toByteArray();
+  }
 
-    this.neighbours = builder.build();
+  @Override
+  protected byte[] encode() {
+    return this.neighbours.toByteArray();
+  }
 
-    this.data = this.neighbours.toByteArray();
+  private Neighbours getNeighbours() {
+    if (neighbours == null) {
+      try {
+        neighbours = Neighbours.parseFrom(data);
+      } catch (InvalidProtocolBufferException e) {
+        logger.debug(e.getMessage(), e);
+        neighbours = Neighbours.getDefaultInstance();
+      }
+    }
+    return neighbours;
   }
 
   public List<Node> getNodes(){
-    List<Node> nodes = new ArrayList<>();
-    neighbours.getNeighboursList().forEach(neighbour -> nodes.add(
-            new Node(neighbour.getNodeId().toByteArray(),
-                ByteArray.toStr(neighbour.getAddress().toByteArray()),
-                neighbour.getPort())));
+    if (nodes == null) {
+      List<Node> list = new ArrayList<>();
+      getNeighbours().getNeighboursList().forEach(neighbour -> list.add(
+          new Node(neighbour.getNodeId().toByteArray(),
+              ByteArray.toStr(neighbour.getAddress().toByteArray()),
+              neighbour.getPort())));
+      nodes = list;
+    }
     return nodes;
   }
 
   @Override
   public byte[] getNodeId() {
-    return this.neighbours.getFrom().getNodeId().toByteArray();
+    return getNeighbours().getFrom().getNodeId().toByteArray();
   }
 
   @Override
   public String toString() {
-    return "[neighbours: " + neighbours;
+    return "[neighbours: " + getNeighbours();
   }
 
 }
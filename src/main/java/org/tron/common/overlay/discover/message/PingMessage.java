@@ -1,6 +1,5 @@
 package org.tron.common.overlay.discover.message;
 
-import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.overlay.discover.Node;
@@ -13,6 +12,8 @@ import org.tron.protos.Discover.Endpoint;
 public class PingMessage extends Message {
 
   private Discover.PingMessage pingMessage;
+  private Node from;
+  private Node to;
 
   public PingMessage(byte[] data) {
     super(Message.PING, data);
@@ -23,38 +24,44 @@ public class PingMessage extends Message {
     }
   }
 
+  public PingMessage(Discover.PingMessage pingMessage) {
+    super(Message.PING, null);
+    this.pingMessage = pingMessage;
+  }
+
   public PingMessage(Node from, Node to) {
     super(Message.PING, null);
-    Endpoint fromEndpoint = Endpoint.newBuilder()
-        .setNodeId(ByteString.copyFrom(from.getId()))
-        .setPort(from.getPort())
-        .setAddress(ByteString.copyFrom(ByteArray.fromString(from.getHost())))
-        .build();
-    Endpoint toEndpoint = Endpoint.newBuilder()
-        .setNodeId(ByteString.copyFrom(to.getId()))
-        .setPort(to.getPort())
-        .setAddress(ByteString.copyFrom(ByteArray.fromString(to.getHost())))
-        .build();
     this.pingMessage = Discover.PingMessage.newBuilder().setVersion(Args.getInstance().getNodeP2pVersion())
-        .setFrom(fromEndpoint)
-        .setTo(toEndpoint)
+        .setFrom(from.getEndpoint())
+        .setTo(to.getEndpoint())
         .setTimestamp(System.currentTimeMillis())
         .build();
     this.data = this.pingMessage.toByteArray();
+    this.from = from;
+    this.to = to;
+  }
+
+  @Override
+  protected byte[] encode() {
+    return this.pingMessage.toByteArray();
   }
 
   public Node getFrom (){
-    Endpoint from = this.pingMessage.getFrom();
-    Node node = new Node(from.getNodeId().toByteArray(),
-        ByteArray.toStr(from.getAddress().toByteArray()), from.getPort());
-    return node;
+    if (from == null) {
+      Endpoint endpoint = this.pingMessage.getFrom();
+      from = new Node(endpoint.getNodeId().toByteArray(),
+          ByteArray.toStr(endpoint.getAddress().toByteArray()), endpoint.getPort());
+    }
+    return from;
   }
 
   public Node getTo(){
-    Endpoint to = this.pingMessage.getTo();
-    Node node = new Node(to.getNodeId().toByteArray(),
-        ByteArray.toStr(to.getAddress().toByteArray()), to.getPort());
-    return node;
+    if (to == null) {
+      Endpoint endpoint = this.pingMessage.getTo();
+      to = new Node(endpoint.getNodeId().toByteArray(),
+          ByteArray.toStr(endpoint.getAddress().toByteArray()), endpoint.getPort());
+    }
+    return to;
   }
 
   @Override
@@ -1,6 +1,5 @@
 package org.tron.common.overlay.discover.message;
 
-import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.overlay.discover.Node;
@@ -13,6 +12,7 @@ import org.tron.protos.Discover.Endpoint;
 public class PongMessage extends Message {
 
   private Discover.PongMessage pongMessage;
+  private Node from;
 
   public PongMessage(byte[] data) {
     super(Message.PONG, data);
@@ -23,26 +23,34 @@ public class PongMessage extends Message {
     }
   }
 
+  public PongMessage(Discover.PongMessage pongMessage) {
+    super(Message.PONG, null);
+    this.pongMessage = pongMessage;
+  }
+
   public PongMessage(Node from) {
     super(Message.PONG, null);
-    Endpoint toEndpoint = Endpoint.newBuilder()
-        .setAddress(ByteString.copyFrom(ByteArray.fromString(from.getHost())))
-        .setPort(from.getPort())
-        .setNodeId(ByteString.copyFrom(from.getId()))
-        .build();
     this.pongMessage = Discover.PongMessage.newBuilder()
-        .setFrom(toEndpoint)
+        .setFrom(from.getEndpoint())
         .setEcho(Args.getInstance().getNodeP2pVersion())
         .setTimestamp(System.currentTimeMillis())
         .build();
     this.data = this.pongMessage.toByteArray();
+    this.from = from;
+  }
+
+  @Override
+  protected byte[] encode() {
+    return this.pongMessage.toByteArray();
   }
 
   public Node getFrom(){
-    Endpoint from = this.pongMessage.getFrom();
-    Node node = new Node(from.getNodeId().toByteArray(),
-        ByteArray.toStr(from.getAddress().toByteArray()), from.getPort());
-    return node;
+    if (from == null) {
+      Endpoint endpoint = this.pongMessage.getFrom();
+      from = new Node(endpoint.getNodeId().toByteArray(),
+          ByteArray.toStr(endpoint.getAddress().toByteArray()), endpoint.getPort());
+    }
+    return from;
   }
 
   public int getVersion(){
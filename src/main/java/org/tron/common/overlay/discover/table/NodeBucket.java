@@ -23,11 +23,14 @@ import java.util.List;
 
 /**
  * Created by kest on 5/25/15.
+ *
+ * Copy-on-write bucket: writers serialize on the bucket and publish a new list, readers use the
+ * current list without locking.
  */
 public class NodeBucket {
 
     private final int depth;
-    private List<NodeEntry> nodes = new ArrayList<>();
+    private volatile List<NodeEntry> nodes = Collections.emptyList();
 
     NodeBucket(int depth) {
         this.depth = depth;
@@ -37,44 +40,70 @@ public class NodeBucket {
         return depth;
     }
 
+    /**
+     * add the entry, or touch it if it is already in the bucket.
+     *
+     * @return the entry to challenge if the bucket is full, null otherwise
+     */
     public synchronized NodeEntry addNode(NodeEntry e) {
-        if (!nodes.contains(e)) {
-            if (nodes.size() >= KademliaOptions.BUCKET_SIZE) {
-                return getLastSeen();
-            } else {
-                nodes.add(e);
-            }
-        }else {
-            e.touch();
+        int index = nodes.indexOf(e);
+        if (index >= 0) {
+            nodes.get(index).touch();
+            return null;
         }
-
+        if (nodes.size() >= KademliaOptions.BUCKET_SIZE) {
+            return getLastSeen();
+        }
+        List<NodeEntry> updated = new ArrayList<>(nodes.size() + 1);
+        updated.addAll(nodes);
+        updated.add(e);
+        nodes = Collections.unmodifiableList(updated);
         return null;
     }
 
     private NodeEntry getLastSeen() {
-        List<NodeEntry> sorted = nodes;
-        Collections.sort(sorted, new TimeComparator());
-        return sorted.get(0);
+        return Collections.min(nodes, new TimeComparator());
+    }
+
+    /**
+     * @return true if the entry was in the bucket
+     */
+    public synchronized boolean dropNode(NodeEntry entry) {
+        int index = nodes.indexOf(entry);
+        if (index < 0) {
+            return false;
+        }
+        List<NodeEntry> updated = new ArrayList<>(nodes);
+        updated.remove(index);
+        nodes = Collections.unmodifiableList(updated);
+        return true;
+    }
+
+    public boolean contains(NodeEntry entry) {
+        return nodes.contains(entry);
     }
 
-    public synchronized void dropNode(NodeEntry entry) {
-        for (NodeEntry e : nodes) {
-            if (e.getId().equals(entry.getId())) {
-                nodes.remove(e);
-                break;
-            }
+    /**
+     * @return true if the entry was in the bucket
+     */
+    public boolean touchNode(NodeEntry entry) {
+        List<NodeEntry> current = nodes;
+        int index = current.indexOf(entry);
+        if (index < 0) {
+            return false;
         }
+        current.get(index).touch();
+        return true;
     }
 
     public int getNodesCount() {
         return nodes.size();
     }
 
+    /**
+     * a snapshot of the entries, it does not change with the bucket.
+     */
     public List<NodeEntry> getNodes() {
-//        List<NodeEntry> nodes = new ArrayList<>();
-//        for (NodeEntry e : this.nodes) {
-//            nodes.add(e);
-//        }
         return nodes;
     }
 }
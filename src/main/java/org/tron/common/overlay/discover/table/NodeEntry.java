@@ -17,6 +17,7 @@
  */
 package org.tron.common.overlay.discover.table;
 
+import java.util.Arrays;
 import org.tron.common.overlay.discover.Node;
 
 /**
@@ -27,7 +28,7 @@ public class NodeEntry {
     Node node;
     private String entryId;
     private int distance;
-    private long modified;
+    private volatile long modified;
 
     public NodeEntry(Node n) {
         this.node = n;
@@ -65,13 +66,14 @@ public class NodeEntry {
         return modified;
     }
 
+    // entries are the same node if they share the binary node id
     @Override
     public boolean equals(Object o) {
         boolean ret = false;
 
         if (o instanceof NodeEntry){
             NodeEntry e = (NodeEntry) o;
-            ret = this.getId().equals(e.getId());
+            ret = Arrays.equals(this.node.getId(), e.node.getId());
         }
 
         return ret;
@@ -79,7 +81,7 @@ public class NodeEntry {
 
     @Override
     public int hashCode() {
-        return this.node.hashCode();
+        return Arrays.hashCode(this.node.getId());
     }
 
     public static int distance(byte[] ownerId, byte[] targetId) {
@@ -21,9 +21,13 @@ import org.slf4j.LoggerFactory;
 import org.tron.common.overlay.discover.Node;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Created by kest on 5/25/15.
+ *
+ * An entry always lives in the bucket of its distance to our node, so every operation touches a
+ * single bucket and only that bucket is locked; reads go over bucket snapshots without locking.
  */
 public class NodeTable {
 
@@ -33,7 +37,7 @@ public class NodeTable {
 
     private final Node node;  // our node
     private transient NodeBucket[] buckets;
-    private transient List<NodeEntry> nodes;
+    private final AtomicInteger nodesCount = new AtomicInteger();
     private Map<Node, Node> evictedCandidates = new HashMap<>();
     private Map<Node, Date> expectedPongs = new HashMap<>();
 
@@ -48,7 +52,7 @@ public class NodeTable {
 
     public final void initialize()
     {
-        nodes = new ArrayList<>();
+        nodesCount.set(0);
         buckets = new NodeBucket[KademliaOptions.BINS];
         for (int i = 0; i < KademliaOptions.BINS; i++)
         {
@@ -56,42 +60,39 @@ public class NodeTable {
         }
     }
 
-    public synchronized Node addNode(Node n) {
+    public Node addNode(Node n) {
         NodeEntry e = new NodeEntry(node.getId(), n);
-        NodeEntry lastSeen = buckets[getBucketId(e)].addNode(e);
+        NodeBucket bucket = buckets[getBucketId(e)];
+        boolean added;
+        NodeEntry lastSeen;
+        synchronized (bucket) {
+            added = !bucket.contains(e);
+            lastSeen = bucket.addNode(e);
+        }
         if (lastSeen != null) {
             return lastSeen.getNode();
         }
-        if (!nodes.contains(e)) {
-            nodes.add(e);
+        if (added) {
+            nodesCount.incrementAndGet();
         }
         return null;
     }
 
-    public synchronized void dropNode(Node n) {
+    public void dropNode(Node n) {
         NodeEntry e = new NodeEntry(node.getId(), n);
-        buckets[getBucketId(e)].dropNode(e);
-        nodes.remove(e);
+        if (buckets[getBucketId(e)].dropNode(e)) {
+            nodesCount.decrementAndGet();
+        }
     }
 
-    public synchronized boolean contains(Node n) {
+    public boolean contains(Node n) {
         NodeEntry e = new NodeEntry(node.getId(), n);
-        for (NodeBucket b : buckets) {
-            if (b.getNodes().contains(e)) {
-                return true;
-            }
-        }
-        return false;
+        return buckets[getBucketId(e)].contains(e);
     }
 
-    public synchronized void touchNode(Node n) {
+    public void touchNode(Node n) {
         NodeEntry e = new NodeEntry(node.getId(), n);
-        for (NodeBucket b : buckets) {
-            if (b.getNodes().contains(e)) {
-                b.getNodes().get(b.getNodes().indexOf(e)).touch();
-                break;
-            }
-        }
+        buckets[getBucketId(e)].touchNode(e);
     }
 
     public int getBucketsCount() {
@@ -104,7 +105,7 @@ public class NodeTable {
         return i;
     }
 
-    public synchronized NodeBucket[] getBuckets() {
+    public NodeBucket[] getBuckets() {
         return buckets;
     }
 
@@ -113,11 +114,11 @@ public class NodeTable {
         return id < 0 ? 0 : id;
     }
 
-    public synchronized int getNodesCount() {
-        return nodes.size();
+    public int getNodesCount() {
+        return nodesCount.get();
     }
 
-    public synchronized List<NodeEntry> getAllNodes()
+    public List<NodeEntry> getAllNodes()
     {
         List<NodeEntry> nodes = new ArrayList<>();
 
@@ -134,7 +135,7 @@ public class NodeTable {
         return nodes;
     }
 
-    public synchronized List<Node> getClosestNodes(byte[] targetId) {
+    public List<Node> getClosestNodes(byte[] targetId) {
         List<NodeEntry> closestEntries = getAllNodes();
         List<Node> closestNodes = new ArrayList<>();
         Collections.sort(closestEntries, new DistanceComparator(targetId));
@@ -63,7 +63,8 @@ public class MessageQueue {
     sendMsgThread = new Thread(()->{
      while (sendMsgFlag) {
        try {
-         if (msgQueue.isEmpty()){
+         // past the high water mark the messages wait here until netty has flushed
+         if (msgQueue.isEmpty() || !ctx.channel().isWritable()){
            Thread.sleep(10);
            continue;
          }
@@ -0,0 +1,148 @@
+package org.tron.common.overlay.server;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.DefaultMessageSizeEstimator;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.SocketChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.tron.core.config.args.Args;
+
+/**
+ * The netty transport of the p2p and discovery sockets: the native epoll one on Linux, NIO where
+ * it is not available or turned off, with the socket and buffer options of the config.
+ */
+public class NettyTransport {
+
+  private static final Logger logger = LoggerFactory.getLogger("NettyTransport");
+
+  private NettyTransport() {
+  }
+
+  /**
+   * whether the native epoll transport is used.
+   */
+  public static boolean isEpoll() {
+    return Args.getInstance().isNodeEpollEnable() && Epoll.isAvailable();
+  }
+
+  /**
+   * @param threads the number of event loops, 0 for netty's default
+   * @param name the prefix of the thread names
+   */
+  public static EventLoopGroup newEventLoopGroup(int threads, String name) {
+    ThreadFactory threadFactory = new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable r) {
+        return new Thread(r, name + "-" + count.getAndIncrement());
+      }
+    };
+    if (isEpoll()) {
+      logger.info("{} uses the epoll transport", name);
+      return new EpollEventLoopGroup(threads, threadFactory);
+    }
+    if (Args.getInstance().isNodeEpollEnable()) {
+      logger.info("{} uses NIO, epoll is unavailable: {}", name,
+          String.valueOf(Epoll.unavailabilityCause()));
+    }
+    return new NioEventLoopGroup(threads, threadFactory);
+  }
+
+  public static Class<? extends ServerChannel> serverSocketChannel() {
+    return isEpoll() ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  public static Class<? extends SocketChannel> socketChannel() {
+    return isEpoll() ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  public static Class<? extends DatagramChannel> datagramChannel() {
+    return isEpoll() ? EpollDatagramChannel.class : NioDatagramChannel.class;
+  }
+
+  /**
+   * how many datagram channels share the discovery port, more than one needs SO_REUSEPORT.
+   */
+  public static int datagramChannelCount() {
+    return isEpoll() ? Math.max(1, Args.getInstance().getUdpNettyWorkThreadNum()) : 1;
+  }
+
+  /**
+   * the options of the accepted peer connections.
+   */
+  public static void configure(ServerBootstrap b) {
+    Args args = Args.getInstance();
+    b.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+    b.childOption(ChannelOption.SO_KEEPALIVE, true);
+    b.childOption(ChannelOption.TCP_NODELAY, args.isNodeTcpNoDelay());
+    b.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+    b.childOption(ChannelOption.MESSAGE_SIZE_ESTIMATOR, DefaultMessageSizeEstimator.DEFAULT);
+    b.childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark(args));
+    if (args.getNodeSendBufferSize() > 0) {
+      b.childOption(ChannelOption.SO_SNDBUF, args.getNodeSendBufferSize());
+    }
+    if (args.getNodeReceiveBufferSize() > 0) {
+      b.childOption(ChannelOption.SO_RCVBUF, args.getNodeReceiveBufferSize());
+    }
+  }
+
+  /**
+   * the options of the connections we open.
+   */
+  public static void configureClient(Bootstrap b) {
+    Args args = Args.getInstance();
+    b.option(ChannelOption.SO_KEEPALIVE, true);
+    b.option(ChannelOption.TCP_NODELAY, args.isNodeTcpNoDelay());
+    b.option(ChannelOption.MESSAGE_SIZE_ESTIMATOR, DefaultMessageSizeEstimator.DEFAULT);
+    b.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, args.getNodeConnectionTimeout());
+    b.option(ChannelOption.WRITE_BUFFER_WATER_MARK, writeBufferWaterMark(args));
+    applyCommon(b, args.getNodeSendBufferSize(), args.getNodeReceiveBufferSize());
+  }
+
+  /**
+   * the options of the discovery channels, bound with SO_REUSEPORT when there are several.
+   */
+  public static void configureDatagram(Bootstrap b) {
+    Args args = Args.getInstance();
+    applyCommon(b, 0, args.getUdpReceiveBufferSize());
+    if (datagramChannelCount() > 1) {
+      b.option(EpollChannelOption.SO_REUSEPORT, true);
+    }
+  }
+
+  private static void applyCommon(Bootstrap b, int sendBufferSize, int receiveBufferSize) {
+    b.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+    if (sendBufferSize > 0) {
+      b.option(ChannelOption.SO_SNDBUF, sendBufferSize);
+    }
+    if (receiveBufferSize > 0) {
+      b.option(ChannelOption.SO_RCVBUF, receiveBufferSize);
+    }
+  }
+
+  static WriteBufferWaterMark writeBufferWaterMark(Args args) {
+    int low = args.getNodeWriteBufferLowWaterMark();
+    int high = Math.max(low, args.getNodeWriteBufferHighWaterMark());
+    return new WriteBufferWaterMark(low, high);
+  }
+}
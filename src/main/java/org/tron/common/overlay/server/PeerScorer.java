@@ -0,0 +1,57 @@
+package org.tron.common.overlay.server;
+
+import org.tron.common.overlay.discover.NodeHandler;
+import org.tron.common.overlay.discover.NodeStatistics;
+
+/**
+ * Scores peers for selection: the reputation, plus the blocks a peer delivers, minus its round
+ * trip time, how far its head lags behind ours and how often it was disconnected. Candidates are
+ * scored from their discovery statistics, connected peers from what they did in the session.
+ */
+public class PeerScorer {
+
+  // a peer without measured round trips is assumed to be this far away
+  static final double UNKNOWN_RTT_MILLIS = 300;
+  static final double MAX_RTT_MILLIS = 3000;
+  static final double RTT_PENALTY_PER_MILLI = 0.1;
+  static final double BLOCKS_PER_MINUTE_CAP = 20;
+  static final double BLOCK_BONUS = 10;
+  static final long HEAD_LAG_CAP = 100;
+  static final double HEAD_LAG_PENALTY = 2;
+  static final double DISCONNECT_PENALTY = 50;
+
+  private PeerScorer() {
+  }
+
+  public static double score(int reputation, double rttMillis, double blocksPerMinute,
+      long headLag, int disconnectTimes) {
+    double rtt = rttMillis > 0 ? Math.min(rttMillis, MAX_RTT_MILLIS) : UNKNOWN_RTT_MILLIS;
+    return reputation
+        - rtt * RTT_PENALTY_PER_MILLI
+        + Math.min(blocksPerMinute, BLOCKS_PER_MINUTE_CAP) * BLOCK_BONUS
+        - Math.min(Math.max(headLag, 0), HEAD_LAG_CAP) * HEAD_LAG_PENALTY
+        - disconnectTimes * DISCONNECT_PENALTY;
+  }
+
+  /**
+   * the score of a node we are not connected to.
+   */
+  public static double scoreCandidate(NodeHandler handler) {
+    NodeStatistics stats = handler.getNodeStatistics();
+    return score(stats.getReputation(), stats.discoverMessageLatency.getAvrg(), 0, 0,
+        stats.getDisconnectTimes());
+  }
+
+  /**
+   * the score of a connected peer.
+   *
+   * @param rttMillis the average p2p ping round trip, 0 if not measured yet
+   * @param blocksPerMinute the blocks the peer delivered per minute of the session
+   * @param headLag how many blocks the head we share with the peer is behind our head
+   */
+  public static double scorePeer(NodeStatistics stats, double rttMillis, double blocksPerMinute,
+      long headLag) {
+    double rtt = rttMillis > 0 ? rttMillis : stats.discoverMessageLatency.getAvrg();
+    return score(stats.getReputation(), rtt, blocksPerMinute, headLag, stats.getDisconnectTimes());
+  }
+}
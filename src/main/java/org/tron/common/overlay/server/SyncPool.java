@@ -23,8 +23,11 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -39,7 +42,9 @@ import org.tron.common.overlay.client.PeerClient;
 import org.tron.common.overlay.discover.Node;
 import org.tron.common.overlay.discover.NodeHandler;
 import org.tron.common.overlay.discover.NodeManager;
+import org.tron.common.overlay.message.ReasonCode;
 import org.tron.core.config.args.Args;
+import org.tron.core.db.Manager;
 import org.tron.core.net.peer.PeerConnection;
 import org.tron.core.net.peer.PeerConnectionDelegate;
 
@@ -50,6 +55,10 @@ public class SyncPool {
 
   private static final long WORKER_TIMEOUT = 16;
   private static final double fator = 0.4;
+  // every few rounds the worst active peer is replaced if a much better candidate is known
+  private static final int EVICT_ROUNDS = 4;
+  private static final long MIN_SESSION_MILLIS = 2 * 60 * 1000;
+  private static final double EVICT_MARGIN = 100;
 
   private final List<PeerConnection> activePeers = Collections.synchronizedList(new ArrayList<PeerConnection>());
   private final AtomicInteger passivePeersCount = new AtomicInteger(0);
@@ -61,6 +70,13 @@ public class SyncPool {
   @Autowired
   private NodeManager nodeManager;
 
+  @Autowired
+  private Manager dbManager;
+
+  private final Map<PeerConnection, Session> sessions = new ConcurrentHashMap<>();
+
+  private int rounds = 0;
+
   @Autowired
   private ApplicationContext ctx;
 
@@ -90,6 +106,9 @@ public class SyncPool {
 
     poolLoopExecutor.scheduleWithFixedDelay(() -> {
       try {
+        if (++rounds % EVICT_ROUNDS == 0) {
+          evictWorstPeer();
+        }
         fillUp();
       } catch (Throwable t) {
         logger.error("Exception in sync worker", t);
@@ -107,16 +126,72 @@ public class SyncPool {
     int lackSize = (int) (maxActiveNodes * fator) - activePeersCount.get();
     if(lackSize <= 0) return;
 
-    final Set<String> nodesInUse = channelManager.nodesInUse();
-    nodesInUse.add(nodeManager.getPublicHomeNode().getHexId());
-
-    List<NodeHandler> newNodes = nodeManager.getNodes(new NodeSelector(nodesInUse), lackSize);
+    List<NodeHandler> newNodes = getBestCandidates(lackSize);
     newNodes.forEach(n -> {
       peerClient.connectAsync(n, false);
       nodeHandlerCache.put(n, System.currentTimeMillis());
     });
   }
 
+  /**
+   * the selectable nodes with the highest scores.
+   */
+  private List<NodeHandler> getBestCandidates(int limit) {
+    final Set<String> nodesInUse = channelManager.nodesInUse();
+    nodesInUse.add(nodeManager.getPublicHomeNode().getHexId());
+
+    List<NodeHandler> candidates = nodeManager
+        .getNodes(new NodeSelector(nodesInUse), Integer.MAX_VALUE);
+    Map<NodeHandler, Double> scores = new IdentityHashMap<>();
+    candidates.forEach(h -> scores.put(h, PeerScorer.scoreCandidate(h)));
+    candidates.sort(Comparator.comparingDouble((NodeHandler h) -> scores.get(h)).reversed());
+    return candidates.size() > limit ? candidates.subList(0, limit) : candidates;
+  }
+
+  private double scorePeer(PeerConnection peer, Session session, long now, long headNum) {
+    double minutes = Math.max(now - session.startTime, 1) / 60000.0;
+    long blocks = peer.getNodeStatistics().tronInBlock.get() - session.blocksAtStart;
+    return PeerScorer.scorePeer(peer.getNodeStatistics(), peer.getPeerStats().getAvgLatency(),
+        blocks / minutes, headNum - peer.getHeadBlockWeBothHave().getNum());
+  }
+
+  /**
+   * disconnect the worst scored peer we connected to once the pool is full, if a candidate
+   * scores better by a margin; the next fill up connects the best candidates. Peers we are
+   * syncing from and young sessions, which have no measurements yet, are kept.
+   */
+  private void evictWorstPeer() {
+    if (activePeersCount.get() < (int) (maxActiveNodes * fator)) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    long headNum = dbManager.getHeadBlockNum();
+    PeerConnection worst = null;
+    double worstScore = Double.MAX_VALUE;
+    for (PeerConnection peer : getActivePeers()) {
+      Session session = sessions.get(peer);
+      if (!peer.isActive() || session == null || peer.isNeedSyncFromPeer()
+          || now - session.startTime < MIN_SESSION_MILLIS) {
+        continue;
+      }
+      double score = scorePeer(peer, session, now, headNum);
+      if (score < worstScore) {
+        worst = peer;
+        worstScore = score;
+      }
+    }
+    if (worst == null) {
+      return;
+    }
+    List<NodeHandler> best = getBestCandidates(1);
+    if (!best.isEmpty()
+        && PeerScorer.scoreCandidate(best.get(0)) - worstScore > EVICT_MARGIN) {
+      logger.info("Replace peer {} with score {}, candidate {} scores {}", worst.getNode(),
+          (int) worstScore, best.get(0).getNode(), (int) PeerScorer.scoreCandidate(best.get(0)));
+      worst.disconnect(ReasonCode.REQUESTED);
+    }
+  }
+
   // for test only
   public void addActivePeers(PeerConnection p) {
     activePeers.add(p);
@@ -173,6 +248,8 @@ public class SyncPool {
         activePeersCount.incrementAndGet();
       }
       activePeers.add((PeerConnection) peer);
+      sessions.put((PeerConnection) peer, new Session(System.currentTimeMillis(),
+          peer.getNodeStatistics().tronInBlock.get()));
       activePeers.sort(Comparator.comparingDouble(c -> c.getPeerStats().getAvgLatency()));
       peerDel.onConnectPeer((PeerConnection) peer);
     }
@@ -186,6 +263,7 @@ public class SyncPool {
         activePeersCount.decrementAndGet();
       }
       activePeers.remove(peer);
+      sessions.remove(peer);
       peerDel.onDisconnectPeer((PeerConnection)peer);
     }
   }
@@ -206,6 +284,17 @@ public class SyncPool {
     }
   }
 
+  private static class Session {
+
+    private final long startTime;
+    private final long blocksAtStart;
+
+    Session(long startTime, long blocksAtStart) {
+      this.startTime = startTime;
+      this.blocksAtStart = blocksAtStart;
+    }
+  }
+
   class NodeSelector implements Predicate<NodeHandler> {
 
     Set<String> nodesInUse;
@@ -0,0 +1,635 @@
+package org.tron.common.storage.blocklog;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Longs;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.slf4j.Slf4j;
+import org.iq80.leveldb.WriteOptions;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.utils.FileUtil;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.config.args.Args;
+
+/**
+ * Append-only block storage. Blocks are written sequentially into fixed size segment files and
+ * read back through memory mappings, so the immutable block data is never rewritten by
+ * compaction.
+ *
+ * <p>Keys are block ids, whose first 8 bytes are the block height. A record is
+ * {@code [int length][32 byte key][data][int crc32]}; the height index maps every height to
+ * the segment and offset of its record. Only the tail can be truncated, lower heights can only be
+ * tombstoned in the index; {@link #releaseSegments} deletes the segments below the lowest indexed
+ * height once pruning tombstoned all of their records. On open, records written after the last
+ * indexed height are re-indexed and the log is cut at the first incomplete or corrupted
+ * record.</p>
+ */
+@Slf4j
+public class BlockLogDataSourceImpl implements DbSourceInter<byte[]> {
+
+  public static final int DEFAULT_SEGMENT_SIZE = 256 * 1024 * 1024;
+
+  private static final int KEY_LENGTH = Sha256Hash.LENGTH;
+  private static final int RECORD_OVERHEAD = 4 + KEY_LENGTH + 4;
+  private static final int INDEX_REGION_ENTRIES = 1 << 20;
+  private static final long INDEX_REGION_SIZE = INDEX_REGION_ENTRIES * 8L;
+  private static final String SEGMENT_FORMAT = "blocks-%06d.log";
+  private static final Pattern SEGMENT_PATTERN = Pattern.compile("blocks-(\\d{6})\\.log");
+  private static final String INDEX_FILE = "height.idx";
+
+  private String parentName;
+  private String dataBaseName;
+  private final int segmentSize;
+  private boolean alive;
+  private ReadWriteLock lock = new ReentrantReadWriteLock();
+
+  // released segments are null
+  private List<MappedByteBuffer> segments = new ArrayList<>();
+  private List<MappedByteBuffer> indexRegions = new ArrayList<>();
+  private FileChannel indexChannel;
+  private int writePosition;
+  private long tailHeight = -1;
+  private long lowestHeight;
+
+  /**
+   * constructor.
+   */
+  public BlockLogDataSourceImpl(String parentName, String name) {
+    this(parentName, name, DEFAULT_SEGMENT_SIZE);
+  }
+
+  public BlockLogDataSourceImpl(String parentName, String name, int segmentSize) {
+    this.parentName = parentName + Args.getInstance().getStorage().getDirectory();
+    this.dataBaseName = name;
+    this.segmentSize = segmentSize;
+  }
+
+  @Override
+  public void initDB() {
+    lock.writeLock().lock();
+    try {
+      if (isAlive()) {
+        return;
+      }
+      if (dataBaseName == null) {
+        throw new NullPointerException("no name set to the dbStore");
+      }
+
+      Path dbPath = getDbPath();
+      Files.createDirectories(dbPath);
+      indexChannel = FileChannel.open(dbPath.resolve(INDEX_FILE), StandardOpenOption.CREATE,
+          StandardOpenOption.READ, StandardOpenOption.WRITE);
+      long regions = (indexChannel.size() + INDEX_REGION_SIZE - 1) / INDEX_REGION_SIZE;
+      for (int i = 0; i < regions; i++) {
+        indexRegions.add(indexChannel.map(MapMode.READ_WRITE, i * INDEX_REGION_SIZE,
+            INDEX_REGION_SIZE));
+      }
+      int lastSegment = 0;
+      try (Stream<Path> files = Files.list(dbPath)) {
+        lastSegment = files.map(file -> SEGMENT_PATTERN.matcher(file.getFileName().toString()))
+            .filter(Matcher::matches)
+            .mapToInt(matcher -> Integer.parseInt(matcher.group(1)))
+            .max().orElse(0);
+      }
+      for (int i = 0; i <= lastSegment; i++) {
+        segments.add(i < lastSegment && !Files.exists(getSegmentPath(i)) ? null : mapSegment(i));
+      }
+      recover();
+      alive = true;
+    } catch (IOException ioe) {
+      throw new RuntimeException("Can't initialize database", ioe);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private Path getDbPath() {
+    return Paths.get(parentName, dataBaseName);
+  }
+
+  private Path getSegmentPath(int segment) {
+    return getDbPath().resolve(String.format(SEGMENT_FORMAT, segment));
+  }
+
+  private MappedByteBuffer mapSegment(int segment) throws IOException {
+    try (FileChannel channel = FileChannel.open(getSegmentPath(segment),
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      return channel.map(MapMode.READ_WRITE, 0, segmentSize);
+    }
+  }
+
+  /**
+   * drop damaged records at the tail, then index the complete records written after it.
+   */
+  private void recover() {
+    tailHeight = previousHeight(indexRegions.size() * (long) INDEX_REGION_ENTRIES - 1);
+    while (tailHeight >= 0 && readRecord(getPointer(tailHeight)) == null) {
+      logger.warn("drop damaged block record at height {} of {}", tailHeight, dataBaseName);
+      setPointer(tailHeight, 0);
+      tailHeight = previousHeight(tailHeight - 1);
+    }
+
+    int segment = firstSegment();
+    int position = 0;
+    if (tailHeight >= 0) {
+      long pointer = getPointer(tailHeight);
+      segment = segmentOf(pointer);
+      position = offsetOf(pointer) + RECORD_OVERHEAD + segments.get(segment).getInt(
+          offsetOf(pointer));
+    }
+
+    int recovered = 0;
+    while (true) {
+      byte[] key = readKey(segment, position);
+      if (key == null && position + 4 <= segmentSize
+          && segments.get(segment).getInt(position) != 0) {
+        logger.warn("truncate damaged block log {} at segment {} offset {}", dataBaseName,
+            segment, position);
+      }
+      if (key == null || Longs.fromByteArray(key) <= tailHeight) {
+        if (segment + 1 < segments.size() && isEndOfSegment(segment, position)) {
+          segment++;
+          position = 0;
+          continue;
+        }
+        break;
+      }
+      tailHeight = Longs.fromByteArray(key);
+      setPointer(tailHeight, toPointer(segment, position));
+      position += RECORD_OVERHEAD + segments.get(segment).getInt(position);
+      recovered++;
+    }
+    if (recovered > 0) {
+      logger.info("recover {} block records of {}", recovered, dataBaseName);
+    }
+    truncateAt(segment, position);
+  }
+
+  private int firstSegment() {
+    int segment = 0;
+    while (segments.get(segment) == null) {
+      segment++;
+    }
+    return segment;
+  }
+
+  private boolean isEndOfSegment(int segment, int position) {
+    return position + 4 > segmentSize || segments.get(segment).getInt(position) == 0;
+  }
+
+  /**
+   * cut the log at the position, which becomes the write position.
+   */
+  private void truncateAt(int segment, int position) {
+    while (segments.size() - 1 > segment) {
+      int last = segments.size() - 1;
+      segments.remove(last);
+      try {
+        Files.deleteIfExists(getSegmentPath(last));
+      } catch (IOException e) {
+        logger.warn("can not delete segment " + last + " of " + dataBaseName, e);
+      }
+    }
+    if (position + 4 <= segmentSize) {
+      segments.get(segment).putInt(position, 0);
+    }
+    writePosition = position;
+  }
+
+  private static long toPointer(int segment, int offset) {
+    return (((long) segment << 32) | offset) + 1;
+  }
+
+  private static int segmentOf(long pointer) {
+    return (int) ((pointer - 1) >>> 32);
+  }
+
+  private static int offsetOf(long pointer) {
+    return (int) (pointer - 1);
+  }
+
+  private long getPointer(long height) {
+    int region = (int) (height / INDEX_REGION_ENTRIES);
+    if (height < 0 || region >= indexRegions.size()) {
+      return 0;
+    }
+    return indexRegions.get(region).getLong((int) (height % INDEX_REGION_ENTRIES) * 8);
+  }
+
+  private void setPointer(long height, long pointer) {
+    int region = (int) (height / INDEX_REGION_ENTRIES);
+    try {
+      while (region >= indexRegions.size()) {
+        indexRegions.add(indexChannel.map(MapMode.READ_WRITE,
+            indexRegions.size() * INDEX_REGION_SIZE, INDEX_REGION_SIZE));
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    indexRegions.get(region).putLong((int) (height % INDEX_REGION_ENTRIES) * 8, pointer);
+  }
+
+  /**
+   * the highest indexed height not above the given one, -1 if there is none.
+   */
+  private long previousHeight(long height) {
+    for (long h = height; h >= 0; h--) {
+      if (getPointer(h) != 0) {
+        return h;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * the key of the record at the position, null if there is no complete record.
+   */
+  private byte[] readKey(int segment, int position) {
+    Entry<byte[], byte[]> entry = readRecord(toPointer(segment, position));
+    return entry == null ? null : entry.getKey();
+  }
+
+  /**
+   * read and check the record, null if it is missing, incomplete or corrupted.
+   */
+  private Entry<byte[], byte[]> readRecord(long pointer) {
+    if (pointer == 0) {
+      return null;
+    }
+    int segment = segmentOf(pointer);
+    int offset = offsetOf(pointer);
+    if (segment >= segments.size() || segments.get(segment) == null
+        || offset + RECORD_OVERHEAD > segmentSize) {
+      return null;
+    }
+    ByteBuffer buffer = segments.get(segment).duplicate();
+    int length = buffer.getInt(offset);
+    if (length <= 0 || length > segmentSize - offset - RECORD_OVERHEAD) {
+      return null;
+    }
+    byte[] key = new byte[KEY_LENGTH];
+    byte[] data = new byte[length];
+    buffer.position(offset + 4);
+    buffer.get(key);
+    buffer.get(data);
+    CRC32 crc = new CRC32();
+    crc.update(key);
+    crc.update(data);
+    if (buffer.getInt() != (int) crc.getValue()) {
+      return null;
+    }
+    return Maps.immutableEntry(key, data);
+  }
+
+  private static long heightOf(byte[] key) {
+    if (key == null || key.length != KEY_LENGTH) {
+      throw new IllegalArgumentException("block log keys must be block ids");
+    }
+    return Longs.fromByteArray(key);
+  }
+
+  @Override
+  public byte[] getData(byte[] key) {
+    long height = heightOf(key);
+    lock.readLock().lock();
+    try {
+      Entry<byte[], byte[]> entry = readRecord(getPointer(height));
+      if (entry == null || !Arrays.equals(entry.getKey(), key)) {
+        return null;
+      }
+      return entry.getValue();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value) {
+    long height = heightOf(key);
+    int recordLength = RECORD_OVERHEAD + value.length;
+    if (recordLength > segmentSize) {
+      throw new IllegalArgumentException(
+          "block of " + value.length + " bytes does not fit a segment of " + dataBaseName);
+    }
+    lock.writeLock().lock();
+    try {
+      if (height < tailHeight) {
+        throw new IllegalStateException("block log " + dataBaseName
+            + " is append only, can not put height " + height + " below tail " + tailHeight);
+      }
+      if (height == tailHeight) {
+        truncateTail();
+      }
+      if (writePosition + recordLength > segmentSize) {
+        segments.add(mapSegment(segments.size()));
+        writePosition = 0;
+      }
+
+      CRC32 crc = new CRC32();
+      crc.update(key);
+      crc.update(value);
+      ByteBuffer buffer = segments.get(segments.size() - 1).duplicate();
+      buffer.position(writePosition);
+      buffer.putInt(value.length);
+      buffer.put(key);
+      buffer.put(value);
+      buffer.putInt((int) crc.getValue());
+      if (buffer.remaining() >= 4) {
+        buffer.putInt(0);
+      }
+
+      setPointer(height, toPointer(segments.size() - 1, writePosition));
+      writePosition += recordLength;
+      tailHeight = height;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value, WriteOptions options) {
+    putData(key, value);
+    if (options.sync()) {
+      flush();
+    }
+  }
+
+  @Override
+  public void deleteData(byte[] key) {
+    long height = heightOf(key);
+    lock.writeLock().lock();
+    try {
+      Entry<byte[], byte[]> entry = readRecord(getPointer(height));
+      if (entry == null || !Arrays.equals(entry.getKey(), key)) {
+        return;
+      }
+      if (height == tailHeight) {
+        truncateTail();
+      } else {
+        setPointer(height, 0);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public void deleteData(byte[] key, WriteOptions options) {
+    deleteData(key);
+    if (options.sync()) {
+      flush();
+    }
+  }
+
+  private void truncateTail() {
+    long pointer = getPointer(tailHeight);
+    setPointer(tailHeight, 0);
+    truncateAt(segmentOf(pointer), offsetOf(pointer));
+    tailHeight = previousHeight(tailHeight - 1);
+  }
+
+  /**
+   * delete the segments below the one of the lowest indexed height, all of their records are
+   * deleted. The segment being written is kept. A released mapping is unmapped by the garbage
+   * collector, the disk space of its deleted file is reclaimed then.
+   *
+   * @return the number of segments released
+   */
+  public int releaseSegments() {
+    lock.writeLock().lock();
+    try {
+      while (lowestHeight <= tailHeight && getPointer(lowestHeight) == 0) {
+        lowestHeight++;
+      }
+      int keep = lowestHeight <= tailHeight ? segmentOf(getPointer(lowestHeight))
+          : segments.size() - 1;
+      int released = 0;
+      for (int i = 0; i < keep; i++) {
+        if (segments.get(i) != null) {
+          segments.set(i, null);
+          Files.deleteIfExists(getSegmentPath(i));
+          released++;
+        }
+      }
+      if (released > 0) {
+        logger.info("released {} segments of {}", released, dataBaseName);
+      }
+      return released;
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * the values of at most limit blocks from the height of the key upwards.
+   */
+  public List<byte[]> getValuesNext(byte[] key, long limit) {
+    List<byte[]> result = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      for (long h = heightOf(key); h <= tailHeight && result.size() < limit; h++) {
+        Entry<byte[], byte[]> entry = readRecord(getPointer(h));
+        if (entry != null) {
+          result.add(entry.getValue());
+        }
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * the values of the latest limit blocks, highest first.
+   */
+  public List<byte[]> getlatestValues(long limit) {
+    List<byte[]> result = new ArrayList<>();
+    lock.readLock().lock();
+    try {
+      for (long h = tailHeight; h >= 0 && result.size() < limit; h--) {
+        Entry<byte[], byte[]> entry = readRecord(getPointer(h));
+        if (entry != null) {
+          result.add(entry.getValue());
+        }
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * iterate the blocks by height, up to the tail at the time of the call.
+   */
+  public Iterator<Entry<byte[], byte[]>> iterator() {
+    long last;
+    lock.readLock().lock();
+    try {
+      last = tailHeight;
+    } finally {
+      lock.readLock().unlock();
+    }
+    return new Iterator<Entry<byte[], byte[]>>() {
+      private long height = 0;
+      private Entry<byte[], byte[]> next;
+
+      @Override
+      public boolean hasNext() {
+        lock.readLock().lock();
+        try {
+          while (next == null && height <= last) {
+            next = readRecord(getPointer(height++));
+          }
+          return next != null;
+        } finally {
+          lock.readLock().unlock();
+        }
+      }
+
+      @Override
+      public Entry<byte[], byte[]> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        Entry<byte[], byte[]> result = next;
+        next = null;
+        return result;
+      }
+    };
+  }
+
+  public long getTailHeight() {
+    lock.readLock().lock();
+    try {
+      return tailHeight;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  @Override
+  public Set<byte[]> allKeys() {
+    Set<byte[]> result = Sets.newHashSet();
+    iterator().forEachRemaining(entry -> result.add(entry.getKey()));
+    return result;
+  }
+
+  @Override
+  public Set<byte[]> allValues() {
+    Set<byte[]> result = Sets.newHashSet();
+    iterator().forEachRemaining(entry -> result.add(entry.getValue()));
+    return result;
+  }
+
+  @Override
+  public long getTotal() {
+    long total = 0;
+    for (Iterator<Entry<byte[], byte[]>> it = iterator(); it.hasNext(); it.next()) {
+      total++;
+    }
+    return total;
+  }
+
+  /**
+   * write the rows by height, a null value deletes the block.
+   */
+  @Override
+  public void updateByBatch(Map<byte[], byte[]> rows) {
+    rows.entrySet().stream()
+        .sorted(Comparator.comparingLong(entry -> heightOf(entry.getKey())))
+        .forEach(entry -> {
+          if (entry.getValue() == null) {
+            deleteData(entry.getKey());
+          } else {
+            putData(entry.getKey(), entry.getValue());
+          }
+        });
+  }
+
+  @Override
+  public boolean flush() {
+    lock.writeLock().lock();
+    try {
+      segments.stream().filter(Objects::nonNull).forEach(MappedByteBuffer::force);
+      indexRegions.forEach(MappedByteBuffer::force);
+      return true;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  @Override
+  public String getDBName() {
+    return dataBaseName;
+  }
+
+  @Override
+  public void setDBName(String name) {
+    this.dataBaseName = name;
+  }
+
+  @Override
+  public boolean isAlive() {
+    return alive;
+  }
+
+  @Override
+  public void closeDB() {
+    lock.writeLock().lock();
+    try {
+      if (!isAlive()) {
+        return;
+      }
+      segments.stream().filter(Objects::nonNull).forEach(MappedByteBuffer::force);
+      indexRegions.forEach(MappedByteBuffer::force);
+      segments.clear();
+      indexRegions.clear();
+      indexChannel.close();
+      tailHeight = -1;
+      lowestHeight = 0;
+      writePosition = 0;
+      alive = false;
+    } catch (IOException e) {
+      logger.error("Failed to find the dbStore file on the closeDB: {} ", dataBaseName);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * reset database.
+   */
+  public void resetDb() {
+    closeDB();
+    FileUtil.recursiveDelete(getDbPath().toString());
+    initDB();
+  }
+}
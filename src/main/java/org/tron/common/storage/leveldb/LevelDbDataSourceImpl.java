@@ -38,6 +38,8 @@ import org.iq80.leveldb.DB;
 import org.iq80.leveldb.DBException;
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.Options;
+import org.iq80.leveldb.ReadOptions;
+import org.iq80.leveldb.Snapshot;
 import org.iq80.leveldb.WriteBatch;
 import org.iq80.leveldb.WriteOptions;
 import org.tron.common.storage.DbSourceInter;
@@ -370,6 +372,18 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     return false;
   }
 
+  /**
+   * compact the key range, so the space of deleted keys is reclaimed.
+   */
+  public void compactRange(byte[] begin, byte[] end) {
+    resetDbLock.readLock().lock();
+    try {
+      database.compactRange(begin, end);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
   @Override
   public void closeDB() {
     resetDbLock.writeLock().lock();
@@ -386,6 +400,40 @@ public class LevelDbDataSourceImpl implements DbSourceInter<byte[]>,
     }
   }
 
+  /**
+   * get a consistent point-in-time view of the database, the caller must close it.
+   */
+  public Snapshot getSnapshot() {
+    resetDbLock.readLock().lock();
+    try {
+      return database.getSnapshot();
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * read the value as it was when the snapshot was taken.
+   */
+  public byte[] getData(byte[] key, Snapshot snapshot) {
+    resetDbLock.readLock().lock();
+    try {
+      return database.get(key, new ReadOptions().snapshot(snapshot));
+    } catch (DBException e) {
+      logger.debug(e.getMessage(), e);
+    } finally {
+      resetDbLock.readLock().unlock();
+    }
+    return null;
+  }
+
+  /**
+   * iterate over the database as it was when the snapshot was taken.
+   */
+  public DBIterator iterator(Snapshot snapshot) {
+    return database.iterator(new ReadOptions().snapshot(snapshot).fillCache(false));
+  }
+
   @Override
   public org.tron.core.db.common.iterator.DBIterator iterator() {
     return new StoreIterator(database.iterator());
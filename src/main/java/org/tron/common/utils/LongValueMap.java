@@ -0,0 +1,101 @@
+package org.tron.common.utils;
+
+import java.util.Arrays;
+import java.util.function.ObjLongConsumer;
+
+/**
+ * Open addressing hash map with primitive long values, so updating a value boxes nothing. Keys
+ * can not be null or removed.
+ */
+public class LongValueMap<K> {
+
+  private static final int MIN_CAPACITY = 8;
+
+  private Object[] keys;
+  private long[] values;
+  private int size;
+
+  public LongValueMap() {
+    this(0);
+  }
+
+  public LongValueMap(int expectedSize) {
+    int capacity = MIN_CAPACITY;
+    while (capacity < expectedSize * 2) {
+      capacity <<= 1;
+    }
+    keys = new Object[capacity];
+    values = new long[capacity];
+  }
+
+  private int indexOf(Object key) {
+    int mask = keys.length - 1;
+    int hash = key.hashCode() * 0x9E3779B9;
+    int index = (hash ^ (hash >>> 16)) & mask;
+    while (keys[index] != null && !keys[index].equals(key)) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  public boolean containsKey(K key) {
+    return keys[indexOf(key)] != null;
+  }
+
+  /**
+   * get the value of the key, or the default value if the key is absent.
+   */
+  public long get(K key, long defaultValue) {
+    int index = indexOf(key);
+    return keys[index] == null ? defaultValue : values[index];
+  }
+
+  public void put(K key, long value) {
+    int index = indexOf(key);
+    if (keys[index] == null) {
+      if ((size + 1) * 2 > keys.length) {
+        resize();
+        index = indexOf(key);
+      }
+      keys[index] = key;
+      size++;
+    }
+    values[index] = value;
+  }
+
+  private void resize() {
+    Object[] oldKeys = keys;
+    long[] oldValues = values;
+    keys = new Object[oldKeys.length << 1];
+    values = new long[oldKeys.length << 1];
+    for (int i = 0; i < oldKeys.length; i++) {
+      if (oldKeys[i] != null) {
+        int index = indexOf(oldKeys[i]);
+        keys[index] = oldKeys[i];
+        values[index] = oldValues[i];
+      }
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  public void forEach(ObjLongConsumer<K> action) {
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] != null) {
+        action.accept((K) keys[i], values[i]);
+      }
+    }
+  }
+
+  public void clear() {
+    Arrays.fill(keys, null);
+    size = 0;
+  }
+}
@@ -23,6 +23,7 @@ import com.google.common.io.ByteStreams;
 import com.google.common.primitives.Ints;
 import com.google.common.primitives.Longs;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.MessageLite;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -31,6 +32,7 @@ import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
+import org.tron.common.crypto.Hasher;
 
 
 /**
@@ -123,6 +125,17 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
     return wrap(hash(contents));
   }
 
+  /**
+   * Creates a new instance containing the hash of the serialized message, without copying it to a
+   * new array first.
+   *
+   * @param message the message on which the hash value is calculated
+   * @return a new instance containing the calculated (one-time) hash
+   */
+  public static Sha256Hash of(MessageLite message) {
+    return wrap(Hasher.sha256(message));
+  }
+
   /**
    * Creates a new instance containing the calculated (one-time) hash of the given file's contents.
    * The file contents are read fully into memory, so this method should only be used with small
@@ -190,9 +203,7 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    * @return the hash (in big-endian order)
    */
   public static byte[] hash(byte[] input, int offset, int length) {
-    MessageDigest digest = newDigest();
-    digest.update(input, offset, length);
-    return digest.digest();
+    return Hasher.sha256(input, offset, length);
   }
 
   /**
@@ -214,9 +225,7 @@ public class Sha256Hash implements Serializable, Comparable<Sha256Hash> {
    * @return the double-hash (in big-endian order)
    */
   public static byte[] hashTwice(byte[] input, int offset, int length) {
-    MessageDigest digest = newDigest();
-    digest.update(input, offset, length);
-    return digest.digest(digest.digest());
+    return Hasher.sha256(Hasher.sha256(input, offset, length));
   }
 
   /**
@@ -18,6 +18,7 @@
 
 package org.tron.core;
 
+import com.google.common.primitives.Longs;
 import com.google.protobuf.ByteString;
 import java.util.List;
 import java.util.Objects;
@@ -27,7 +28,6 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import org.springframework.util.CollectionUtils;
 import org.tron.api.GrpcAPI;
 import org.tron.api.GrpcAPI.AssetIssueList;
 import org.tron.api.GrpcAPI.BlockList;
@@ -48,9 +48,11 @@ import org.tron.core.capsule.WitnessCapsule;
 import org.tron.core.db.AccountStore;
 import org.tron.core.db.Manager;
 import org.tron.core.db.PendingManager;
+import org.tron.core.db.ReadView;
 import org.tron.core.exception.ContractExeException;
 import org.tron.core.exception.ContractValidateException;
 import org.tron.core.exception.DupTransactionException;
+import org.tron.core.exception.HistoryPrunedException;
 import org.tron.core.exception.StoreException;
 import org.tron.core.exception.TaposException;
 import org.tron.core.exception.TooBigTransactionException;
@@ -182,9 +184,10 @@ public class Wallet {
 
 
   public Account getBalance(Account account) {
-    AccountStore accountStore = dbManager.getAccountStore();
-    AccountCapsule accountCapsule = accountStore.get(account.getAddress().toByteArray());
-    return accountCapsule == null ? null : accountCapsule.getInstance();
+    try (ReadView view = dbManager.openReadView()) {
+      AccountCapsule accountCapsule = view.getAccount(account.getAddress().toByteArray());
+      return accountCapsule == null ? null : accountCapsule.getInstance();
+    }
   }
 
   /**
@@ -275,26 +278,51 @@ public class Wallet {
   }
 
   public Block getNowBlock() {
-    List<BlockCapsule> blockList = dbManager.getBlockStore().getBlockByLatestNum(1);
-    if(CollectionUtils.isEmpty(blockList)){
+    try (ReadView view = dbManager.openReadView()) {
+      BlockCapsule head = view.getHead();
+      return head == null ? null : head.getInstance();
+    } catch (StoreException e) {
+      logger.info(e.getMessage());
       return null;
-    }else{
-      return blockList.get(0).getInstance();
     }
   }
 
-  public Block getBlockByNum(long blockNum) {
-    try {
-      return dbManager.getBlockByNum(blockNum).getInstance();
-    } catch (StoreException e) {
-      logger.info(e.getMessage());
-      return null;
+  public Block getBlockByNum(long blockNum) throws HistoryPrunedException {
+    try (ReadView view = dbManager.openReadView()) {
+      BlockCapsule block = null;
+      try {
+        block = view.getBlockByNum(blockNum);
+      } catch (StoreException e) {
+        logger.info(e.getMessage());
+      }
+      if (block == null) {
+        checkPruned(blockNum, view.getLatestPrunedBlockNum());
+        return null;
+      }
+      return block.getInstance();
+    }
+  }
+
+  /**
+   * a missing block at or below the pruned height was deleted by history pruning.
+   */
+  private void checkPruned(long blockNum) throws HistoryPrunedException {
+    checkPruned(blockNum, dbManager.getDynamicPropertiesStore().getLatestPrunedBlockNum());
+  }
+
+  private void checkPruned(long blockNum, long prunedNum) throws HistoryPrunedException {
+    if (blockNum > 0 && blockNum <= prunedNum) {
+      throw new HistoryPrunedException(
+          "block " + blockNum + " is pruned, history up to block " + prunedNum + " is pruned");
     }
   }
 
   public WitnessList getWitnessList() {
     WitnessList.Builder builder = WitnessList.newBuilder();
-    List<WitnessCapsule> witnessCapsuleList = dbManager.getWitnessStore().getAllWitnesses();
+    List<WitnessCapsule> witnessCapsuleList;
+    try (ReadView view = dbManager.openReadView()) {
+      witnessCapsuleList = view.getAllWitnesses();
+    }
     witnessCapsuleList
         .forEach(witnessCapsule -> builder.addWitnesses(witnessCapsule.getInstance()));
     return builder.build();
@@ -302,7 +330,7 @@ public class Wallet {
 
   public AssetIssueList getAssetIssueList() {
     AssetIssueList.Builder builder = AssetIssueList.newBuilder();
-    dbManager.getAssetIssueStore().getAllAssetIssues()
+    getAllAssetIssues()
         .forEach(issueCapsule -> builder.addAssetIssue(issueCapsule.getInstance()));
     return builder.build();
   }
@@ -311,8 +339,7 @@ public class Wallet {
     if (accountAddress == null || accountAddress.size() == 0) {
       return null;
     }
-    List<AssetIssueCapsule> assetIssueCapsuleList = dbManager.getAssetIssueStore()
-        .getAllAssetIssues();
+    List<AssetIssueCapsule> assetIssueCapsuleList = getAllAssetIssues();
     AssetIssueList.Builder builder = AssetIssueList.newBuilder();
     assetIssueCapsuleList.stream()
         .filter(assetIssueCapsule -> assetIssueCapsule.getOwnerAddress().equals(accountAddress))
@@ -326,8 +353,7 @@ public class Wallet {
     if (assetName == null || assetName.size() == 0) {
       return null;
     }
-    List<AssetIssueCapsule> assetIssueCapsuleList = dbManager.getAssetIssueStore()
-        .getAllAssetIssues();
+    List<AssetIssueCapsule> assetIssueCapsuleList = getAllAssetIssues();
     for (AssetIssueCapsule assetIssueCapsule : assetIssueCapsuleList) {
       if (assetName.equals(assetIssueCapsule.getName())) {
         return assetIssueCapsule.getInstance();
@@ -336,6 +362,12 @@ public class Wallet {
     return null;
   }
 
+  private List<AssetIssueCapsule> getAllAssetIssues() {
+    try (ReadView view = dbManager.openReadView()) {
+      return view.getAllAssetIssues();
+    }
+  }
+
   public NumberMessage totalTransaction() {
     NumberMessage.Builder builder = NumberMessage.newBuilder()
         .setNum(dbManager.getTransactionStore().getTotalTransactions());
@@ -343,12 +375,12 @@ public class Wallet {
   }
 
   public NumberMessage getNextMaintenanceTime() {
-    NumberMessage.Builder builder = NumberMessage.newBuilder()
-        .setNum(dbManager.getDynamicPropertiesStore().getNextMaintenanceTime());
-    return builder.build();
+    try (ReadView view = dbManager.openReadView()) {
+      return NumberMessage.newBuilder().setNum(view.getNextMaintenanceTime()).build();
+    }
   }
 
-  public Block getBlockById(ByteString BlockId) {
+  public Block getBlockById(ByteString BlockId) throws HistoryPrunedException {
     if (Objects.isNull(BlockId)) {
       return null;
     }
@@ -356,6 +388,9 @@ public class Wallet {
     try {
       block = dbManager.getBlockStore().get(BlockId.toByteArray()).getInstance();
     } catch (StoreException e) {
+      if (BlockId.size() >= Long.BYTES) {
+        checkPruned(Longs.fromByteArray(BlockId.toByteArray()));
+      }
     }
     return block;
   }
@@ -377,7 +412,10 @@ public class Wallet {
     return blockListBuilder.build();
   }
 
-  public Transaction getTransactionById(ByteString transactionId) {
+  /**
+   * the transaction by id, HistoryPrunedException if history pruning deleted it.
+   */
+  public Transaction getTransactionById(ByteString transactionId) throws HistoryPrunedException {
     if (Objects.isNull(transactionId)) {
       return null;
     }
@@ -386,6 +424,12 @@ public class Wallet {
         .get(transactionId.toByteArray());
     if (Objects.nonNull(transactionCapsule)) {
       transaction = transactionCapsule.getInstance();
+    } else {
+      Long blockNum = dbManager.getPrunedTransactionStore().get(transactionId.toByteArray());
+      if (blockNum != null) {
+        throw new HistoryPrunedException("transaction " + ByteArray.toHexString(transactionId
+            .toByteArray()) + " of block " + blockNum + " is pruned");
+      }
     }
     return transaction;
   }
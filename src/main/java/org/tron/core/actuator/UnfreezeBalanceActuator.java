@@ -55,17 +55,23 @@ public class UnfreezeBalanceActuator extends AbstractActuator {
           .setBalance(oldBalance + unfreezeBalance)
           .clearFrozen().addAllFrozen(frozenList).build());
 
-      VotesCapsule votesCapsule;
-      if (!dbManager.getVotesStore().has(ownerAddressBytes)) {
-        votesCapsule = new VotesCapsule(ownerAddress, accountCapsule.getVotesList());
+      if (dbManager.getDynamicPropertiesStore().getAllowVoteTally() == 1) {
+        accountCapsule.getVotesList().forEach(vote -> dbManager.getVoteTallyStore()
+            .addVoteCount(vote.getVoteAddress(), -vote.getVoteCount()));
+        accountCapsule.clearVotes();
       } else {
-        votesCapsule = dbManager.getVotesStore().get(ownerAddressBytes);
+        VotesCapsule votesCapsule;
+        if (!dbManager.getVotesStore().has(ownerAddressBytes)) {
+          votesCapsule = new VotesCapsule(ownerAddress, accountCapsule.getVotesList());
+        } else {
+          votesCapsule = dbManager.getVotesStore().get(ownerAddressBytes);
+        }
+        accountCapsule.clearVotes();
+        votesCapsule.clearNewVotes();
+        dbManager.getVotesStore().put(ownerAddressBytes, votesCapsule);
       }
-      accountCapsule.clearVotes();
-      votesCapsule.clearNewVotes();
 
       dbManager.getAccountStore().put(ownerAddressBytes, accountCapsule);
-      dbManager.getVotesStore().put(ownerAddressBytes, votesCapsule);
 
       ret.setStatus(fee, code.SUCESS);
     } catch (InvalidProtocolBufferException e) {
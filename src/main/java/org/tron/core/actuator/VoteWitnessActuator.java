@@ -14,6 +14,7 @@ import org.tron.core.capsule.TransactionResultCapsule;
 import org.tron.core.capsule.VotesCapsule;
 import org.tron.core.db.AccountStore;
 import org.tron.core.db.Manager;
+import org.tron.core.db.VoteTallyStore;
 import org.tron.core.db.VotesStore;
 import org.tron.core.db.WitnessStore;
 import org.tron.core.exception.ContractExeException;
@@ -125,12 +126,41 @@ public class VoteWitnessActuator extends AbstractActuator {
     ByteString ownerAddress = voteContract.getOwnerAddress();
     byte[] ownerAddressBytes = ownerAddress.toByteArray();
 
-    VotesCapsule votesCapsule;
-    VotesStore votesStore = dbManager.getVotesStore();
     AccountStore accountStore = dbManager.getAccountStore();
 
     AccountCapsule accountCapsule = accountStore.get(ownerAddressBytes);
 
+    if (dbManager.getDynamicPropertiesStore().getAllowVoteTally() != 1) {
+      countVoteAccount(voteContract, accountCapsule);
+      return;
+    }
+
+    VoteTallyStore voteTallyStore = dbManager.getVoteTallyStore();
+    accountCapsule.getVotesList().forEach(vote ->
+        voteTallyStore.addVoteCount(vote.getVoteAddress(), -vote.getVoteCount()));
+    accountCapsule.clearVotes();
+
+    voteContract.getVotesList().forEach(vote -> {
+      logger.debug("countVoteAccount,address[{}]",
+          ByteArray.toHexString(vote.getVoteAddress().toByteArray()));
+
+      voteTallyStore.addVoteCount(vote.getVoteAddress(), vote.getVoteCount());
+      accountCapsule.addVotes(vote.getVoteAddress(), vote.getVoteCount());
+    });
+
+    accountStore.put(accountCapsule.createDbKey(), accountCapsule);
+  }
+
+  /**
+   * record the votes in the votes store, counted at the maintenance, until the tally is active.
+   */
+  private void countVoteAccount(VoteWitnessContract voteContract, AccountCapsule accountCapsule) {
+    ByteString ownerAddress = voteContract.getOwnerAddress();
+    byte[] ownerAddressBytes = ownerAddress.toByteArray();
+
+    VotesCapsule votesCapsule;
+    VotesStore votesStore = dbManager.getVotesStore();
+
     if (!votesStore.has(ownerAddressBytes)) {
       votesCapsule = new VotesCapsule(ownerAddress, accountCapsule.getVotesList());
     } else {
@@ -148,7 +178,7 @@ public class VoteWitnessActuator extends AbstractActuator {
       accountCapsule.addVotes(vote.getVoteAddress(), vote.getVoteCount());
     });
 
-    accountStore.put(accountCapsule.createDbKey(), accountCapsule);
+    dbManager.getAccountStore().put(accountCapsule.createDbKey(), accountCapsule);
     votesStore.put(ownerAddressBytes, votesCapsule);
   }
 
@@ -0,0 +1,188 @@
+package org.tron.core.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects the timings of a benchmark run: the wall time, the blocks and transactions it handled,
+ * the time of every stage per block or transaction and the bytes the JVM allocated meanwhile.
+ */
+public class BenchmarkReport {
+
+  private final String name;
+  private final Map<String, Stage> stages = new LinkedHashMap<>();
+  private long startNanos;
+  private long stopNanos;
+  private long startAllocated;
+  private long stopAllocated;
+  private long blocks;
+  private long transactions;
+  private long rejected;
+
+  public BenchmarkReport(String name) {
+    this.name = name;
+  }
+
+  public void start() {
+    startAllocated = allocatedBytes();
+    startNanos = System.nanoTime();
+  }
+
+  public void stop() {
+    stopNanos = System.nanoTime();
+    stopAllocated = allocatedBytes();
+  }
+
+  /**
+   * the stage of the name, created on first use. Stages are reported in that order.
+   */
+  public Stage stage(String stageName) {
+    return stages.computeIfAbsent(stageName, Stage::new);
+  }
+
+  public void addBlock(int transactionCount) {
+    blocks++;
+    transactions += transactionCount;
+  }
+
+  public void addRejected(long count) {
+    rejected += count;
+  }
+
+  public long getBlocks() {
+    return blocks;
+  }
+
+  public long getTransactions() {
+    return transactions;
+  }
+
+  public long getRejected() {
+    return rejected;
+  }
+
+  public double getWallSeconds() {
+    return (stopNanos - startNanos) / 1e9;
+  }
+
+  /**
+   * the transactions in blocks per second of wall time.
+   */
+  public double getTps() {
+    double seconds = getWallSeconds();
+    return seconds > 0 ? transactions / seconds : 0;
+  }
+
+  /**
+   * the bytes allocated during the run, -1 if the JVM does not count them.
+   */
+  public long getAllocatedBytes() {
+    return startAllocated < 0 || stopAllocated < 0 ? -1 : stopAllocated - startAllocated;
+  }
+
+  public String format() {
+    StringBuilder sb = new StringBuilder();
+    sb.append("benchmark ").append(name).append('\n');
+    sb.append(String.format(Locale.ROOT, "wall time: %.3f s\n", getWallSeconds()));
+    sb.append(String.format(Locale.ROOT, "blocks: %d, transactions: %d, rejected: %d\n",
+        blocks, transactions, rejected));
+    sb.append(String.format(Locale.ROOT, "tps: %.1f\n", getTps()));
+    for (Stage stage : stages.values()) {
+      sb.append(stage.format()).append('\n');
+    }
+    long allocated = getAllocatedBytes();
+    if (allocated < 0) {
+      sb.append("allocation: n/a\n");
+    } else {
+      double seconds = getWallSeconds();
+      sb.append(String.format(Locale.ROOT, "allocation: %.1f MB/s (%.1f MB)\n",
+          seconds > 0 ? allocated / seconds / 1e6 : 0, allocated / 1e6));
+    }
+    return sb.toString();
+  }
+
+  @Override
+  public String toString() {
+    return format();
+  }
+
+  /**
+   * the bytes allocated so far by the live threads, -1 if the JVM does not count them. Threads
+   * that ended during the run are not counted, the benchmarks run on the main thread and on pools
+   * that live as long as the run.
+   */
+  static long allocatedBytes() {
+    ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+    if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+      return -1;
+    }
+    com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+    if (!threads.isThreadAllocatedMemorySupported() || !threads.isThreadAllocatedMemoryEnabled()) {
+      return -1;
+    }
+    long total = 0;
+    for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+      if (bytes > 0) {
+        total += bytes;
+      }
+    }
+    return total;
+  }
+
+  /**
+   * the durations of one stage.
+   */
+  public static class Stage {
+
+    private final String name;
+    private long[] nanos = new long[1024];
+    private int count;
+    private long totalNanos;
+
+    Stage(String name) {
+      this.name = name;
+    }
+
+    public void add(long durationNanos) {
+      if (count == nanos.length) {
+        nanos = Arrays.copyOf(nanos, count * 2);
+      }
+      nanos[count++] = durationNanos;
+      totalNanos += durationNanos;
+    }
+
+    public int getCount() {
+      return count;
+    }
+
+    public long getTotalNanos() {
+      return totalNanos;
+    }
+
+    /**
+     * the nearest rank percentile, 0 when nothing was timed.
+     *
+     * @param percent between 0 and 100
+     */
+    public long percentile(double percent) {
+      if (count == 0) {
+        return 0;
+      }
+      long[] sorted = Arrays.copyOf(nanos, count);
+      Arrays.sort(sorted);
+      int rank = (int) Math.ceil(percent / 100 * count);
+      return sorted[Math.min(Math.max(rank, 1), count) - 1];
+    }
+
+    String format() {
+      return String.format(Locale.ROOT,
+          "stage %s: count %d, total %.3f s, p50 %.3f ms, p99 %.3f ms, max %.3f ms",
+          name, count, totalNanos / 1e9, percentile(50) / 1e6, percentile(99) / 1e6,
+          percentile(100) / 1e6);
+    }
+  }
+}
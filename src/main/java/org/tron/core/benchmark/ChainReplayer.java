@@ -0,0 +1,99 @@
+package org.tron.core.benchmark;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.core.benchmark.BenchmarkReport.Stage;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.db.Manager;
+import org.tron.core.exception.StoreException;
+import org.tron.core.exception.TaposException;
+import org.tron.core.exception.TronException;
+import org.tron.protos.Protocol.Block;
+
+/**
+ * Exports a range of the local chain into a file of length delimited blocks and replays such a
+ * file through {@link Manager#pushBlock}, timing the decoding, the transaction signatures and
+ * the application of every block. The replay needs a new database with the genesis of the chain
+ * the blocks were exported from.
+ */
+@Slf4j
+public class ChainReplayer {
+
+  private final Manager dbManager;
+
+  public ChainReplayer(Manager dbManager) {
+    this.dbManager = dbManager;
+  }
+
+  /**
+   * write the blocks from, to of the main chain into the file, the range ends at the head.
+   *
+   * @return the number of blocks written
+   */
+  public int export(long from, long to, File file) throws IOException, StoreException {
+    long last = Math.min(to, dbManager.getHeadBlockNum());
+    int count = 0;
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+      for (long num = Math.max(from, 1); num <= last; num++) {
+        dbManager.getBlockByNum(num).getInstance().writeDelimitedTo(out);
+        count++;
+      }
+    }
+    logger.info("exported {} blocks to {}", count, file);
+    return count;
+  }
+
+  /**
+   * apply the blocks of the file in order, the ones at or below the head are skipped.
+   */
+  public BenchmarkReport replay(File file)
+      throws IOException, InterruptedException, TronException, TaposException {
+    BenchmarkReport report = new BenchmarkReport("replay");
+    Stage decode = report.stage("decode");
+    Stage signatures = report.stage("signatures");
+    Stage apply = report.stage("apply");
+    long skipped = 0;
+
+    report.start();
+    try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+      while (true) {
+        long start = System.nanoTime();
+        Block block = Block.parseDelimitedFrom(in);
+        if (block == null) {
+          break;
+        }
+        BlockCapsule capsule = new BlockCapsule(block);
+        decode.add(System.nanoTime() - start);
+        if (capsule.getNum() <= dbManager.getHeadBlockNum()) {
+          skipped++;
+          continue;
+        }
+
+        start = System.nanoTime();
+        dbManager.preValidateTransactionSign(capsule);
+        signatures.add(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        dbManager.pushBlock(capsule);
+        apply.add(System.nanoTime() - start);
+        if (dbManager.getHeadBlockNum() != capsule.getNum()) {
+          throw new IllegalStateException("block " + capsule.getNum() + " was not applied, "
+              + "the head is " + dbManager.getHeadBlockNum());
+        }
+        report.addBlock(capsule.getTransactionCount());
+      }
+    }
+    report.stop();
+    if (skipped > 0) {
+      logger.info("skipped {} blocks at or below the head", skipped);
+    }
+    return report;
+  }
+}
@@ -0,0 +1,234 @@
+package org.tron.core.benchmark;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.crypto.Hash;
+import org.tron.core.benchmark.BenchmarkReport.Stage;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.AssetIssueCapsule;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.capsule.WitnessCapsule;
+import org.tron.core.config.Parameter.ChainConstant;
+import org.tron.core.db.Manager;
+import org.tron.core.exception.TaposException;
+import org.tron.core.exception.TronException;
+import org.tron.core.witness.WitnessController;
+import org.tron.protos.Contract.AssetIssueContract;
+import org.tron.protos.Contract.TransferAssetContract;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Contract.VoteWitnessContract;
+import org.tron.protos.Contract.VoteWitnessContract.Vote;
+import org.tron.protos.Protocol.AccountType;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+/**
+ * Produces a chain of signed transfer, asset transfer and vote transactions on an empty database.
+ *
+ * <p>The synthetic genesis funds the accounts, issues them an asset and makes the local witness
+ * the only active one. Every block then gets its share of the target rate pushed through
+ * {@link Manager#pushTransactions} and is produced by {@link Manager#generateBlock}. The accounts
+ * and the transactions follow from the seed, so runs with the same parameters do the same
+ * work.</p>
+ */
+@Slf4j
+public class LoadGenerator {
+
+  public static final String ASSET_NAME = "benchmark";
+
+  static final long ACCOUNT_BALANCE = 1_000_000_000_000L;
+  static final long ACCOUNT_BANDWIDTH = Long.MAX_VALUE / 4;
+  // 1000 trx of tron power, enough for the largest vote
+  static final long ACCOUNT_FROZEN = 1_000_000_000L;
+  static final long ACCOUNT_ASSET = 1_000_000_000L;
+  static final long EXPIRATION_MILLIS = 60 * 60 * 1000L;
+
+  private final Manager dbManager;
+  private final byte[] witnessKey;
+  private final ByteString witnessAddress;
+  private final List<ECKey> keys = new ArrayList<>();
+  private final List<ByteString> addresses = new ArrayList<>();
+  private final Random random;
+  private int transferWeight = 8;
+  private int assetWeight = 1;
+  private int voteWeight = 1;
+  private long sequence;
+
+  public LoadGenerator(Manager dbManager, byte[] witnessKey, int accountCount, long seed) {
+    if (accountCount < 2) {
+      throw new IllegalArgumentException("at least 2 accounts are needed, got " + accountCount);
+    }
+    this.dbManager = dbManager;
+    this.witnessKey = witnessKey;
+    this.witnessAddress = ByteString.copyFrom(ECKey.fromPrivate(witnessKey).getAddress());
+    this.random = new Random(seed);
+    for (int i = 0; i < accountCount; i++) {
+      ECKey key = ECKey.fromPrivate(Hash.sha256(("benchmark-" + seed + "-" + i).getBytes()));
+      keys.add(key);
+      addresses.add(ByteString.copyFrom(key.getAddress()));
+    }
+  }
+
+  /**
+   * the relative weights of the transaction types.
+   */
+  public void setMix(int transfer, int asset, int vote) {
+    if (transfer < 0 || asset < 0 || vote < 0 || transfer + asset + vote == 0) {
+      throw new IllegalArgumentException(
+          "invalid mix " + transfer + ":" + asset + ":" + vote);
+    }
+    this.transferWeight = transfer;
+    this.assetWeight = asset;
+    this.voteWeight = vote;
+  }
+
+  /**
+   * fund the accounts, issue the asset and schedule the local witness alone.
+   */
+  public void initGenesis() {
+    if (dbManager.getHeadBlockNum() != 0) {
+      throw new IllegalStateException(
+          "the load needs an empty database, the head is " + dbManager.getHeadBlockNum());
+    }
+    long now = dbManager.getHeadBlockTimeStamp();
+
+    AssetIssueCapsule asset = new AssetIssueCapsule(AssetIssueContract.newBuilder()
+        .setOwnerAddress(addresses.get(0))
+        .setName(ByteString.copyFromUtf8(ASSET_NAME))
+        .setTotalSupply(ACCOUNT_ASSET * addresses.size())
+        .setTrxNum(1)
+        .setNum(1)
+        .setStartTime(now)
+        .setEndTime(now + 1)
+        .build());
+    dbManager.getAssetIssueStore().put(asset.getName().toByteArray(), asset);
+
+    for (ByteString address : addresses) {
+      AccountCapsule account = new AccountCapsule(address, AccountType.Normal, now);
+      account.setBalance(ACCOUNT_BALANCE);
+      account.setBandwidth(ACCOUNT_BANDWIDTH);
+      account.setFrozen(ACCOUNT_FROZEN, Long.MAX_VALUE);
+      account.addAsset(ASSET_NAME, ACCOUNT_ASSET);
+      dbManager.getAccountStore().put(account.createDbKey(), account);
+    }
+
+    // the votes go to the local witness, its lead keeps it active through the maintenances
+    if (!dbManager.getAccountStore().has(witnessAddress.toByteArray())) {
+      AccountCapsule account = new AccountCapsule(witnessAddress, AccountType.Normal, now);
+      dbManager.getAccountStore().put(account.createDbKey(), account);
+    }
+    WitnessCapsule witness = dbManager.getWitnessStore().get(witnessAddress.toByteArray());
+    if (witness == null) {
+      witness = new WitnessCapsule(witnessAddress);
+    }
+    witness.setVoteCount(Long.MAX_VALUE / 2);
+    dbManager.getWitnessStore().put(witness.createDbKey(), witness);
+    dbManager.getWitnessController()
+        .setActiveWitnesses(new ArrayList<>(Collections.singletonList(witnessAddress)));
+    // the transactions of the first block reference the genesis, which was not processed
+    dbManager.updateRecentBlock(dbManager.getGenesisBlock());
+    logger.info("genesis with {} accounts, witness {}", addresses.size(), witness
+        .createReadableString());
+  }
+
+  /**
+   * produce the blocks, pushing the transactions of the target rate before each one.
+   */
+  public BenchmarkReport run(int blocks, int tps) throws TronException {
+    int perBlock = (int) Math.max(1, (long) tps * ChainConstant.BLOCK_PRODUCED_INTERVAL / 1000);
+    WitnessCapsule witness = new WitnessCapsule(witnessAddress);
+    BenchmarkReport report = new BenchmarkReport("generate");
+    Stage sign = report.stage("sign");
+    Stage push = report.stage("push");
+    Stage produce = report.stage("block");
+
+    report.start();
+    for (int i = 0; i < blocks; i++) {
+      long rejected = 0;
+      for (int j = 0; j < perBlock; j++) {
+        long start = System.nanoTime();
+        TransactionCapsule trx = nextTransaction();
+        sign.add(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        try {
+          dbManager.pushTransactions(trx);
+        } catch (TronException | TaposException e) {
+          rejected++;
+          logger.debug("transaction rejected: {}", e.getMessage());
+        }
+        push.add(System.nanoTime() - start);
+      }
+
+      long start = System.nanoTime();
+      BlockCapsule block = dbManager.generateBlock(witness, nextSlotTime(), witnessKey);
+      produce.add(System.nanoTime() - start);
+      report.addRejected(rejected);
+      if (block == null) {
+        logger.warn("block {} was not produced", i);
+        continue;
+      }
+      report.addBlock(block.getTransactionCount());
+    }
+    report.stop();
+    return report;
+  }
+
+  /**
+   * the next transaction of the mix, signed by a random account and referencing the head.
+   */
+  TransactionCapsule nextTransaction() {
+    long seq = sequence++;
+    int from = random.nextInt(keys.size());
+    int to = (from + 1 + random.nextInt(keys.size() - 1)) % keys.size();
+    int pick = random.nextInt(transferWeight + assetWeight + voteWeight);
+
+    TransactionCapsule trx;
+    if (pick < transferWeight) {
+      trx = new TransactionCapsule(TransferContract.newBuilder()
+          .setOwnerAddress(addresses.get(from))
+          .setToAddress(addresses.get(to))
+          .setAmount(1 + seq % 1000)
+          .build(), ContractType.TransferContract);
+    } else if (pick < transferWeight + assetWeight) {
+      trx = new TransactionCapsule(TransferAssetContract.newBuilder()
+          .setAssetName(ByteString.copyFromUtf8(ASSET_NAME))
+          .setOwnerAddress(addresses.get(from))
+          .setToAddress(addresses.get(to))
+          .setAmount(1 + seq % 1000)
+          .build(), ContractType.TransferAssetContract);
+    } else {
+      trx = new TransactionCapsule(VoteWitnessContract.newBuilder()
+          .setOwnerAddress(addresses.get(from))
+          .addVotes(Vote.newBuilder().setVoteAddress(witnessAddress).setVoteCount(1 + seq % 10))
+          .build(), ContractType.VoteWitnessContract);
+    }
+    dbManager.setBlockReference(trx);
+    // the sequence in the expiration keeps the transaction ids apart
+    trx.setExpiration(
+        dbManager.getHeadBlockTimeStamp() + EXPIRATION_MILLIS + seq % EXPIRATION_MILLIS);
+    trx.sign(keys.get(from).getPrivKeyBytes());
+    return trx;
+  }
+
+  /**
+   * the time of the first slot of the local witness from now on.
+   */
+  private long nextSlotTime() {
+    WitnessController controller = dbManager.getWitnessController();
+    long slot = Math.max(1, controller.getSlotAtTime(System.currentTimeMillis()));
+    long end = slot + (long) controller.getActiveWitnesses().size()
+        * dbManager.getDynamicPropertiesStore().getSingleRepeat();
+    for (; slot <= end; slot++) {
+      if (witnessAddress.equals(controller.getScheduledWitness(slot))) {
+        return controller.getSlotTime(slot);
+      }
+    }
+    throw new IllegalStateException("the local witness is not scheduled");
+  }
+}
@@ -35,6 +35,8 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
 
   private Account account;
 
+  // the hot fields being updated, written into the account when it is serialized
+  private AccountState state;
 
   @Override
   public int compareTo(AccountCapsule otherObject) {
@@ -137,16 +139,27 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public byte[] getData() {
-    return this.account.toByteArray();
+    return getInstance().toByteArray();
   }
 
   @Override
   public Account getInstance() {
+    if (this.state != null) {
+      this.account = this.state.flush();
+    }
     return this.account;
   }
 
   public void setInstance(Account account) {
     this.account = account;
+    this.state = null;
+  }
+
+  private AccountState getState() {
+    if (this.state == null) {
+      this.state = new AccountState(this.account);
+    }
+    return this.state;
   }
 
   public ByteString getAddress() {
@@ -170,29 +183,30 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public long getBalance() {
-    return this.account.getBalance();
+    return this.state == null ? this.account.getBalance() : this.state.getBalance();
   }
 
   public long getLatestOperationTime() {
-    return this.account.getLatestOprationTime();
+    return this.state == null ? this.account.getLatestOprationTime()
+        : this.state.getLatestOperationTime();
   }
 
   public void setLatestOperationTime(long latest_time) {
-    this.account = this.account.toBuilder().setLatestOprationTime(latest_time).build();
+    getState().setLatestOperationTime(latest_time);
   }
 
   public void setBalance(long balance) {
-    this.account = this.account.toBuilder().setBalance(balance).build();
+    getState().setBalance(balance);
   }
 
   public void setAllowance(long allowance) {
-    this.account = this.account.toBuilder().setAllowance(allowance).build();
+    getState().setAllowance(allowance);
   }
 
 
   @Override
   public String toString() {
-    return this.account.toString();
+    return getInstance().toString();
   }
 
 
@@ -200,15 +214,15 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * set votes.
    */
   public void addVotes(ByteString voteAddress, long voteAdd) {
-    this.account = this.account.toBuilder()
+    setInstance(getInstance().toBuilder()
         .addVotes(Vote.newBuilder().setVoteAddress(voteAddress).setVoteCount(voteAdd).build())
-        .build();
+        .build());
   }
 
   public void clearVotes() {
-    this.account = this.account.toBuilder()
+    setInstance(getInstance().toBuilder()
         .clearVotes()
-        .build();
+        .build());
   }
 
   /**
@@ -236,9 +250,8 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * asset balance enough
    */
   public boolean assetBalanceEnough(ByteString name, long amount) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
     String nameKey = ByteArray.toStr(name.toByteArray());
-    Long currentAmount = assetMap.get(nameKey);
+    Long currentAmount = getState().getAssetAmount(nameKey);
 
     if (amount > 0 && null != currentAmount && amount <= currentAmount) {
       return true;
@@ -251,12 +264,10 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * reduce asset amount.
    */
   public boolean reduceAssetAmount(ByteString name, long amount) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
     String nameKey = ByteArray.toStr(name.toByteArray());
-    Long currentAmount = assetMap.get(nameKey);
+    Long currentAmount = getState().getAssetAmount(nameKey);
     if (amount > 0 && null != currentAmount && amount <= currentAmount) {
-      this.account = this.account.toBuilder()
-          .putAsset(nameKey, Math.subtractExact(currentAmount, amount)).build();
+      getState().putAssetAmount(nameKey, Math.subtractExact(currentAmount, amount));
       return true;
     }
 
@@ -267,14 +278,12 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * add asset amount.
    */
   public boolean addAssetAmount(ByteString name, long amount) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
     String nameKey = ByteArray.toStr(name.toByteArray());
-    Long currentAmount = assetMap.get(nameKey);
+    Long currentAmount = getState().getAssetAmount(nameKey);
     if (currentAmount == null) {
       currentAmount = 0L;
     }
-    this.account = this.account.toBuilder().putAsset(nameKey, Math.addExact(currentAmount, amount))
-        .build();
+    getState().putAssetAmount(nameKey, Math.addExact(currentAmount, amount));
     return true;
   }
 
@@ -282,21 +291,18 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * set account name
    */
   public void setAccountName(byte[] name) {
-    this.account = this.account.toBuilder().setAccountName(ByteString.copyFrom(name)).build();
+    setInstance(getInstance().toBuilder().setAccountName(ByteString.copyFrom(name)).build());
   }
 
   /**
    * add asset.
    */
   public boolean addAsset(String key, Long value) {
-    Map<String, Long> assetMap = this.account.getAssetMap();
-    if (!assetMap.isEmpty()) {
-      if (assetMap.containsKey(key)) {
-        return false;
-      }
+    if (getState().hasAsset(key)) {
+      return false;
     }
 
-    this.account = this.account.toBuilder().putAsset(key, value).build();
+    getState().putAssetAmount(key, value);
 
     return true;
   }
@@ -305,7 +311,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
    * add asset.
    */
   public Map<String, Long> getAssetMap() {
-    Map<String, Long> assetMap = this.account.getAssetMap();
+    Map<String, Long> assetMap = getInstance().getAssetMap();
     if (assetMap.isEmpty()) {
       assetMap = Maps.newHashMap();
     }
@@ -315,7 +321,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
 
 
   public Map<String, Long> getLatestAssetOperationTimeMap() {
-    Map<String, Long> map = this.account.getLatestAssetOperationTimeMap();
+    Map<String, Long> map = getInstance().getLatestAssetOperationTimeMap();
     if (map.isEmpty()) {
       map = Maps.newHashMap();
     }
@@ -324,7 +330,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public void setLatestAssetOperationTimeMap(String key, Long value) {
-    this.account = this.account.toBuilder().putLatestAssetOperationTime(key, value).build();
+    getState().putLatestAssetOperationTime(key, value);
   }
 
 
@@ -365,11 +371,11 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public void setAssetIssuedName(ByteString assetIssuedName) {
-    this.account = this.account.toBuilder().setAssetIssuedName(assetIssuedName).build();
+    setInstance(getInstance().toBuilder().setAssetIssuedName(assetIssuedName).build());
   }
 
   public long getAllowance() {
-    return getInstance().getAllowance();
+    return this.state == null ? this.account.getAllowance() : this.state.getAllowance();
   }
 
   public long getLatestWithdrawTime() {
@@ -377,12 +383,11 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public long getBandwidth() {
-    return getInstance().getBandwidth();
+    return this.state == null ? this.account.getBandwidth() : this.state.getBandwidth();
   }
 
   public void setBandwidth(long bandwidth) {
-    this.account = this.account.toBuilder().setBandwidth(bandwidth).build();
-
+    getState().setBandwidth(bandwidth);
   }
 
   public boolean getIsWitness() {
@@ -390,7 +395,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public void setIsWitness(boolean isWitness) {
-    this.account = this.account.toBuilder().setIsWitness(isWitness).build();
+    setInstance(getInstance().toBuilder().setIsWitness(isWitness).build());
   }
 
   public boolean getIsCommittee() {
@@ -398,7 +403,7 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
   }
 
   public void setIsCommittee(boolean isCommittee) {
-    this.account = this.account.toBuilder().setIsCommittee(isCommittee).build();
+    setInstance(getInstance().toBuilder().setIsCommittee(isCommittee).build());
   }
 
   //for test only
@@ -408,15 +413,15 @@ public class AccountCapsule implements ProtoCapsule<Account>, Comparable<Account
         .setExpireTime(expireTime)
         .build();
 
-    this.account = this.account.toBuilder()
+    setInstance(getInstance().toBuilder()
         .addFrozen(newFrozen)
-        .build();
+        .build());
   }
 
   //for test only
   public void setLatestWithdrawTime(long latestWithdrawTime) {
-    this.account = this.account.toBuilder()
+    setInstance(getInstance().toBuilder()
         .setLatestWithdrawTime(latestWithdrawTime)
-        .build();
+        .build());
   }
 }
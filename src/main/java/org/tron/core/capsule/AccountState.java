@@ -0,0 +1,137 @@
+package org.tron.core.capsule;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.tron.common.utils.LongValueMap;
+import org.tron.protos.Protocol.Account;
+
+/**
+ * Mutable copy of the frequently updated fields of an account. Setters only mark the field dirty,
+ * the changes are written into the Account message once, when the capsule is serialized.
+ */
+class AccountState {
+
+  private static final int BALANCE = 1;
+  private static final int ALLOWANCE = 1 << 1;
+  private static final int LATEST_OPERATION_TIME = 1 << 2;
+  private static final int BANDWIDTH = 1 << 3;
+
+  private long balance;
+  private long allowance;
+  private long latestOperationTime;
+  private long bandwidth;
+  private int dirty;
+
+  private Account account;
+  // loaded from the account on first use
+  private LongValueMap<String> assets;
+  private Set<String> dirtyAssets = new HashSet<>();
+  private LongValueMap<String> dirtyAssetOperationTimes = new LongValueMap<>();
+
+  AccountState(Account account) {
+    this.account = account;
+    this.balance = account.getBalance();
+    this.allowance = account.getAllowance();
+    this.latestOperationTime = account.getLatestOprationTime();
+    this.bandwidth = account.getBandwidth();
+  }
+
+  boolean isDirty() {
+    return dirty != 0 || !dirtyAssets.isEmpty() || !dirtyAssetOperationTimes.isEmpty();
+  }
+
+  /**
+   * write the dirty fields into the account, building the message once.
+   */
+  Account flush() {
+    if (!isDirty()) {
+      return account;
+    }
+    Account.Builder builder = account.toBuilder();
+    if ((dirty & BALANCE) != 0) {
+      builder.setBalance(balance);
+    }
+    if ((dirty & ALLOWANCE) != 0) {
+      builder.setAllowance(allowance);
+    }
+    if ((dirty & LATEST_OPERATION_TIME) != 0) {
+      builder.setLatestOprationTime(latestOperationTime);
+    }
+    if ((dirty & BANDWIDTH) != 0) {
+      builder.setBandwidth(bandwidth);
+    }
+    dirtyAssets.forEach(key -> builder.putAsset(key, assets.get(key, 0)));
+    dirtyAssetOperationTimes.forEach(builder::putLatestAssetOperationTime);
+
+    dirty = 0;
+    dirtyAssets.clear();
+    dirtyAssetOperationTimes.clear();
+    account = builder.build();
+    return account;
+  }
+
+  long getBalance() {
+    return balance;
+  }
+
+  void setBalance(long balance) {
+    this.balance = balance;
+    dirty |= BALANCE;
+  }
+
+  long getAllowance() {
+    return allowance;
+  }
+
+  void setAllowance(long allowance) {
+    this.allowance = allowance;
+    dirty |= ALLOWANCE;
+  }
+
+  long getLatestOperationTime() {
+    return latestOperationTime;
+  }
+
+  void setLatestOperationTime(long latestOperationTime) {
+    this.latestOperationTime = latestOperationTime;
+    dirty |= LATEST_OPERATION_TIME;
+  }
+
+  long getBandwidth() {
+    return bandwidth;
+  }
+
+  void setBandwidth(long bandwidth) {
+    this.bandwidth = bandwidth;
+    dirty |= BANDWIDTH;
+  }
+
+  private LongValueMap<String> assets() {
+    if (assets == null) {
+      assets = new LongValueMap<>(account.getAssetCount());
+      account.getAssetMap().forEach(assets::put);
+    }
+    return assets;
+  }
+
+  boolean hasAsset(String key) {
+    return assets().containsKey(key);
+  }
+
+  /**
+   * the asset amount, null if the account does not own the asset.
+   */
+  Long getAssetAmount(String key) {
+    LongValueMap<String> assets = assets();
+    return assets.containsKey(key) ? assets.get(key, 0) : null;
+  }
+
+  void putAssetAmount(String key, long amount) {
+    assets().put(key, amount);
+    dirtyAssets.add(key);
+  }
+
+  void putLatestAssetOperationTime(String key, long time) {
+    dirtyAssetOperationTimes.put(key, time);
+  }
+}
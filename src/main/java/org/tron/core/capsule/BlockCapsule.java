@@ -19,15 +19,15 @@ import com.google.common.primitives.Longs;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import java.security.SignatureException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Vector;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.commons.collections4.CollectionUtils;
 import org.tron.common.crypto.ECKey;
 import org.tron.common.crypto.ECKey.ECDSASignature;
+import org.tron.common.crypto.SignatureRecovery;
 import org.tron.common.utils.ByteUtil;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.common.utils.Time;
@@ -116,9 +116,18 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
   private BlockId blockId = new BlockId(Sha256Hash.ZERO_HASH, 0);
 
+  // blocks with this many transactions build their capsules and hashes in parallel
+  static final int PARALLEL_THRESHOLD = 256;
+
   private Block block;
   public boolean generatedByMyself = false;
-  private List<TransactionCapsule> transactions;
+  // the peer the block came from, null for the blocks we produce or load
+  private String source;
+  private volatile List<TransactionCapsule> transactions;
+
+  // derived from the block, computed once and dropped when the block changes
+  private byte[] data;
+  private Sha256Hash rawHash;
 
   public BlockCapsule(long number, Sha256Hash hash, long when, ByteString witnessAddress) {
     // blockheader raw
@@ -178,21 +187,57 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   }
 
   public void addTransaction(TransactionCapsule pendingTrx) {
-    this.block = this.block.toBuilder().addTransactions(pendingTrx.getInstance()).build();
-    //getTransactions().add(pendingTrx);
+    // keep the capsule, so its id and hash are not computed again
+    getTransactions().add(pendingTrx);
+    setBlock(this.block.toBuilder().addTransactions(pendingTrx.getInstance()).build());
   }
 
   public List<TransactionCapsule> getTransactions() {
-    if (transactions == null) {
-      synchronized (BlockCapsule.class) {
-        if (transactions == null) {
-          transactions = this.block.getTransactionsList().stream()
-              .map(trx -> new TransactionCapsule(trx))
-              .collect(Collectors.toList());
+    List<TransactionCapsule> result = transactions;
+    if (result == null) {
+      synchronized (this) {
+        result = transactions;
+        if (result == null) {
+          result = createTransactions(this.block.getTransactionsList());
+          transactions = result;
         }
       }
     }
-    return transactions;
+    return result;
+  }
+
+  /**
+   * the capsules of the transactions, with their ids computed in parallel for large blocks.
+   */
+  private static List<TransactionCapsule> createTransactions(List<Transaction> list) {
+    int count = list.size();
+    if (count < PARALLEL_THRESHOLD) {
+      List<TransactionCapsule> capsules = new ArrayList<>(count);
+      list.forEach(trx -> capsules.add(new TransactionCapsule(trx)));
+      return capsules;
+    }
+    TransactionCapsule[] capsules = new TransactionCapsule[count];
+    IntStream.range(0, count).parallel().forEach(i -> {
+      capsules[i] = new TransactionCapsule(list.get(i));
+      capsules[i].getTransactionId();
+    });
+    return new ArrayList<>(Arrays.asList(capsules));
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  public void setSource(String source) {
+    this.source = source;
+  }
+
+  public int getTransactionCount() {
+    return this.block.getTransactionsCount();
+  }
+
+  public TransactionCapsule getTransaction(int index) {
+    return getTransactions().get(index);
   }
 
   public void sign(byte[] privateKey) {
@@ -204,19 +249,21 @@ public class BlockCapsule implements ProtoCapsule<Block> {
     BlockHeader blockHeader = this.block.getBlockHeader().toBuilder().setWitnessSignature(sig)
         .build();
 
-    this.block = this.block.toBuilder().setBlockHeader(blockHeader).build();
+    setBlock(this.block.toBuilder().setBlockHeader(blockHeader).build());
   }
 
   private Sha256Hash getRawHash() {
-    return Sha256Hash.of(this.block.getBlockHeader().getRawData().toByteArray());
+    if (rawHash == null) {
+      rawHash = Sha256Hash.of(this.block.getBlockHeader().getRawData());
+    }
+    return rawHash;
   }
 
   public boolean validateSignature() throws ValidateSignatureException {
     try {
       return Arrays
-          .equals(ECKey.signatureToAddress(getRawHash().getBytes(),
-              TransactionCapsule
-                  .getBase64FromByteString(block.getBlockHeader().getWitnessSignature())),
+          .equals(SignatureRecovery.recoverAddress(getRawHash().getBytes(),
+              block.getBlockHeader().getWitnessSignature().toByteArray()),
               block.getBlockHeader().getRawData().getWitnessAddress().toByteArray());
     } catch (SignatureException e) {
       throw new ValidateSignatureException(e.getMessage());
@@ -225,24 +272,25 @@ public class BlockCapsule implements ProtoCapsule<Block> {
 
   public BlockId getBlockId() {
     if (blockId.equals(Sha256Hash.ZERO_HASH)) {
-      blockId = new BlockId(Sha256Hash.of(this.block.getBlockHeader().toByteArray()), getNum());
+      blockId = new BlockId(Sha256Hash.of(this.block.getBlockHeader()), getNum());
     }
     return blockId;
   }
 
   public Sha256Hash calcMerkleRoot() {
-    List<Transaction> transactionsList = this.block.getTransactionsList();
-
-    if (CollectionUtils.isEmpty(transactionsList)) {
+    int count = getTransactionCount();
+    if (count == 0) {
       return Sha256Hash.ZERO_HASH;
     }
 
-    Vector<Sha256Hash> ids = transactionsList.stream()
-        .map(TransactionCapsule::new)
-        .map(TransactionCapsule::getHash)
-        .collect(Collectors.toCollection(Vector::new));
+    List<TransactionCapsule> transactionsList = getTransactions();
+    Sha256Hash[] ids = new Sha256Hash[count];
+    IntStream indexes = IntStream.range(0, count);
+    (count < PARALLEL_THRESHOLD ? indexes : indexes.parallel())
+        .forEach(i -> ids[i] = transactionsList.get(i).getHash());
 
-    return MerkleTree.getInstance().createTree(ids).getRoot().getHash();
+    // the shared instance keeps the tree in fields, concurrent blocks need their own
+    return new MerkleTree().createTree(Arrays.asList(ids)).getRoot().getHash();
   }
 
   public void setMerkleRoot() {
@@ -250,8 +298,8 @@ public class BlockCapsule implements ProtoCapsule<Block> {
         this.block.getBlockHeader().getRawData().toBuilder()
             .setTxTrieRoot(calcMerkleRoot().getByteString()).build();
 
-    this.block = this.block.toBuilder().setBlockHeader(
-        this.block.getBlockHeader().toBuilder().setRawData(blockHeaderRaw)).build();
+    setBlock(this.block.toBuilder().setBlockHeader(
+        this.block.getBlockHeader().toBuilder().setRawData(blockHeaderRaw)).build());
   }
 
   public Sha256Hash getMerkleRoot() {
@@ -269,14 +317,28 @@ public class BlockCapsule implements ProtoCapsule<Block> {
   public BlockCapsule(byte[] data) throws BadItemException {
     try {
       this.block = Block.parseFrom(data);
+      this.data = data;
     } catch (InvalidProtocolBufferException e) {
       throw new BadItemException();
     }
   }
 
+  /**
+   * the serialized block, the returned array is shared and must not be modified.
+   */
   @Override
   public byte[] getData() {
-    return this.block.toByteArray();
+    if (this.data == null) {
+      this.data = this.block.toByteArray();
+    }
+    return this.data;
+  }
+
+  private void setBlock(Block block) {
+    this.block = block;
+    this.data = null;
+    this.rawHash = null;
+    this.blockId = new BlockId(Sha256Hash.ZERO_HASH, 0);
   }
 
   @Override
@@ -0,0 +1,82 @@
+package org.tron.core.capsule;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.exception.BadItemException;
+import org.tron.protos.Protocol.BlockHeader;
+
+/**
+ * The header of a block: number, parent, timestamp, witness and transaction root, without the
+ * transactions. Its id is the id of the block.
+ */
+public class BlockHeaderCapsule implements ProtoCapsule<BlockHeader> {
+
+  private BlockHeader header;
+  private byte[] data;
+  private BlockId blockId;
+
+  public BlockHeaderCapsule(BlockHeader header) {
+    this.header = header;
+  }
+
+  public BlockHeaderCapsule(byte[] data) throws BadItemException {
+    try {
+      this.header = BlockHeader.parseFrom(data);
+      this.data = data;
+    } catch (InvalidProtocolBufferException e) {
+      throw new BadItemException();
+    }
+  }
+
+  public BlockId getBlockId() {
+    if (blockId == null) {
+      blockId = new BlockId(Sha256Hash.of(header), getNum());
+    }
+    return blockId;
+  }
+
+  public long getNum() {
+    return header.getRawData().getNumber();
+  }
+
+  public Sha256Hash getParentHash() {
+    return Sha256Hash.wrap(header.getRawData().getParentHash());
+  }
+
+  public BlockId getParentBlockId() {
+    return new BlockId(getParentHash(), getNum() - 1);
+  }
+
+  public long getTimeStamp() {
+    return header.getRawData().getTimestamp();
+  }
+
+  public ByteString getWitnessAddress() {
+    return header.getRawData().getWitnessAddress();
+  }
+
+  public Sha256Hash getTxTrieRoot() {
+    return Sha256Hash.wrap(header.getRawData().getTxTrieRoot());
+  }
+
+  @Override
+  public byte[] getData() {
+    if (data == null) {
+      data = header.toByteArray();
+    }
+    return data;
+  }
+
+  @Override
+  public BlockHeader getInstance() {
+    return header;
+  }
+
+  @Override
+  public String toString() {
+    return "BlockHeaderCapsule{blockId=" + getBlockId() + ", parentId=" + getParentBlockId()
+        + ", timestamp=" + getTimeStamp() + "}";
+  }
+}
@@ -33,6 +33,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.crypto.ECKey;
 import org.tron.common.crypto.ECKey.ECDSASignature;
+import org.tron.common.crypto.SignatureRecovery;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.Wallet;
@@ -56,6 +57,12 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   private Transaction transaction;
   @Setter
   private boolean isVerified = false;
+
+  // derived from the transaction, computed once and dropped when the transaction changes
+  private byte[] data;
+  private Sha256Hash transactionId;
+  private Sha256Hash hash;
+
   /**
    * constructor TransactionCapsule.
    */
@@ -64,11 +71,12 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   }
 
   /**
-   * get account from bytes data.
+   * get account from bytes data, which is kept as the serialized transaction.
    */
   public TransactionCapsule(byte[] data) {
     try {
       this.transaction = Transaction.parseFrom(data);
+      this.data = data;
     } catch (InvalidProtocolBufferException e) {
       logger.debug(e.getMessage());
     }
@@ -141,7 +149,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
         .setRefBlockHash(ByteString.copyFrom(ByteArray.subArray(blockHash, 8, 16)))
         .setRefBlockBytes(ByteString.copyFrom(ByteArray.subArray(refBlockNum, 6, 8)))
         .build();
-    this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+    setTransaction(this.transaction.toBuilder().setRawData(rawData).build());
   }
 
   /**
@@ -150,7 +158,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
   public void setExpiration(long expiration) {
     Transaction.raw rawData = this.transaction.getRawData().toBuilder().setExpiration(expiration)
         .build();
-    this.transaction = this.transaction.toBuilder().setRawData(rawData).build();
+    setTransaction(this.transaction.toBuilder().setRawData(rawData).build());
   }
 
   public long getExpiration() {
@@ -176,16 +184,18 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
         Transaction.Contract.newBuilder().setType(contractType).setParameter(
             Any.pack(message)).build());
     logger.info("Transaction create succeeded！");
-    transaction = Transaction.newBuilder().setRawData(transactionBuilder.build()).build();
+    setTransaction(Transaction.newBuilder().setRawData(transactionBuilder.build()).build());
   }
 
   public Sha256Hash getHash() {
-    byte[] transBytes = this.transaction.toByteArray();
-    return Sha256Hash.of(transBytes);
+    if (this.hash == null) {
+      this.hash = Sha256Hash.of(getData());
+    }
+    return this.hash;
   }
 
   public Sha256Hash getRawHash() {
-    return Sha256Hash.of(this.transaction.getRawData().toByteArray());
+    return getTransactionId();
   }
 
   /**
@@ -220,7 +230,7 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     ECKey ecKey = ECKey.fromPrivate(privateKey);
     ECDSASignature signature = ecKey.sign(getRawHash().getBytes());
     ByteString sig = ByteString.copyFrom(signature.toBase64().getBytes());
-    this.transaction = this.transaction.toBuilder().addSignature(sig).build();
+    setTransaction(this.transaction.toBuilder().addSignature(sig).build());
   }
 
   // todo mv this static function to capsule util
@@ -342,8 +352,8 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
       try {
         Transaction.Contract contract = listContract.get(i);
         byte[] owner = getOwner(contract);
-        byte[] address = ECKey.signatureToAddress(getRawHash().getBytes(),
-            getBase64FromByteString(this.transaction.getSignature(i)));
+        byte[] address = SignatureRecovery.recoverAddress(getRawHash().getBytes(),
+            this.transaction.getSignature(i).toByteArray());
         if (!Arrays.equals(owner, address)) {
           isVerified = false;
           throw new ValidateSignatureException("sig error");
@@ -358,17 +368,74 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     return true;
   }
 
+  /**
+   * validate the signatures of many transactions, the signers of all of them are recovered in one
+   * batch. Transactions are marked verified in order until the first invalid one.
+   */
+  public static void validateSignatures(List<TransactionCapsule> transactions)
+      throws ValidateSignatureException {
+    int count = 0;
+    for (TransactionCapsule trx : transactions) {
+      if (!trx.isVerified) {
+        count += trx.getInstance().getSignatureCount();
+      }
+    }
+    byte[][] hashes = new byte[count][];
+    byte[][] signatures = new byte[count][];
+    int k = 0;
+    for (TransactionCapsule trx : transactions) {
+      if (!trx.isVerified) {
+        byte[] hash = trx.getRawHash().getBytes();
+        for (ByteString signature : trx.getInstance().getSignatureList()) {
+          hashes[k] = hash;
+          signatures[k++] = signature.toByteArray();
+        }
+      }
+    }
+
+    byte[][] addresses = SignatureRecovery.recoverAddresses(hashes, signatures);
+    k = 0;
+    for (TransactionCapsule trx : transactions) {
+      if (trx.isVerified) {
+        continue;
+      }
+      Transaction transaction = trx.getInstance();
+      if (transaction.getSignatureCount() != transaction.getRawData().getContractCount()) {
+        throw new ValidateSignatureException("miss sig or contract");
+      }
+      for (Transaction.Contract contract : transaction.getRawData().getContractList()) {
+        byte[] address = addresses[k++];
+        if (address == null) {
+          throw new ValidateSignatureException("Could not recover public key from signature");
+        }
+        if (!Arrays.equals(getOwner(contract), address)) {
+          throw new ValidateSignatureException("sig error");
+        }
+      }
+      trx.isVerified = true;
+    }
+  }
+
   public Sha256Hash getTransactionId() {
-    return Sha256Hash.of(this.transaction.getRawData().toByteArray());
+    if (this.transactionId == null) {
+      this.transactionId = Sha256Hash.of(this.transaction.getRawData());
+    }
+    return this.transactionId;
   }
 
+  /**
+   * the serialized transaction, the returned array is shared and must not be modified.
+   */
   @Override
   public byte[] getData() {
-    return this.transaction.toByteArray();
+    if (this.data == null) {
+      this.data = this.transaction.toByteArray();
+    }
+    return this.data;
   }
 
   public long getSerializedSize() {
-    return this.transaction.getSerializedSize();
+    return this.data == null ? this.transaction.getSerializedSize() : this.data.length;
   }
 
   @Override
@@ -376,6 +443,13 @@ public class TransactionCapsule implements ProtoCapsule<Transaction> {
     return this.transaction;
   }
 
+  private void setTransaction(Transaction transaction) {
+    this.transaction = transaction;
+    this.data = null;
+    this.transactionId = null;
+    this.hash = null;
+  }
+
   private StringBuffer toStringBuff = new StringBuffer();
 
   @Override
@@ -5,6 +5,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import lombok.Getter;
+import org.tron.common.crypto.Hasher;
 import org.tron.common.utils.Sha256Hash;
 
 @Getter
@@ -79,7 +80,7 @@ public class MerkleTree {
     }
 
     private Sha256Hash computeHash(Sha256Hash leftHash, Sha256Hash rightHash) {
-        return Sha256Hash.of(leftHash.getByteString().concat(rightHash.getByteString()).toByteArray());
+        return Sha256Hash.wrap(Hasher.sha256(leftHash.getBytes(), rightHash.getBytes()));
     }
 
     @Getter
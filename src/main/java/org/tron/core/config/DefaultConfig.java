@@ -51,11 +51,21 @@ public class DefaultConfig {
     return "votes";
   }
 
+  @Bean(name = "vote-tally")
+  public String voteTally() {
+    return "vote-tally";
+  }
+
   @Bean(name = "trans")
   public String trans() {
     return "trans";
   }
 
+  @Bean(name = "pruned-trans")
+  public String prunedTrans() {
+    return "pruned-trans";
+  }
+
   @Bean(name = "utxo")
   public String utxo() {
     return "utxo";
@@ -91,6 +101,11 @@ public class DefaultConfig {
     return "recent-block";
   }
 
+  @Bean(name = "block-header")
+  public String blockHeader() {
+    return "block-header";
+  }
+
 
   @Bean
   public IndexHelper indexHelper() {
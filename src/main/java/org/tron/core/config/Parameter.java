@@ -17,6 +17,8 @@ public interface Parameter {
     long CLOCK_MAX_DELAY = 3600 * 1000; //ms
     double BLOCK_PRODUCED_TIME_OUT = 0.75;
     long BATCH_FETCH_RESPONSE_SIZE = 1000; //for each inventory message from peer, the max count of fetch inv message
+    // block from which the votes are tallied incrementally, a fork of the whole network; not scheduled yet
+    long VOTE_TALLY_ACTIVATION_NUM = Long.MAX_VALUE;
   }
 
   interface NodeConstant {
@@ -69,6 +69,14 @@ public class Args {
   @Parameter(names = {"--storage-directory"}, description = "Storage directory")
   private String storageDirectory = "";
 
+  @Getter
+  @Parameter(names = {"--snapshot-import"}, description = "Bootstrap from a snapshot directory")
+  private String snapshotImportDirectory = "";
+
+  @Getter
+  @Parameter(names = {"--snapshot-export"}, description = "Export a snapshot into the directory")
+  private String snapshotExportDirectory = "";
+
   @Getter
   private Storage storage;
 
@@ -176,6 +184,10 @@ public class Args {
   @Setter
   private long maintenanceTimeInterval; // (ms)
 
+  @Getter
+  @Setter
+  private long khaosDbMaxBytes;
+
   @Getter
   @Setter
   private int tcpNettyWorkThreadNum;
@@ -184,6 +196,34 @@ public class Args {
   @Setter
   private int udpNettyWorkThreadNum;
 
+  @Getter
+  @Setter
+  private boolean nodeEpollEnable;
+
+  @Getter
+  @Setter
+  private boolean nodeTcpNoDelay;
+
+  @Getter
+  @Setter
+  private int nodeSendBufferSize;
+
+  @Getter
+  @Setter
+  private int nodeReceiveBufferSize;
+
+  @Getter
+  @Setter
+  private int nodeWriteBufferLowWaterMark;
+
+  @Getter
+  @Setter
+  private int nodeWriteBufferHighWaterMark;
+
+  @Getter
+  @Setter
+  private int udpReceiveBufferSize;
+
   @Getter
   @Setter
   @Parameter(names = {"--trust-node"}, description = "Trust node addr")
@@ -196,6 +236,8 @@ public class Args {
     INSTANCE.seedNodes = new ArrayList<>();
     INSTANCE.privateKey = "";
     INSTANCE.storageDirectory = "";
+    INSTANCE.snapshotImportDirectory = "";
+    INSTANCE.snapshotExportDirectory = "";
     INSTANCE.storage = null;
     INSTANCE.overlay = null;
     INSTANCE.seedNode = null;
@@ -219,8 +261,16 @@ public class Args {
     INSTANCE.nodeP2pVersion = 0;
     INSTANCE.rpcPort = 0;
     INSTANCE.maintenanceTimeInterval = 0;
+    INSTANCE.khaosDbMaxBytes = 0;
     INSTANCE.tcpNettyWorkThreadNum = 0;
     INSTANCE.udpNettyWorkThreadNum = 0;
+    INSTANCE.nodeEpollEnable = false;
+    INSTANCE.nodeTcpNoDelay = false;
+    INSTANCE.nodeSendBufferSize = 0;
+    INSTANCE.nodeReceiveBufferSize = 0;
+    INSTANCE.nodeWriteBufferLowWaterMark = 0;
+    INSTANCE.nodeWriteBufferHighWaterMark = 0;
+    INSTANCE.udpReceiveBufferSize = 0;
     INSTANCE.p2pNodeId = "";
     INSTANCE.solidityNode = false;
     INSTANCE.trustNodeAddr = "";
@@ -255,6 +305,9 @@ public class Args {
     INSTANCE.storage.setDirectory(Optional.ofNullable(INSTANCE.storageDirectory)
         .filter(StringUtils::isNotEmpty)
         .orElse(config.getString("storage.directory")));
+    INSTANCE.storage.setBlockEngine(config.hasPath("storage.block.engine")
+        ? config.getString("storage.block.engine") : Storage.LEVELDB_ENGINE);
+    INSTANCE.storage.setPruneRetentionBlocks(getPruneRetentionBlocks(config));
     INSTANCE.seedNode = new SeedNode();
     INSTANCE.seedNode.setIpList(Optional.ofNullable(INSTANCE.seedNodes)
         .filter(seedNode -> 0 != seedNode.size())
@@ -340,12 +393,36 @@ public class Args {
         config.hasPath("block.maintenanceTimeInterval") ? config
             .getInt("block.maintenanceTimeInterval") : 21600000L;
 
+    INSTANCE.khaosDbMaxBytes = config.hasPath("block.khaosDbMaxBytes") ? config
+        .getBytes("block.khaosDbMaxBytes") : 256L * 1024 * 1024;
+
     INSTANCE.tcpNettyWorkThreadNum = config.hasPath("node.tcpNettyWorkThreadNum") ? config
         .getInt("node.tcpNettyWorkThreadNum") : 0;
 
     INSTANCE.udpNettyWorkThreadNum = config.hasPath("node.udpNettyWorkThreadNum") ? config
         .getInt("node.udpNettyWorkThreadNum") : 1;
 
+    INSTANCE.nodeEpollEnable =
+        !config.hasPath("node.netty.epoll") || config.getBoolean("node.netty.epoll");
+
+    INSTANCE.nodeTcpNoDelay =
+        !config.hasPath("node.netty.tcpNoDelay") || config.getBoolean("node.netty.tcpNoDelay");
+
+    INSTANCE.nodeSendBufferSize = config.hasPath("node.netty.sendBufferSize") ? config
+        .getInt("node.netty.sendBufferSize") : 0;
+
+    INSTANCE.nodeReceiveBufferSize = config.hasPath("node.netty.receiveBufferSize") ? config
+        .getInt("node.netty.receiveBufferSize") : 0;
+
+    INSTANCE.nodeWriteBufferLowWaterMark = config.hasPath("node.netty.writeBufferLowWaterMark")
+        ? config.getInt("node.netty.writeBufferLowWaterMark") : 1024 * 1024;
+
+    INSTANCE.nodeWriteBufferHighWaterMark = config.hasPath("node.netty.writeBufferHighWaterMark")
+        ? config.getInt("node.netty.writeBufferHighWaterMark") : 4 * 1024 * 1024;
+
+    INSTANCE.udpReceiveBufferSize = config.hasPath("node.netty.udpReceiveBufferSize") ? config
+        .getInt("node.netty.udpReceiveBufferSize") : 0;
+
     if (StringUtils.isEmpty(INSTANCE.trustNodeAddr)) {
       INSTANCE.trustNodeAddr = config.hasPath("node.trustNode") ? config.getString("node.trustNode") : null;
     }
@@ -356,6 +433,17 @@ public class Args {
   }
 
 
+  private static long getPruneRetentionBlocks(final com.typesafe.config.Config config) {
+    if (config.hasPath("storage.prune.blocks")) {
+      return config.getLong("storage.prune.blocks");
+    }
+    if (config.hasPath("storage.prune.days")) {
+      return config.getLong("storage.prune.days") * 24 * 3600 * 1000
+          / ChainConstant.BLOCK_PRODUCED_INTERVAL;
+    }
+    return 0;
+  }
+
   private static List<Witness> getWitnessesFromConfig(final com.typesafe.config.Config config) {
     return config.getObjectList("genesis.block.witnesses").stream()
         .map(Args::createWitness)
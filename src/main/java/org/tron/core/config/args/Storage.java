@@ -5,7 +5,21 @@ import lombok.Setter;
 
 public class Storage {
 
+  public static final String LEVELDB_ENGINE = "leveldb";
+  public static final String BLOCK_LOG_ENGINE = "blocklog";
+
   @Getter
   @Setter
   private String directory;
+
+  @Getter
+  @Setter
+  private String blockEngine = LEVELDB_ENGINE;
+
+  /**
+   * blocks of history kept below the solidified block, 0 keeps the whole history.
+   */
+  @Getter
+  @Setter
+  private long pruneRetentionBlocks;
 }
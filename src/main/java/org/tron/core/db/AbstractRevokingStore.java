@@ -3,6 +3,7 @@ package org.tron.core.db;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -239,6 +240,28 @@ public abstract class AbstractRevokingStore implements RevokingDatabase {
     disabled = true;
   }
 
+  /**
+   * Fold the newest {@code depth} states into the values they replaced, so that the caller can
+   * read the stores as they were before those states were applied. A null value means the key
+   * did not exist.
+   */
+  public synchronized Map<RevokingTuple, byte[]> getRevertedValues(int depth) {
+    if (depth > stack.size()) {
+      throw new IllegalArgumentException(
+          "depth " + depth + " is greater than stack size " + stack.size());
+    }
+
+    Map<RevokingTuple, byte[]> reverted = new HashMap<>();
+    Iterator<RevokingState> iterator = stack.descendingIterator();
+    for (int i = 0; i < depth && iterator.hasNext(); i++) {
+      RevokingState state = iterator.next();
+      reverted.putAll(state.oldValues);
+      state.newIds.forEach(tuple -> reverted.put(tuple, null));
+      reverted.putAll(state.removed);
+    }
+    return reverted;
+  }
+
   private void addIfEmtpy() {
     if (stack.isEmpty()) {
       stack.add(new RevokingState());
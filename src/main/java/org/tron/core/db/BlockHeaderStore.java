@@ -0,0 +1,95 @@
+package org.tron.core.db;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BlockHeaderCapsule;
+import org.tron.core.exception.BadItemException;
+import org.tron.core.exception.ItemNotFoundException;
+
+/**
+ * The headers of the blocks in the block store, keyed by block id like the blocks. Existence
+ * checks, parent links and timestamps are answered from here without reading block bodies, and
+ * the headers are kept when old block bodies are pruned.
+ */
+@Slf4j
+@Component
+public class BlockHeaderStore extends TronStoreWithRevoking<BlockHeaderCapsule> {
+
+  private static final int FILL_BATCH = 1000;
+
+  // shorter than a block id; kept with the headers, so a store copied without them is filled again
+  private static final byte[] FILLED = "BLOCK_HEADERS_FILLED".getBytes();
+
+  @Autowired
+  private BlockHeaderStore(@Qualifier("block-header") String dbName) {
+    super(dbName);
+  }
+
+  public void put(BlockCapsule block) {
+    put(block.getBlockId().getBytes(),
+        new BlockHeaderCapsule(block.getInstance().getBlockHeader()));
+  }
+
+  @Override
+  public BlockHeaderCapsule get(byte[] key) throws ItemNotFoundException, BadItemException {
+    byte[] value = dbSource.getData(key);
+    if (ArrayUtils.isEmpty(value)) {
+      throw new ItemNotFoundException();
+    }
+    return new BlockHeaderCapsule(value);
+  }
+
+  @Override
+  public boolean has(byte[] key) {
+    return null != dbSource.getData(key);
+  }
+
+  /**
+   * write the headers of all blocks of the block store, for databases created before the header
+   * store existed or that were bootstrapped from a snapshot. The fill is marked done only once it
+   * completed, an interrupted fill is redone from the start on the next open. It runs before the
+   * revoking store is enabled, so it is written around it.
+   */
+  public void fillFrom(BlockStore blockStore) {
+    if (isFilled()) {
+      return;
+    }
+    Iterator<Entry<byte[], BlockCapsule>> blocks = blockStore.iterator();
+    if (!blocks.hasNext()) {
+      dbSource.putData(FILLED, ByteArray.fromLong(1));
+      return;
+    }
+    logger.info("fill the block header store from the block store");
+    long count = 0;
+    Map<byte[], byte[]> batch = new HashMap<>();
+    while (blocks.hasNext()) {
+      Entry<byte[], BlockCapsule> entry = blocks.next();
+      batch.put(entry.getKey(), entry.getValue().getInstance().getBlockHeader().toByteArray());
+      if (batch.size() >= FILL_BATCH) {
+        count += batch.size();
+        dbSource.updateByBatch(batch);
+        batch.clear();
+      }
+    }
+    count += batch.size();
+    dbSource.updateByBatch(batch);
+    dbSource.putData(FILLED, ByteArray.fromLong(1));
+    logger.info("filled {} block headers", count);
+  }
+
+  /**
+   * whether the store holds the headers of every stored block.
+   */
+  public boolean isFilled() {
+    return dbSource.getData(FILLED) != null;
+  }
+}
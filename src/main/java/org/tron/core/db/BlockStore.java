@@ -16,6 +16,7 @@
 package org.tron.core.db;
 
 import com.googlecode.cqengine.IndexedCollection;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map.Entry;
@@ -26,9 +27,13 @@ import org.apache.commons.lang3.ArrayUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.blocklog.BlockLogDataSourceImpl;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.config.args.Args;
+import org.tron.core.config.args.Storage;
 import org.tron.core.db.common.iterator.BlockIterator;
 import org.tron.core.exception.BadItemException;
 import org.tron.core.exception.ItemNotFoundException;
@@ -41,10 +46,16 @@ public class BlockStore extends TronStoreWithRevoking<BlockCapsule> {
 
   private BlockCapsule head;
   private IndexedCollection<Block> blockIndex;
+  private BlockLogDataSourceImpl blockLog;
 
   @Autowired
   private BlockStore(@Qualifier("block") String dbName) {
     super(dbName);
+    if (Storage.BLOCK_LOG_ENGINE.equals(Args.getInstance().getStorage().getBlockEngine())) {
+      blockLog = new BlockLogDataSourceImpl(Args.getInstance().getOutputDirectory(),
+          dbName + "-log");
+      blockLog.initDB();
+    }
   }
 
   private static BlockStore instance;
@@ -75,9 +86,14 @@ public class BlockStore extends TronStoreWithRevoking<BlockCapsule> {
     return instance;
   }
 
+  @Override
+  public DbSourceInter<byte[]> getSource() {
+    return blockLog != null ? blockLog : dbSource;
+  }
+
   @Override
   public BlockCapsule get(byte[] key) throws ItemNotFoundException, BadItemException {
-    byte[] value = dbSource.getData(key);
+    byte[] value = getSource().getData(key);
     if (ArrayUtils.isEmpty(value)) {
       throw new ItemNotFoundException();
     }
@@ -86,8 +102,10 @@ public class BlockStore extends TronStoreWithRevoking<BlockCapsule> {
 
   public List<BlockCapsule> getLimitNumber(long startNumber, long limit) {
     BlockId startBlockId = new BlockId(Sha256Hash.ZERO_HASH, startNumber);
-    return dbSource.getValuesNext(startBlockId.getBytes(), limit)
-        .stream().map(bytes -> {
+    Collection<byte[]> values = blockLog != null
+        ? blockLog.getValuesNext(startBlockId.getBytes(), limit)
+        : dbSource.getValuesNext(startBlockId.getBytes(), limit);
+    return values.stream().map(bytes -> {
           try {
             return new BlockCapsule(bytes);
           } catch (BadItemException e) {
@@ -100,9 +118,10 @@ public class BlockStore extends TronStoreWithRevoking<BlockCapsule> {
   }
 
   public List<BlockCapsule> getBlockByLatestNum(long getNum) {
-
-    return dbSource.getlatestValues(getNum)
-        .stream().map(bytes -> {
+    Collection<byte[]> values = blockLog != null
+        ? blockLog.getlatestValues(getNum)
+        : dbSource.getlatestValues(getNum);
+    return values.stream().map(bytes -> {
           try {
             return new BlockCapsule(bytes);
           } catch (BadItemException e) {
@@ -116,14 +135,30 @@ public class BlockStore extends TronStoreWithRevoking<BlockCapsule> {
 
   @Override
   public boolean has(byte[] key) {
-    byte[] block = dbSource.getData(key);
+    byte[] block = getSource().getData(key);
     logger.info("address is {}, block is {}", key, block);
     return null != block;
   }
 
   @Override
   public Iterator<Entry<byte[], BlockCapsule>> iterator() {
-    return new BlockIterator(dbSource.iterator());
+    return new BlockIterator(blockLog != null ? blockLog.iterator() : dbSource.iterator());
+  }
+
+  @Override
+  public void reset() {
+    super.reset();
+    if (blockLog != null) {
+      blockLog.resetDb();
+    }
+  }
+
+  @Override
+  public void close() {
+    super.close();
+    if (blockLog != null) {
+      blockLog.closeDB();
+    }
   }
 
   @Override
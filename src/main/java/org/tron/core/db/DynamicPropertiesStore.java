@@ -26,18 +26,22 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
 
   private static final byte[] LATEST_BLOCK_HEADER_TIMESTAMP = "latest_block_header_timestamp"
       .getBytes();
-  private static final byte[] LATEST_BLOCK_HEADER_NUMBER = "latest_block_header_number".getBytes();
-  private static final byte[] LATEST_BLOCK_HEADER_HASH = "latest_block_header_hash".getBytes();
+  static final byte[] LATEST_BLOCK_HEADER_NUMBER = "latest_block_header_number".getBytes();
+  static final byte[] LATEST_BLOCK_HEADER_HASH = "latest_block_header_hash".getBytes();
   private static final byte[] STATE_FLAG = "state_flag"
       .getBytes(); // 1 : is maintenance, 0 : is not maintenance
   private static final byte[] LATEST_SOLIDIFIED_BLOCK_NUM = "LATEST_SOLIDIFIED_BLOCK_NUM"
       .getBytes();
 
+  static final byte[] LATEST_PRUNED_BLOCK_NUM = "LATEST_PRUNED_BLOCK_NUM".getBytes();
+
+  private static final byte[] ALLOW_VOTE_TALLY = "ALLOW_VOTE_TALLY".getBytes();
+
   private static final byte[] BLOCK_FILLED_SLOTS = "BLOCK_FILLED_SLOTS".getBytes();
 
   private static final byte[] BLOCK_FILLED_SLOTS_INDEX = "BLOCK_FILLED_SLOTS_INDEX".getBytes();
 
-  private static final byte[] NEXT_MAINTENANCE_TIME = "NEXT_MAINTENANCE_TIME".getBytes();
+  static final byte[] NEXT_MAINTENANCE_TIME = "NEXT_MAINTENANCE_TIME".getBytes();
 
   private static final byte[] BLOCK_FILLED_SLOTS_NUMBER = "BLOCK_FILLED_SLOTS_NUMBER".getBytes();
 
@@ -558,6 +562,35 @@ public class DynamicPropertiesStore extends TronStoreWithRevoking<BytesCapsule>
     //return ByteArray.toLong(this.dbSource.getData(this.SOLIDIFIED_THRESHOLD));
   }
 
+  /**
+   * the highest block whose history is pruned, 0 if nothing is pruned.
+   */
+  public long getLatestPrunedBlockNum() {
+    return Optional.ofNullable(this.dbSource.getData(LATEST_PRUNED_BLOCK_NUM))
+        .map(ByteArray::toLong)
+        .orElse(0L);
+  }
+
+  /**
+   * pruning only touches solidified history, so it is written around the revoking store.
+   */
+  public void saveLatestPrunedBlockNum(long number) {
+    this.dbSource.putData(LATEST_PRUNED_BLOCK_NUM, ByteArray.fromLong(number));
+  }
+
+  /**
+   * 1 once the votes are tallied by the actuators, 0 while they are counted from the votes store.
+   */
+  public long getAllowVoteTally() {
+    return Optional.ofNullable(this.dbSource.getData(ALLOW_VOTE_TALLY))
+        .map(ByteArray::toLong)
+        .orElse(0L);
+  }
+
+  public void saveAllowVoteTally(long allowVoteTally) {
+    this.put(ALLOW_VOTE_TALLY, new BytesCapsule(ByteArray.fromLong(allowVoteTally)));
+  }
+
   /**
    * get timestamp of creating global latest block.
    */
@@ -0,0 +1,125 @@
+package org.tron.core.db;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.blocklog.BlockLogDataSourceImpl;
+import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.db.snapshot.SnapshotExporter;
+import org.tron.core.exception.StoreException;
+
+/**
+ * Deletes blocks and their transactions older than the retention window below the solidified
+ * block. Solidified history is never revoked, so the records are deleted in batches straight from
+ * the sources. The block index is kept, so pruned heights can be told apart from unknown ones.
+ */
+@Slf4j
+public class HistoryPruner {
+
+  private static final int BATCH_BLOCKS = 1000;
+  private static final long PRUNE_INTERVAL = 60;
+
+  private Manager manager;
+  private long retentionBlocks;
+  private ScheduledExecutorService executor;
+
+  /**
+   * the window is kept at least as long as a transaction can stay valid, which the duplicate
+   * check relies on.
+   */
+  public HistoryPruner(Manager manager, long retentionBlocks) {
+    this.manager = manager;
+    this.retentionBlocks = Math.max(retentionBlocks, SnapshotExporter.BLOCK_WINDOW);
+  }
+
+  public void start() {
+    executor = Executors.newSingleThreadScheduledExecutor(r -> new Thread(r, "history-pruner"));
+    executor.scheduleWithFixedDelay(() -> {
+      try {
+        prune();
+      } catch (Throwable t) {
+        logger.error("prune history failed", t);
+      }
+    }, PRUNE_INTERVAL, PRUNE_INTERVAL, TimeUnit.SECONDS);
+    logger.info("prune history older than {} blocks below the solidified block",
+        retentionBlocks);
+  }
+
+  public void stop() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * prune every block up to the retention window, batch by batch.
+   */
+  public void prune() throws StoreException {
+    DynamicPropertiesStore dynamicPropertiesStore = manager.getDynamicPropertiesStore();
+    long target = dynamicPropertiesStore.getLatestSolidifiedBlockNum() - retentionBlocks;
+    long from = dynamicPropertiesStore.getLatestPrunedBlockNum() + 1;
+    if (target < from) {
+      return;
+    }
+
+    long startNum = from;
+    while (from <= target && !Thread.currentThread().isInterrupted()) {
+      long to = Math.min(from + BATCH_BLOCKS - 1, target);
+      pruneBatch(from, to);
+      dynamicPropertiesStore.saveLatestPrunedBlockNum(to);
+      from = to + 1;
+    }
+    if (from > startNum) {
+      compactBlocks(startNum, from - 1);
+      logger.info("pruned history of blocks {} to {}", startNum, from - 1);
+    }
+  }
+
+  /**
+   * transactions go first, so an interrupted batch can still find them through its blocks. Their
+   * block numbers are recorded before, so lookups can report them as pruned.
+   */
+  private void pruneBatch(long from, long to) throws StoreException {
+    Map<byte[], byte[]> blocks = new LinkedHashMap<>();
+    Map<byte[], byte[]> transactions = new HashMap<>();
+    Map<byte[], byte[]> prunedNums = new HashMap<>();
+    for (long num = from; num <= to; num++) {
+      BlockId blockId = manager.getBlockIdByNum(num);
+      byte[] data = manager.getBlockStore().getSource().getData(blockId.getBytes());
+      if (data == null) {
+        continue;
+      }
+      for (TransactionCapsule trx : new BlockCapsule(data).getTransactions()) {
+        transactions.put(trx.getTransactionId().getBytes(), null);
+        prunedNums.put(trx.getTransactionId().getBytes(), ByteArray.fromLong(num));
+      }
+      blocks.put(blockId.getBytes(), null);
+    }
+    manager.getPrunedTransactionStore().putAll(prunedNums);
+    manager.getTransactionStore().getSource().updateByBatch(transactions);
+    manager.getBlockStore().getSource().updateByBatch(blocks);
+  }
+
+  /**
+   * block ids start with the height, so the pruned blocks are one key range of the LevelDB. The
+   * block log only reclaims whole segments.
+   */
+  private void compactBlocks(long from, long to) throws StoreException {
+    DbSourceInter<byte[]> source = manager.getBlockStore().getSource();
+    if (source instanceof LevelDbDataSourceImpl) {
+      ((LevelDbDataSourceImpl) source).compactRange(manager.getBlockIdByNum(from).getBytes(),
+          manager.getBlockIdByNum(to).getBytes());
+    } else if (source instanceof BlockLogDataSourceImpl) {
+      ((BlockLogDataSourceImpl) source).releaseSegments();
+    }
+  }
+}
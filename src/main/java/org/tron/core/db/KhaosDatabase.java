@@ -2,27 +2,51 @@ package org.tron.core.db;
 
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
-import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import javafx.util.Pair;
 import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.config.args.Args;
 import org.tron.core.exception.UnLinkedBlockException;
 
+/**
+ * The recent blocks of all forks, linked to their parents, and the blocks whose parent we do not
+ * have yet.
+ *
+ * <p>The blocks are changed under the lock of the database and read without it: the indexes are
+ * concurrent maps, a block never changes its parent, and the lists of a height are copied on
+ * write, so a reader walks a consistent branch while a block is pushed. Besides the distance from
+ * the head, the stores are bounded by the bytes of their blocks, and every peer can only keep a
+ * few unlinked blocks.</p>
+ */
+@Slf4j
 @Component
 public class KhaosDatabase extends TronDatabase {
 
+  // a peer sending more unlinked blocks pushes out its oldest ones
+  static final int MAX_UNLINKED_PER_SOURCE = 16;
+  // heights below the head kept whatever the bytes, so the latest forks can still be switched
+  static final int MIN_RETAINED_HEIGHTS = 32;
+
   private class KhaosBlock {
 
     public Sha256Hash getParentHash() {
@@ -33,6 +57,8 @@ public class KhaosDatabase extends TronDatabase {
       this.blk = blk;
       this.id = blk.getBlockId();
       this.num = blk.getNum();
+      this.size = blk.getInstance().getSerializedSize();
+      this.source = blk.getSource();
     }
 
     BlockCapsule blk;
@@ -40,9 +66,16 @@ public class KhaosDatabase extends TronDatabase {
     BlockId id;
     Boolean invalid;
     long num;
+    final long size;
+    final String source;
+    volatile boolean removed;
 
+    /**
+     * the parent while it is still in the database.
+     */
     public KhaosBlock getParent() {
-      return parent == null ? null : parent.get();
+      KhaosBlock block = parent == null ? null : parent.get();
+      return block == null || block.removed ? null : block;
     }
 
     public void setParent(KhaosBlock parent) {
@@ -70,50 +103,103 @@ public class KhaosDatabase extends TronDatabase {
 
   public class KhaosStore {
 
-    private HashMap<BlockId, KhaosBlock> hashKblkMap = new HashMap<>();
-    // private HashMap<Sha256Hash, KhaosBlock> parentHashKblkMap = new HashMap<>();
+    private final Map<BlockId, KhaosBlock> hashKblkMap = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, List<KhaosBlock>> numKblkMap =
+        new ConcurrentSkipListMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+    // the blocks of every source in arrival order, only kept when limited
+    private final Map<String, Deque<KhaosBlock>> sourceKblkMap = new HashMap<>();
+    private final int maxPerSource;
     private int maxCapcity = 1024;
+    private long maxBytes;
 
-    private LinkedHashMap<Long, ArrayList<KhaosBlock>> numKblkMap =
-        new LinkedHashMap<Long, ArrayList<KhaosBlock>>() {
-
-          @Override
-          protected boolean removeEldestEntry(Map.Entry<Long, ArrayList<KhaosBlock>> entry) {
-            if (entry.getKey() < Long.max(0L, head.num - maxCapcity)) {
-              entry.getValue().forEach(b -> hashKblkMap.remove(b.id));
-              return true;
-            }
-            return false;
-          }
-        };
+    KhaosStore(long maxBytes, int maxPerSource) {
+      this.maxBytes = maxBytes;
+      this.maxPerSource = maxPerSource;
+    }
 
-    public void setMaxCapcity(int maxCapcity) {
+    public synchronized void setMaxCapcity(int maxCapcity) {
       this.maxCapcity = maxCapcity;
     }
 
-    public void insert(KhaosBlock block) {
+    public synchronized void setMaxBytes(long maxBytes) {
+      this.maxBytes = maxBytes;
+    }
+
+    public synchronized void insert(KhaosBlock block) {
+      KhaosBlock old = hashKblkMap.get(block.id);
+      if (old != null) {
+        remove(old);
+      }
       hashKblkMap.put(block.id, block);
-      numKblkMap.computeIfAbsent(block.num, listBlk -> new ArrayList<>()).add(block);
+      numKblkMap.computeIfAbsent(block.num, num -> new CopyOnWriteArrayList<>()).add(block);
+      bytes.addAndGet(block.size);
+
+      if (maxPerSource > 0 && block.source != null) {
+        Deque<KhaosBlock> blocks = sourceKblkMap
+            .computeIfAbsent(block.source, source -> new ArrayDeque<>());
+        blocks.addLast(block);
+        if (blocks.size() > maxPerSource) {
+          KhaosBlock oldest = blocks.peekFirst();
+          logger.info("Drop unlinked block {} of {}, too many from it", oldest.id.getString(),
+              block.source);
+          remove(oldest);
+        }
+      }
     }
 
-    public boolean remove(Sha256Hash hash) {
+    public synchronized boolean remove(Sha256Hash hash) {
       KhaosBlock block = this.hashKblkMap.get(hash);
-      // Sha256Hash parentHash = Sha256Hash.ZERO_HASH;
       if (block != null) {
-        long num = block.num;
-        // parentHash = block.getParentHash();
-        ArrayList<KhaosBlock> listBlk = numKblkMap.get(num);
-        if (listBlk != null) {
-          listBlk.removeIf(b -> b.id.equals(hash));
-        }
-        this.hashKblkMap.remove(hash);
+        remove(block);
         return true;
       }
       return false;
     }
 
+    private void remove(KhaosBlock block) {
+      if (!hashKblkMap.remove(block.id, block)) {
+        return;
+      }
+      block.removed = true;
+      bytes.addAndGet(-block.size);
+      List<KhaosBlock> listBlk = numKblkMap.get(block.num);
+      if (listBlk != null) {
+        listBlk.remove(block);
+        if (listBlk.isEmpty()) {
+          numKblkMap.remove(block.num, listBlk);
+        }
+      }
+      if (block.source != null) {
+        Deque<KhaosBlock> blocks = sourceKblkMap.get(block.source);
+        if (blocks != null && blocks.remove(block) && blocks.isEmpty()) {
+          sourceKblkMap.remove(block.source);
+        }
+      }
+    }
+
+    /**
+     * drop the lowest heights, those too far below the head and then as many below the floor as
+     * needed to fit the bytes.
+     */
+    synchronized void evict(long headNum, long floor) {
+      long minNum = headNum - maxCapcity;
+      while (!numKblkMap.isEmpty()) {
+        Entry<Long, List<KhaosBlock>> lowest = numKblkMap.firstEntry();
+        long num = lowest.getKey();
+        boolean tooFar = num < minNum;
+        boolean tooBig = maxBytes > 0 && bytes.get() > maxBytes;
+        if (!tooFar && !(tooBig && num < floor)) {
+          break;
+        }
+        lowest.getValue().forEach(this::remove);
+        numKblkMap.remove(num);
+      }
+    }
+
     public List<KhaosBlock> getBlockByNum(Long num) {
-      return numKblkMap.get(num);
+      List<KhaosBlock> blocks = numKblkMap.get(num);
+      return blocks == null ? null : Collections.unmodifiableList(blocks);
     }
 
     public KhaosBlock getByHash(Sha256Hash hash) {
@@ -124,19 +210,29 @@ public class KhaosDatabase extends TronDatabase {
       return hashKblkMap.size();
     }
 
+    /**
+     * the serialized size of the blocks in the store.
+     */
+    public long getBytes() {
+      return bytes.get();
+    }
   }
 
-  private KhaosBlock head;
+  private volatile KhaosBlock head;
 
   @Getter
-  private KhaosStore miniStore = new KhaosStore();
+  private KhaosStore miniStore;
 
   @Getter
-  private KhaosStore miniUnlinkedStore = new KhaosStore();
+  private KhaosStore miniUnlinkedStore;
 
   @Autowired
   protected KhaosDatabase(@Qualifier("block_KDB") String dbName) {
     super(dbName);
+    long maxBytes = Args.getInstance().getKhaosDbMaxBytes();
+    miniStore = new KhaosStore(maxBytes, 0);
+    // unlinked blocks are spare copies, they get a small share of the memory
+    miniUnlinkedStore = new KhaosStore(maxBytes / 8, MAX_UNLINKED_PER_SOURCE);
   }
 
   @Override
@@ -157,16 +253,29 @@ public class KhaosDatabase extends TronDatabase {
     return false;
   }
 
-  void start(BlockCapsule blk) {
+  synchronized void start(BlockCapsule blk) {
     this.head = new KhaosBlock(blk);
     miniStore.insert(this.head);
   }
 
-  void setHead(KhaosBlock blk) {
+  synchronized void setHead(KhaosBlock blk) {
     this.head = blk;
   }
 
-  void removeBlk(Sha256Hash hash) {
+  /**
+   * move the head back to a block still in the database, after its fork could not be switched
+   * to. False if the block is gone.
+   */
+  synchronized boolean resetHead(Sha256Hash hash) {
+    KhaosBlock block = miniStore.getByHash(hash);
+    if (block == null) {
+      return false;
+    }
+    this.head = block;
+    return true;
+  }
+
+  synchronized void removeBlk(Sha256Hash hash) {
     if (!miniStore.remove(hash)) {
       miniUnlinkedStore.remove(hash);
     }
@@ -197,23 +306,27 @@ public class KhaosDatabase extends TronDatabase {
   /**
    * Push the block in the KhoasDB.
    */
-  public BlockCapsule push(BlockCapsule blk) throws UnLinkedBlockException {
-    KhaosBlock block = new KhaosBlock(blk);
-    if (head != null && block.getParentHash() != Sha256Hash.ZERO_HASH) {
-      KhaosBlock kblock = miniStore.getByHash(block.getParentHash());
-      if (kblock != null) {
-        block.setParent(kblock);
-      } else {
-        miniUnlinkedStore.insert(block);
-        throw new UnLinkedBlockException();
+  public synchronized BlockCapsule push(BlockCapsule blk) throws UnLinkedBlockException {
+    KhaosBlock block = miniStore.getByHash(blk.getBlockId());
+    if (block == null) {
+      block = new KhaosBlock(blk);
+      if (head != null && block.getParentHash() != Sha256Hash.ZERO_HASH) {
+        KhaosBlock kblock = miniStore.getByHash(block.getParentHash());
+        if (kblock != null) {
+          block.setParent(kblock);
+        } else {
+          miniUnlinkedStore.insert(block);
+          miniUnlinkedStore.evict(head.num, Long.MAX_VALUE);
+          throw new UnLinkedBlockException();
+        }
       }
+      miniStore.insert(block);
     }
 
-    miniStore.insert(block);
-
     if (head == null || block.num > head.num) {
       head = block;
     }
+    miniStore.evict(head.num, head.num - MIN_RETAINED_HEIGHTS);
     return head.blk;
   }
 
@@ -224,7 +337,7 @@ public class KhaosDatabase extends TronDatabase {
   /**
    * pop the head block then remove it.
    */
-  public boolean pop() {
+  public synchronized boolean pop() {
     KhaosBlock prev = head.getParent();
     if (prev != null) {
       head = prev;
@@ -233,7 +346,7 @@ public class KhaosDatabase extends TronDatabase {
     return false;
   }
 
-  public void setMaxSize(int maxSize) {
+  public synchronized void setMaxSize(int maxSize) {
     miniUnlinkedStore.setMaxCapcity(maxSize);
     miniStore.setMaxCapcity(maxSize);
   }
@@ -243,29 +356,7 @@ public class KhaosDatabase extends TronDatabase {
    */
   public Pair<LinkedList<BlockCapsule>, LinkedList<BlockCapsule>> getBranch(
       Sha256Hash block1, Sha256Hash block2) {
-    LinkedList<BlockCapsule> list1 = new LinkedList<>();
-    LinkedList<BlockCapsule> list2 = new LinkedList<>();
-    KhaosBlock kblk1 = miniStore.getByHash(block1);
-    KhaosBlock kblk2 = miniStore.getByHash(block2);
-
-    if (kblk1 != null && kblk2 != null) {
-      while (!Objects.equals(kblk1, kblk2)) {
-        if (kblk1.num > kblk2.num) {
-          list1.add(kblk1.blk);
-          kblk1 = kblk1.getParent();
-        } else if (kblk1.num < kblk2.num) {
-          list2.add(kblk2.blk);
-          kblk2 = kblk2.getParent();
-        } else {
-          list1.add(kblk1.blk);
-          list2.add(kblk2.blk);
-          kblk1 = kblk1.getParent();
-          kblk2 = kblk2.getParent();
-        }
-      }
-    }
-
-    return new Pair<>(list1, list2);
+    return getBranch(miniStore.getByHash(block1), miniStore.getByHash(block2));
   }
 
   /**
@@ -274,13 +365,20 @@ public class KhaosDatabase extends TronDatabase {
   @Deprecated
   public Pair<LinkedList<BlockCapsule>, LinkedList<BlockCapsule>> getBranch(
       BlockId block1, BlockId block2) {
+    return getBranch(miniStore.getByHash(block1), miniStore.getByHash(block2));
+  }
+
+  /**
+   * walk up from both blocks, the higher one first, until they meet. Both lists are empty when
+   * one of the blocks is unknown or the branches meet below the blocks kept.
+   */
+  private Pair<LinkedList<BlockCapsule>, LinkedList<BlockCapsule>> getBranch(
+      KhaosBlock kblk1, KhaosBlock kblk2) {
     LinkedList<BlockCapsule> list1 = new LinkedList<>();
     LinkedList<BlockCapsule> list2 = new LinkedList<>();
-    KhaosBlock kblk1 = miniStore.getByHash(block1);
-    KhaosBlock kblk2 = miniStore.getByHash(block2);
 
     if (kblk1 != null && kblk2 != null) {
-      while (!Objects.equals(kblk1, kblk2)) {
+      while (!kblk1.equals(kblk2)) {
         if (kblk1.num > kblk2.num) {
           list1.add(kblk1.blk);
           kblk1 = kblk1.getParent();
@@ -293,6 +391,9 @@ public class KhaosDatabase extends TronDatabase {
           kblk1 = kblk1.getParent();
           kblk2 = kblk2.getParent();
         }
+        if (kblk1 == null || kblk2 == null) {
+          return new Pair<>(new LinkedList<>(), new LinkedList<>());
+        }
       }
     }
 
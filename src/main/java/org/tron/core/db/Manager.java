@@ -1,6 +1,5 @@
 package org.tron.core.db;
 
-import static org.tron.core.config.Parameter.ChainConstant.SOLIDIFIED_THRESHOLD;
 import static org.tron.core.config.Parameter.ChainConstant.WITNESS_PAY_PER_BLOCK;
 import static org.tron.core.config.Parameter.NodeConstant.MAX_TRANSACTION_PENDING;
 import static org.tron.protos.Protocol.Transaction.Contract.ContractType.TransferAssetContract;
@@ -8,15 +7,16 @@ import static org.tron.protos.Protocol.Transaction.Contract.ContractType.Transfe
 
 import com.google.common.collect.Lists;
 import com.google.protobuf.ByteString;
+import java.io.File;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
-import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -28,6 +28,7 @@ import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
 import org.joda.time.DateTime;
 import org.spongycastle.util.encoders.Hex;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -46,6 +47,7 @@ import org.tron.core.capsule.AccountCapsule;
 import org.tron.core.capsule.AssetIssueCapsule;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.capsule.BlockHeaderCapsule;
 import org.tron.core.capsule.BytesCapsule;
 import org.tron.core.capsule.TransactionCapsule;
 import org.tron.core.capsule.TransactionResultCapsule;
@@ -55,6 +57,7 @@ import org.tron.core.config.Parameter.ChainConstant;
 import org.tron.core.config.args.Args;
 import org.tron.core.config.args.GenesisBlock;
 import org.tron.core.db.AbstractRevokingStore.Dialog;
+import org.tron.core.db.snapshot.SnapshotImporter;
 import org.tron.core.exception.BadItemException;
 import org.tron.core.exception.BalanceInsufficientException;
 import org.tron.core.exception.ContractExeException;
@@ -64,6 +67,7 @@ import org.tron.core.exception.HeaderNotFound;
 import org.tron.core.exception.HighFreqException;
 import org.tron.core.exception.ItemNotFoundException;
 import org.tron.core.exception.RevokingStoreIllegalStateException;
+import org.tron.core.exception.SnapshotException;
 import org.tron.core.exception.TaposException;
 import org.tron.core.exception.TooBigTransactionException;
 import org.tron.core.exception.TransactionExpirationException;
@@ -80,6 +84,8 @@ import org.tron.protos.Protocol.Transaction;
 @Component
 public class Manager {
 
+  private static final long READ_VIEW_CLOSE_TIMEOUT = 5000;
+
   // db store
   @Autowired
   private AccountStore accountStore;
@@ -88,8 +94,12 @@ public class Manager {
   @Autowired
   private BlockStore blockStore;
   @Autowired
+  private BlockHeaderStore blockHeaderStore;
+  @Autowired
   private UtxoStore utxoStore;
   @Autowired
+  private PrunedTransactionStore prunedTransactionStore;
+  @Autowired
   private WitnessStore witnessStore;
   @Autowired
   private AssetIssueStore assetIssueStore;
@@ -105,6 +115,8 @@ public class Manager {
   private RecentBlockStore recentBlockStore;
   @Autowired
   private VotesStore votesStore;
+  @Autowired
+  private VoteTallyStore voteTallyStore;
 
   // for network
   @Autowired
@@ -117,6 +129,10 @@ public class Manager {
 
   private BlockCapsule genesisBlock;
   private RevokingDatabase revokingStore;
+  private HistoryPruner historyPruner;
+  private RecentBlockCache recentBlockCache = new RecentBlockCache();
+  private volatile ReadView readView;
+  private final Object readViewLock = new Object();
 
   @Getter
   private DialogOptional dialog = DialogOptional.instance();
@@ -134,6 +150,8 @@ public class Manager {
   private WitnessController witnessController;
 
   private ExecutorService validateSignService;
+  // the transactions of peers, so they never queue before the block signatures
+  private ExecutorService validateTrxSignService;
 
   public WitnessStore getWitnessStore() {
     return this.witnessStore;
@@ -163,6 +181,10 @@ public class Manager {
     return this.votesStore;
   }
 
+  public VoteTallyStore getVoteTallyStore() {
+    return this.voteTallyStore;
+  }
+
   public List<TransactionCapsule> getPendingTransactions() {
     return this.pendingTransactions;
   }
@@ -191,8 +213,13 @@ public class Manager {
   }
 
   public BlockCapsule getHead() throws HeaderNotFound {
+    BlockCapsule head = recentBlockCache.getHead();
+    if (head != null) {
+      return head;
+    }
     List<BlockCapsule> blocks = getBlockStore().getBlockByLatestNum(1);
     if (CollectionUtils.isNotEmpty(blocks)) {
+      recentBlockCache.put(blocks.get(0));
       return blocks.get(0);
     } else {
       logger.info("Header block Not Found");
@@ -255,6 +282,7 @@ public class Manager {
     WitnessScheduleStore.destroy();
     BlockIndexStore.destroy();
     AccountIndexStore.destroy();
+    VoteTallyStore.destroy();
   }
 
   @PostConstruct
@@ -263,6 +291,8 @@ public class Manager {
     revokingStore.disable();
     this.setWitnessController(WitnessController.createInstance(this));
     this.pendingTransactions = Collections.synchronizedList(Lists.newArrayList());
+    this.initSnapshot();
+    this.blockHeaderStore.fillFrom(blockStore);
     this.initGenesis();
     try {
       this.khaosDb.start(getBlockById(getDynamicPropertiesStore().getLatestBlockHeaderHash()));
@@ -284,9 +314,50 @@ public class Manager {
       System.exit(1);
     }
     revokingStore.enable();
+    this.publishReadView();
+    this.initHistoryPruner();
 
     validateSignService = Executors
         .newFixedThreadPool(Args.getInstance().getValidateSignThreadNum());
+    validateTrxSignService = Executors
+        .newFixedThreadPool(Args.getInstance().getValidateSignThreadNum());
+  }
+
+  /**
+   * capture the committed state of the stores for readers. Called with the manager lock held
+   * right after a block is committed, before the pending transactions are applied again.
+   */
+  private void publishReadView() {
+    ReadView old;
+    synchronized (readViewLock) {
+      old = readView;
+      readView = new ReadView(this);
+    }
+    if (old != null) {
+      old.close();
+    }
+  }
+
+  /**
+   * a read view of the state after the last committed block. The caller has to close it. The
+   * manager releases its reference to a view only after replacing it under the lock, so the
+   * current view can always be retained.
+   */
+  public ReadView openReadView() {
+    synchronized (readViewLock) {
+      if (readView == null || !readView.retain()) {
+        throw new IllegalStateException("stores are not open");
+      }
+      return readView;
+    }
+  }
+
+  /**
+   * id of the head block of the current read view, null before the stores are open.
+   */
+  public Sha256Hash getReadViewHeadBlockId() {
+    ReadView view = readView;
+    return view == null ? null : view.getHeadBlockId();
   }
 
   public BlockId getGenesisBlockId() {
@@ -297,6 +368,41 @@ public class Manager {
     return genesisBlock;
   }
 
+  /**
+   * prune old history if a retention window is configured. Solidity nodes index the whole history,
+   * so they keep it.
+   */
+  private void initHistoryPruner() {
+    long retentionBlocks = Args.getInstance().getStorage().getPruneRetentionBlocks();
+    if (retentionBlocks > 0 && !Args.getInstance().isSolidityNode()) {
+      historyPruner = new HistoryPruner(this, retentionBlocks);
+      historyPruner.start();
+    }
+  }
+
+  /**
+   * bootstrap an empty database from a state snapshot.
+   */
+  private void initSnapshot() {
+    String directory = Args.getInstance().getSnapshotImportDirectory();
+    if (StringUtils.isEmpty(directory)) {
+      return;
+    }
+    if (this.hasBlocks()) {
+      logger.info("database is not empty, skip importing snapshot {}", directory);
+      return;
+    }
+    try {
+      new SnapshotImporter(this).importFrom(new File(directory));
+    } catch (SnapshotException e) {
+      logger.error("import snapshot failed", e);
+      logger.error(
+          "Please delete database directory({}) and restart",
+          Args.getInstance().getOutputDirectory());
+      System.exit(1);
+    }
+  }
+
   /**
    * init genesis block.
    */
@@ -315,6 +421,7 @@ public class Manager {
         Args.getInstance().setChainId(this.genesisBlock.getBlockId().toString());
         // this.pushBlock(this.genesisBlock);
         blockStore.put(this.genesisBlock.getBlockId().getBytes(), this.genesisBlock);
+        blockHeaderStore.put(this.genesisBlock);
         this.blockIndexStore.put(this.genesisBlock.getBlockId());
 
         logger.info("save block: " + this.genesisBlock);
@@ -423,24 +530,23 @@ public class Manager {
         .getRawData().getRefBlockHash().toByteArray();
     byte[] refBlockNumBytes = transactionCapsule.getInstance()
         .getRawData().getRefBlockBytes().toByteArray();
-    try {
-      byte[] blockHash = this.recentBlockStore.get(refBlockNumBytes).getData();
-      if (Arrays.equals(blockHash, refBlockHash)) {
-        return;
-      } else {
-        logger.error(
-            "Tapos failed, different block hash, {}, {} , recent block {}, solid block {} head block {}",
-            ByteArray.toLong(refBlockNumBytes), Hex.toHexString(refBlockHash),
-            Hex.toHexString(blockHash),
-            getSolidBlockId().getString(), getHeadBlockId().getString());
-        throw new TaposException("tapos failed");
-      }
-    } catch (ItemNotFoundException e) {
+    TaposTable taposTable = this.recentBlockStore.getTaposTable();
+    if (taposTable.matches(refBlockNumBytes, refBlockHash)) {
+      return;
+    }
+    byte[] blockHash = taposTable.get(refBlockNumBytes);
+    if (blockHash != null) {
+      logger.error(
+          "Tapos failed, different block hash, {}, {} , recent block {}, solid block {} head block {}",
+          ByteArray.toLong(refBlockNumBytes), Hex.toHexString(refBlockHash),
+          Hex.toHexString(blockHash),
+          getSolidBlockId().getString(), getHeadBlockId().getString());
+    } else {
       logger.error("Tapos failed, block not found, ref block {}, {} , solid block {} head block {}",
           ByteArray.toLong(refBlockNumBytes), Hex.toHexString(refBlockHash),
           getSolidBlockId().getString(), getHeadBlockId().getString());
-      throw new TaposException("tapos failed");
     }
+    throw new TaposException("tapos failed");
   }
 
   void validateCommon(TransactionCapsule transactionCapsule)
@@ -609,6 +715,8 @@ public class Manager {
       logger.info(e.getMessage(), e);
     }
     logger.info("erase block:" + oldHeadBlock);
+    recentBlockCache.pop(oldHeadBlock.getBlockId());
+    witnessController.invalidateSchedule();
     khaosDb.pop();
     popedTransactions.addAll(oldHeadBlock.getTransactions());
   }
@@ -617,13 +725,25 @@ public class Manager {
       throws ContractValidateException, ContractExeException, ValidateSignatureException, ValidateBandwidthException, TransactionExpirationException, TooBigTransactionException, DupTransactionException, TaposException {
     processBlock(block);
     this.blockStore.put(block.getBlockId().getBytes(), block);
+    this.blockHeaderStore.put(block);
     this.blockIndexStore.put(block.getBlockId());
+    recentBlockCache.put(block);
   }
 
-  private void switchFork(BlockCapsule newHead) {
+  /**
+   * false if the branches do not meet in the khaos database any more, the byte bound may have
+   * dropped the fork point. The khaos head goes back to the current head then.
+   */
+  private boolean switchFork(BlockCapsule newHead) {
     Pair<LinkedList<BlockCapsule>, LinkedList<BlockCapsule>> binaryTree =
         khaosDb.getBranch(
             newHead.getBlockId(), getDynamicPropertiesStore().getLatestBlockHeaderHash());
+    if (binaryTree.getKey().isEmpty()) {
+      logger.error("can not switch to the fork of block {}, its fork point is not kept",
+          newHead.getBlockId());
+      khaosDb.resetHead(getDynamicPropertiesStore().getLatestBlockHeaderHash());
+      return false;
+    }
 
     if (CollectionUtils.isNotEmpty(binaryTree.getValue())) {
       while (!getDynamicPropertiesStore()
@@ -657,6 +777,7 @@ public class Manager {
             } catch (ContractExeException e) {
               logger.debug(e.getMessage(), e);
             } catch (RevokingStoreIllegalStateException e) {
+              recentBlockCache.remove(item.getBlockId());
               logger.debug(e.getMessage(), e);
             } catch (TaposException e) {
               logger.debug(e.getMessage(), e);
@@ -668,8 +789,10 @@ public class Manager {
               logger.debug(e.getMessage(), e);
             }
           });
-      return;
+      // a revoked block may have changed the schedule
+      witnessController.invalidateSchedule();
     }
+    return true;
   }
 
   // TODO: if error need to rollback.
@@ -753,7 +876,10 @@ public class Manager {
                   + ", khaosDb unlinkMiniStore size: "
                   + khaosDb.getMiniUnlinkedStore().size());
 
-          switchFork(newBlock);
+          if (!switchFork(newBlock)) {
+            return;
+          }
+          publishReadView();
           logger.info("save block: " + newBlock);
 
           logger.warn(
@@ -779,10 +905,15 @@ public class Manager {
         try (Dialog tmpDialog = revokingStore.buildDialog()) {
           applyBlock(newBlock);
           tmpDialog.commit();
+          publishReadView();
         } catch (RevokingStoreIllegalStateException e) {
+          recentBlockCache.remove(newBlock.getBlockId());
+          witnessController.invalidateSchedule();
           logger.error(e.getMessage(), e);
         } catch (Throwable throwable) {
           logger.error(throwable.getMessage(), throwable);
+          recentBlockCache.remove(newBlock.getBlockId());
+          witnessController.invalidateSchedule();
           khaosDb.removeBlk(block.getBlockId());
           throw throwable;
         }
@@ -861,24 +992,13 @@ public class Manager {
    * @param blockHash blockHash
    */
   public boolean containBlock(final Sha256Hash blockHash) {
-    try {
-      return this.khaosDb.containBlockInMiniStore(blockHash)
-          || blockStore.get(blockHash.getBytes()) != null;
-    } catch (ItemNotFoundException e) {
-      return false;
-    } catch (BadItemException e) {
-      return false;
-    }
+    return this.khaosDb.containBlockInMiniStore(blockHash)
+        || blockHeaderStore.has(blockHash.getBytes());
   }
 
   public boolean containBlockInMainChain(BlockId blockId) {
-    try {
-      return blockStore.get(blockId.getBytes()) != null;
-    } catch (ItemNotFoundException e) {
-      return false;
-    } catch (BadItemException e) {
-      return false;
-    }
+    return recentBlockCache.getById(blockId) != null
+        || blockHeaderStore.has(blockId.getBytes());
   }
 
   public void setBlockReference(TransactionCapsule trans) {
@@ -892,17 +1012,36 @@ public class Manager {
    */
   public BlockCapsule getBlockById(final Sha256Hash hash)
       throws BadItemException, ItemNotFoundException {
+    BlockCapsule block = recentBlockCache.getById(hash);
+    if (block != null) {
+      return block;
+    }
     return this.khaosDb.containBlock(hash)
         ? this.khaosDb.getBlock(hash)
         : blockStore.get(hash.getBytes());
   }
 
 
+  /**
+   * Get the header of a block by id, without reading the block body from disk.
+   */
+  public BlockHeaderCapsule getBlockHeaderById(final Sha256Hash hash)
+      throws BadItemException, ItemNotFoundException {
+    BlockCapsule block = recentBlockCache.getById(hash);
+    if (block == null && this.khaosDb.containBlock(hash)) {
+      block = this.khaosDb.getBlock(hash);
+    }
+    if (block != null) {
+      return new BlockHeaderCapsule(block.getInstance().getBlockHeader());
+    }
+    return blockHeaderStore.get(hash.getBytes());
+  }
+
   /**
    * judge has blocks.
    */
   public boolean hasBlocks() {
-    return blockStore.dbSource.allKeys().size() > 0 || this.khaosDb.hasData();
+    return blockStore.getSource().allKeys().size() > 0 || this.khaosDb.hasData();
   }
 
   /**
@@ -951,6 +1090,10 @@ public class Manager {
   }
 
   public BlockCapsule getBlockByNum(final long num) throws ItemNotFoundException, BadItemException {
+    BlockCapsule block = recentBlockCache.getByNum(num);
+    if (block != null) {
+      return block;
+    }
     return getBlockById(getBlockIdByNum(num));
   }
 
@@ -1069,6 +1212,10 @@ public class Manager {
     return this.blockStore;
   }
 
+  public BlockHeaderStore getBlockHeaderStore() {
+    return this.blockHeaderStore;
+  }
+
   private void setBlockStore(final BlockStore blockStore) {
     this.blockStore = blockStore;
   }
@@ -1077,6 +1224,10 @@ public class Manager {
     return this.utxoStore;
   }
 
+  public PrunedTransactionStore getPrunedTransactionStore() {
+    return this.prunedTransactionStore;
+  }
+
   private void setUtxoStore(final UtxoStore utxoStore) {
     this.utxoStore = utxoStore;
   }
@@ -1090,7 +1241,8 @@ public class Manager {
       DupTransactionException, TransactionExpirationException {
     // todo set revoking db max size.
 
-    for (TransactionCapsule transactionCapsule : block.getTransactions()) {
+    for (int i = 0; i < block.getTransactionCount(); i++) {
+      TransactionCapsule transactionCapsule = block.getTransaction(i);
       if (block.generatedByMyself) {
         transactionCapsule.setVerified(true);
       }
@@ -1123,27 +1275,13 @@ public class Manager {
    * update the latest solidified block.
    */
   public void updateLatestSolidifiedBlock() {
-    List<Long> numbers =
-        witnessController
-            .getActiveWitnesses()
-            .stream()
-            .map(address -> witnessController.getWitnesseByAddress(address).getLatestBlockNum())
-            .sorted()
-            .collect(Collectors.toList());
-
-    long size = witnessController.getActiveWitnesses().size();
-    int solidifiedPosition = (int) (size * (1 - SOLIDIFIED_THRESHOLD));
-    if (solidifiedPosition < 0) {
-      logger.warn(
-          "updateLatestSolidifiedBlock error, solidifiedPosition:{},wits.size:{}",
-          solidifiedPosition,
-          size);
+    long latestSolidifiedBlockNum = witnessController.getSolidifiedBlockNum();
+    if (latestSolidifiedBlockNum < 0) {
+      logger.warn("updateLatestSolidifiedBlock error, no active witness");
       return;
     }
-    long latestSolidifiedBlockNum = numbers.get(solidifiedPosition);
-    //if current value is less than the previous value，keep the previous value.
-    if (latestSolidifiedBlockNum < getDynamicPropertiesStore().getLatestSolidifiedBlockNum()) {
-      logger.warn("latestSolidifiedBlockNum = 0,LatestBlockNum:{}", numbers);
+    //if current value is not more than the previous value，keep the previous value.
+    if (latestSolidifiedBlockNum <= getDynamicPropertiesStore().getLatestSolidifiedBlockNum()) {
       return;
     }
     getDynamicPropertiesStore().saveLatestSolidifiedBlockNum(latestSolidifiedBlockNum);
@@ -1205,6 +1343,7 @@ public class Manager {
     }
 
     this.getWitnessStore().put(witnessCapsule.getAddress().toByteArray(), witnessCapsule);
+    witnessController.updateLatestBlockNum(block);
 
     AccountCapsule sun = accountStore.getSun();
     try {
@@ -1250,6 +1389,10 @@ public class Manager {
     this.assetIssueStore = assetIssueStore;
   }
 
+  public BlockIndexStore getBlockIndexStore() {
+    return this.blockIndexStore;
+  }
+
   public void setBlockIndexStore(BlockIndexStore indexStore) {
     this.blockIndexStore = indexStore;
   }
@@ -1262,10 +1405,32 @@ public class Manager {
     this.accountIndexStore = indexStore;
   }
 
+  public RecentBlockStore getRecentBlockStore() {
+    return this.recentBlockStore;
+  }
+
   public void closeAllStore() {
     System.err.println("******** begin to close db ********");
+    if (historyPruner != null) {
+      historyPruner.stop();
+    }
+    ReadView view;
+    synchronized (readViewLock) {
+      view = readView;
+      readView = null;
+    }
+    if (view != null) {
+      try {
+        if (!view.closeAndAwait(READ_VIEW_CLOSE_TIMEOUT)) {
+          logger.warn("close the stores while readers still hold a read view");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
     closeOneStore(accountStore);
     closeOneStore(blockStore);
+    closeOneStore(blockHeaderStore);
     closeOneStore(blockIndexStore);
     closeOneStore(accountIndexStore);
     closeOneStore(witnessStore);
@@ -1274,6 +1439,8 @@ public class Manager {
     closeOneStore(dynamicPropertiesStore);
     closeOneStore(transactionStore);
     closeOneStore(utxoStore);
+    closeOneStore(prunedTransactionStore);
+    closeOneStore(voteTallyStore);
     System.err.println("******** end to close db ********");
   }
 
@@ -1305,36 +1472,31 @@ public class Manager {
 
   private static class ValidateSignTask implements Callable<Boolean> {
 
-    private TransactionCapsule trx;
-    private CountDownLatch countDownLatch;
+    private List<TransactionCapsule> trxs;
 
-    ValidateSignTask(TransactionCapsule trx, CountDownLatch countDownLatch) {
-      this.trx = trx;
-      this.countDownLatch = countDownLatch;
+    ValidateSignTask(List<TransactionCapsule> trxs) {
+      this.trxs = trxs;
     }
 
     @Override
     public Boolean call() throws ValidateSignatureException {
-      trx.validateSignature();
-      countDownLatch.countDown();
+      TransactionCapsule.validateSignatures(trxs);
       return true;
     }
   }
 
+  /**
+   * validate the transaction signatures of the block in parallel. Every thread gets a slice of the
+   * transactions and recovers their signers in one batch.
+   */
   public synchronized void preValidateTransactionSign(BlockCapsule block)
       throws InterruptedException, ValidateSignatureException {
-    logger.info("PreValidate Transaction Sign, size:" + block.getTransactions().size()
-        + ",num:" + block.getNum());
-    int transSize = block.getTransactions().size();
-    CountDownLatch countDownLatch = new CountDownLatch(transSize);
-    List<Future<Boolean>> futures = new ArrayList<>(transSize);
-
-    for (TransactionCapsule transaction : block.getTransactions()) {
-      Future<Boolean> future = validateSignService
-          .submit(new ValidateSignTask(transaction, countDownLatch));
-      futures.add(future);
+    int transSize = block.getTransactionCount();
+    logger.info("PreValidate Transaction Sign, size:" + transSize + ",num:" + block.getNum());
+    List<Future<Boolean>> futures = new ArrayList<>();
+    for (List<TransactionCapsule> slice : sliceForSignTasks(block.getTransactions())) {
+      futures.add(validateSignService.submit(new ValidateSignTask(slice)));
     }
-    countDownLatch.await();
 
     for (Future<Boolean> future : futures) {
       try {
@@ -1344,4 +1506,93 @@ public class Manager {
       }
     }
   }
+
+  /**
+   * one slice of the transactions per validate sign thread.
+   */
+  private static List<List<TransactionCapsule>> sliceForSignTasks(
+      List<TransactionCapsule> transactions) {
+    int transSize = transactions.size();
+    int threads = Math.max(1, Args.getInstance().getValidateSignThreadNum());
+    int sliceSize = Math.max(1, (transSize + threads - 1) / threads);
+    List<List<TransactionCapsule>> slices = new ArrayList<>(threads);
+    for (int from = 0; from < transSize; from += sliceSize) {
+      slices.add(transactions.subList(from, Math.min(from + sliceSize, transSize)));
+    }
+    return slices;
+  }
+
+  /**
+   * validate the signatures of the transactions in parallel. A slice with a bad signature is
+   * checked again one transaction at a time to find which ones are bad. They run on a pool of
+   * their own: preValidateTransactionSign waits for its tasks holding the manager lock.
+   *
+   * @return the transactions with valid signatures, in their order
+   */
+  private List<TransactionCapsule> validateSignatures(List<TransactionCapsule> transactions,
+      Map<TransactionCapsule, Exception> failures) throws InterruptedException {
+    List<List<TransactionCapsule>> slices = sliceForSignTasks(transactions);
+    List<Future<Boolean>> futures = new ArrayList<>(slices.size());
+    for (List<TransactionCapsule> slice : slices) {
+      futures.add(validateTrxSignService.submit(new ValidateSignTask(slice)));
+    }
+
+    List<TransactionCapsule> verified = new ArrayList<>(transactions.size());
+    for (int i = 0; i < slices.size(); i++) {
+      try {
+        futures.get(i).get();
+        verified.addAll(slices.get(i));
+      } catch (ExecutionException e) {
+        for (TransactionCapsule trx : slices.get(i)) {
+          try {
+            if (!trx.validateSignature()) {
+              throw new ValidateSignatureException("trans sig validate failed");
+            }
+            verified.add(trx);
+          } catch (ValidateSignatureException ve) {
+            failures.put(trx, ve);
+          }
+        }
+      }
+    }
+    return verified;
+  }
+
+  /**
+   * push a batch of transactions. The signatures are validated in parallel before the lock is
+   * taken, then the valid transactions are applied to the pending state in one locked section.
+   * Every transaction still gets a dialog of its own, merged into the pending one, so a failing
+   * transaction is rolled back alone.
+   *
+   * @return the transactions that were not pushed, with the reason
+   */
+  public Map<TransactionCapsule, Exception> pushTransactionBatch(
+      List<TransactionCapsule> transactions) throws InterruptedException {
+    logger.info("push {} transactions", transactions.size());
+    Map<TransactionCapsule, Exception> failures = new LinkedHashMap<>();
+    List<TransactionCapsule> verified = validateSignatures(transactions, failures);
+    if (verified.isEmpty()) {
+      return failures;
+    }
+
+    synchronized (this) {
+      if (!dialog.valid()) {
+        dialog.setValue(revokingStore.buildDialog());
+      }
+
+      for (TransactionCapsule trx : verified) {
+        try (RevokingStore.Dialog tmpDialog = revokingStore.buildDialog()) {
+          processTransaction(trx);
+          pendingTransactions.add(trx);
+          tmpDialog.merge();
+        } catch (RevokingStoreIllegalStateException e) {
+          logger.debug(e.getMessage(), e);
+          failures.put(trx, e);
+        } catch (TronException | TaposException e) {
+          failures.put(trx, e);
+        }
+      }
+    }
+    return failures;
+  }
 }
@@ -0,0 +1,51 @@
+package org.tron.core.db;
+
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.tron.common.utils.ByteArray;
+
+/**
+ * The block number of every transaction deleted by history pruning, keyed by transaction id. A
+ * few bytes per transaction let a lookup tell a pruned transaction from an unknown one.
+ */
+@Component
+public class PrunedTransactionStore extends TronDatabase<Long> {
+
+  @Autowired
+  private PrunedTransactionStore(@Qualifier("pruned-trans") String dbName) {
+    super(dbName);
+  }
+
+  @Override
+  public void put(byte[] key, Long blockNum) {
+    dbSource.putData(key, ByteArray.fromLong(blockNum));
+  }
+
+  /**
+   * record the pruned transactions, transaction id to block number, in one batch.
+   */
+  public void putAll(Map<byte[], byte[]> blockNums) {
+    dbSource.updateByBatch(blockNums);
+  }
+
+  @Override
+  public void delete(byte[] key) {
+    dbSource.deleteData(key);
+  }
+
+  /**
+   * the block the transaction was pruned with, null if it was not pruned.
+   */
+  @Override
+  public Long get(byte[] key) {
+    byte[] value = dbSource.getData(key);
+    return value == null ? null : ByteArray.toLong(value);
+  }
+
+  @Override
+  public boolean has(byte[] key) {
+    return dbSource.getData(key) != null;
+  }
+}
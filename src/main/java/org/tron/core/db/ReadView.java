@@ -0,0 +1,203 @@
+package org.tron.core.db;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.ArrayUtils;
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.Snapshot;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.AssetIssueCapsule;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.WitnessCapsule;
+import org.tron.core.exception.BadItemException;
+
+/**
+ * Read-only view of the stores as they were right after a block was committed, backed by LevelDB
+ * snapshots. Blocks and transactions never change once stored under their id, so they are read
+ * live; the view pins the mutable state and which blocks are on the main chain. The manager holds
+ * one reference to the latest view; readers take their own with {@link Manager#openReadView()}
+ * and close it when done. The snapshots are released with the last reference.
+ */
+@Slf4j
+public class ReadView implements AutoCloseable {
+
+  private final Map<DbSourceInter<byte[]>, Snapshot> snapshots = new IdentityHashMap<>();
+  private final AtomicInteger references = new AtomicInteger(1);
+  private final CountDownLatch released = new CountDownLatch(1);
+  private boolean storesClosed;
+
+  private final AccountStore accountStore;
+  private final BlockStore blockStore;
+  private final BlockIndexStore blockIndexStore;
+  private final WitnessStore witnessStore;
+  private final AssetIssueStore assetIssueStore;
+  private final DynamicPropertiesStore dynamicPropertiesStore;
+
+  @Getter
+  private final long headBlockNum;
+  @Getter
+  private final Sha256Hash headBlockId;
+
+  /**
+   * capture the stores, no block may be applied meanwhile.
+   */
+  ReadView(Manager manager) {
+    accountStore = manager.getAccountStore();
+    blockStore = manager.getBlockStore();
+    blockIndexStore = manager.getBlockIndexStore();
+    witnessStore = manager.getWitnessStore();
+    assetIssueStore = manager.getAssetIssueStore();
+    dynamicPropertiesStore = manager.getDynamicPropertiesStore();
+    for (TronDatabase<?> store : new TronDatabase<?>[]{accountStore, blockIndexStore,
+        witnessStore, assetIssueStore, dynamicPropertiesStore}) {
+      LevelDbDataSourceImpl source = (LevelDbDataSourceImpl) store.getSource();
+      snapshots.put(source, source.getSnapshot());
+    }
+    headBlockNum = getLong(dynamicPropertiesStore,
+        DynamicPropertiesStore.LATEST_BLOCK_HEADER_NUMBER);
+    byte[] headHash = getData(dynamicPropertiesStore,
+        DynamicPropertiesStore.LATEST_BLOCK_HEADER_HASH);
+    headBlockId = headHash == null || headHash.length != Sha256Hash.LENGTH ? null
+        : Sha256Hash.wrap(headHash);
+  }
+
+  /**
+   * take a reference, false if the view was already released.
+   */
+  boolean retain() {
+    int count;
+    do {
+      count = references.get();
+      if (count <= 0) {
+        return false;
+      }
+    } while (!references.compareAndSet(count, count + 1));
+    return true;
+  }
+
+  /**
+   * release a reference.
+   */
+  @Override
+  public void close() {
+    if (references.decrementAndGet() == 0) {
+      release();
+    }
+  }
+
+  /**
+   * the snapshots of closed stores are gone with them, they are only released while the stores
+   * are open.
+   */
+  private synchronized void release() {
+    if (!storesClosed) {
+      snapshots.values().forEach(snapshot -> {
+        try {
+          snapshot.close();
+        } catch (IOException e) {
+          logger.warn("release snapshot failed", e);
+        }
+      });
+    }
+    released.countDown();
+  }
+
+  /**
+   * release the reference of the manager and wait for the readers to close theirs, before the
+   * stores are closed. A reader closing later does not touch the snapshots any more.
+   *
+   * @return false if readers still hold the view after the timeout
+   */
+  boolean closeAndAwait(long timeoutMillis) throws InterruptedException {
+    close();
+    try {
+      return released.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    } finally {
+      synchronized (this) {
+        storesClosed = true;
+      }
+    }
+  }
+
+  private byte[] getData(TronDatabase<?> store, byte[] key) {
+    DbSourceInter<byte[]> source = store.getSource();
+    Snapshot snapshot = snapshots.get(source);
+    return snapshot == null ? source.getData(key)
+        : ((LevelDbDataSourceImpl) source).getData(key, snapshot);
+  }
+
+  private <T> List<T> getAll(TronDatabase<?> store, Function<byte[], T> decoder) {
+    List<T> items = new ArrayList<>();
+    LevelDbDataSourceImpl source = (LevelDbDataSourceImpl) store.getSource();
+    try (DBIterator iterator = source.iterator(snapshots.get(source))) {
+      for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
+        items.add(decoder.apply(iterator.peekNext().getValue()));
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return items;
+  }
+
+  private long getLong(TronDatabase<?> store, byte[] key) {
+    byte[] value = getData(store, key);
+    return ArrayUtils.isEmpty(value) ? 0 : ByteArray.toLong(value);
+  }
+
+  public AccountCapsule getAccount(byte[] address) {
+    byte[] value = getData(accountStore, address);
+    return ArrayUtils.isEmpty(value) ? null : new AccountCapsule(value);
+  }
+
+  /**
+   * the block with the id, null if not found.
+   */
+  public BlockCapsule getBlockById(byte[] id) throws BadItemException {
+    byte[] value = getData(blockStore, id);
+    return ArrayUtils.isEmpty(value) ? null : new BlockCapsule(value);
+  }
+
+  /**
+   * the block of the main chain with the num, null if not found.
+   */
+  public BlockCapsule getBlockByNum(long num) throws BadItemException {
+    if (num > headBlockNum) {
+      return null;
+    }
+    byte[] id = getData(blockIndexStore, ByteArray.fromLong(num));
+    return ArrayUtils.isEmpty(id) ? null : getBlockById(id);
+  }
+
+  public BlockCapsule getHead() throws BadItemException {
+    return getBlockByNum(headBlockNum);
+  }
+
+  public List<WitnessCapsule> getAllWitnesses() {
+    return getAll(witnessStore, WitnessCapsule::new);
+  }
+
+  public List<AssetIssueCapsule> getAllAssetIssues() {
+    return getAll(assetIssueStore, AssetIssueCapsule::new);
+  }
+
+  public long getNextMaintenanceTime() {
+    return getLong(dynamicPropertiesStore, DynamicPropertiesStore.NEXT_MAINTENANCE_TIME);
+  }
+
+  public long getLatestPrunedBlockNum() {
+    return getLong(dynamicPropertiesStore, DynamicPropertiesStore.LATEST_PRUNED_BLOCK_NUM);
+  }
+}
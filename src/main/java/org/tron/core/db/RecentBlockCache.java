@@ -0,0 +1,111 @@
+package org.tron.core.db;
+
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.capsule.BlockCapsule;
+
+/**
+ * Ring of the most recent blocks of the main chain, slotted by block num. Block ids start with
+ * the block num, so a lookup by id reads one slot as well. The manager puts every applied block
+ * and pops every erased one, so the ring always follows the head.
+ */
+public class RecentBlockCache {
+
+  public static final int DEFAULT_CAPACITY = 128;
+
+  private final BlockCapsule[] blocks;
+  private long headNum = -1;
+
+  public RecentBlockCache() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public RecentBlockCache(int capacity) {
+    this.blocks = new BlockCapsule[capacity];
+  }
+
+  private int slot(long num) {
+    return (int) (num % blocks.length);
+  }
+
+  /**
+   * put the new head block.
+   */
+  public synchronized void put(BlockCapsule block) {
+    long num = block.getNum();
+    // blocks above the new head are no longer on the main chain
+    for (long i = Math.max(num + 1, headNum - blocks.length + 1); i <= headNum; i++) {
+      blocks[slot(i)] = null;
+    }
+    blocks[slot(num)] = block;
+    headNum = num;
+  }
+
+  /**
+   * remove the head block, erased from the main chain.
+   */
+  public synchronized void pop(Sha256Hash blockId) {
+    if (headNum < 0 || !contains(blocks[slot(headNum)], headNum, blockId)) {
+      remove(blockId);
+      return;
+    }
+    blocks[slot(headNum)] = null;
+    headNum--;
+  }
+
+  /**
+   * remove the block, e.g. when applying it was revoked.
+   */
+  public synchronized void remove(Sha256Hash blockId) {
+    long num = getNum(blockId);
+    if (num < 0 || !contains(blocks[slot(num)], num, blockId)) {
+      return;
+    }
+    blocks[slot(num)] = null;
+    if (num == headNum) {
+      headNum = -1;
+    }
+  }
+
+  public synchronized void clear() {
+    for (int i = 0; i < blocks.length; i++) {
+      blocks[i] = null;
+    }
+    headNum = -1;
+  }
+
+  /**
+   * the head block, null if unknown.
+   */
+  public synchronized BlockCapsule getHead() {
+    return headNum < 0 ? null : getByNum(headNum);
+  }
+
+  /**
+   * the block of the main chain with the num, null if not cached.
+   */
+  public synchronized BlockCapsule getByNum(long num) {
+    if (num < 0 || num > headNum || num <= headNum - blocks.length) {
+      return null;
+    }
+    BlockCapsule block = blocks[slot(num)];
+    return block != null && block.getNum() == num ? block : null;
+  }
+
+  /**
+   * the block with the id, null if not cached.
+   */
+  public synchronized BlockCapsule getById(Sha256Hash blockId) {
+    long num = getNum(blockId);
+    BlockCapsule block = getByNum(num);
+    return contains(block, num, blockId) ? block : null;
+  }
+
+  private static long getNum(Sha256Hash blockId) {
+    return ByteArray.toLong(ByteArray.subArray(blockId.getBytes(), 0, 8));
+  }
+
+  private static boolean contains(BlockCapsule block, long num, Sha256Hash blockId) {
+    return block != null && block.getNum() == num && block.getBlockId().equals(blockId);
+  }
+}
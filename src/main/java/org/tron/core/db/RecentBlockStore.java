@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
 import org.tron.core.capsule.BytesCapsule;
+import org.tron.core.config.args.Args;
 import org.tron.core.exception.ItemNotFoundException;
 
 @Component
@@ -12,7 +13,20 @@ public class RecentBlockStore extends TronStoreWithRevoking<BytesCapsule> {
 
   @Autowired
   private RecentBlockStore(@Qualifier("recent-block") String dbName) {
-    super(dbName);
+    super(initTaposTable(dbName));
+  }
+
+  private static TaposTable initTaposTable(String dbName) {
+    TaposTable table = new TaposTable(Args.getInstance().getOutputDirectory(), dbName);
+    table.initDB();
+    return table;
+  }
+
+  /**
+   * the in-memory copy of the store, kept in step by every write to it.
+   */
+  public TaposTable getTaposTable() {
+    return (TaposTable) dbSource;
   }
 
   private static BlockStore instance;
@@ -28,7 +42,7 @@ public class RecentBlockStore extends TronStoreWithRevoking<BytesCapsule> {
 
   @Override
   public BytesCapsule get(byte[] key) throws ItemNotFoundException {
-    byte[] value = dbSource.getData(key);
+    byte[] value = getTaposTable().get(key);
     if (ArrayUtils.isEmpty(value)) {
       throw new ItemNotFoundException();
     }
@@ -37,7 +51,6 @@ public class RecentBlockStore extends TronStoreWithRevoking<BytesCapsule> {
 
   @Override
   public boolean has(byte[] key) {
-    byte[] value = dbSource.getData(key);
-    return null != value;
+    return null != getTaposTable().get(key);
   }
 }
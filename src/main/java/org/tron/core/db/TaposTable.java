@@ -0,0 +1,125 @@
+package org.tron.core.db;
+
+import com.google.common.primitives.Longs;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import lombok.extern.slf4j.Slf4j;
+import org.iq80.leveldb.WriteOptions;
+import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
+import org.tron.core.db.common.iterator.DBIterator;
+
+/**
+ * The LevelDB of the recent block store with all its entries mirrored in memory. The store maps
+ * the low two bytes of a block number to eight bytes of the block id, so the whole table is 65536
+ * longs. Every write goes through this source, the ones of the revoking store rolling a block back
+ * included, so the arrays always hold what the database holds, and TaPoS checks are an array
+ * lookup.
+ */
+@Slf4j
+public class TaposTable extends LevelDbDataSourceImpl {
+
+  static final int SIZE = 1 << 16;
+
+  private final AtomicLongArray references = new AtomicLongArray(SIZE);
+  private final AtomicIntegerArray present = new AtomicIntegerArray(SIZE);
+
+  public TaposTable(String parentName, String name) {
+    super(parentName, name);
+  }
+
+  @Override
+  public void initDB() {
+    super.initDB();
+    load();
+  }
+
+  private void load() {
+    for (int i = 0; i < SIZE; i++) {
+      present.set(i, 0);
+    }
+    int count = 0;
+    try (DBIterator iterator = iterator()) {
+      while (iterator.hasNext()) {
+        Entry<byte[], byte[]> entry = iterator.next();
+        set(entry.getKey(), entry.getValue());
+        count++;
+      }
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    logger.info("loaded {} tapos references", count);
+  }
+
+  /**
+   * whether the block of the reference number has the reference hash.
+   */
+  public boolean matches(byte[] refBlockBytes, byte[] refBlockHash) {
+    int index = index(refBlockBytes);
+    return index >= 0 && refBlockHash.length == Long.BYTES && present.get(index) == 1
+        && references.get(index) == Longs.fromByteArray(refBlockHash);
+  }
+
+  /**
+   * the hash bytes of the reference number, null if there are none.
+   */
+  public byte[] get(byte[] refBlockBytes) {
+    int index = index(refBlockBytes);
+    if (index < 0 || present.get(index) == 0) {
+      return null;
+    }
+    return Longs.toByteArray(references.get(index));
+  }
+
+  private static int index(byte[] key) {
+    if (key == null || key.length != 2) {
+      return -1;
+    }
+    return ((key[0] & 0xff) << 8) | (key[1] & 0xff);
+  }
+
+  private void set(byte[] key, byte[] value) {
+    int index = index(key);
+    if (index < 0) {
+      return;
+    }
+    if (value == null || value.length != Long.BYTES) {
+      present.set(index, 0);
+    } else {
+      references.set(index, Longs.fromByteArray(value));
+      present.set(index, 1);
+    }
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value) {
+    super.putData(key, value);
+    set(key, value);
+  }
+
+  @Override
+  public void putData(byte[] key, byte[] value, WriteOptions options) {
+    super.putData(key, value, options);
+    set(key, value);
+  }
+
+  @Override
+  public void deleteData(byte[] key) {
+    super.deleteData(key);
+    set(key, null);
+  }
+
+  @Override
+  public void deleteData(byte[] key, WriteOptions options) {
+    super.deleteData(key, options);
+    set(key, null);
+  }
+
+  @Override
+  public void updateByBatch(Map<byte[], byte[]> rows) {
+    super.updateByBatch(rows);
+    rows.forEach(this::set);
+  }
+}
@@ -6,6 +6,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.tron.common.storage.DbSourceInter;
 import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
 import org.tron.common.utils.Quitable;
 import org.tron.core.config.args.Args;
@@ -26,6 +27,13 @@ public abstract class TronDatabase<T> implements Iterable<Map.Entry<byte[], T>>,
     dbSource.initDB();
   }
 
+  /**
+   * keep the items in the given source, which must be initialized.
+   */
+  protected TronDatabase(LevelDbDataSourceImpl dbSource) {
+    this.dbSource = dbSource;
+  }
+
   protected TronDatabase() {
     throw new IllegalStateException("This constructor is not allowed");
   }
@@ -34,6 +42,13 @@ public abstract class TronDatabase<T> implements Iterable<Map.Entry<byte[], T>>,
     return dbSource;
   }
 
+  /**
+   * the source the items are kept in, the LevelDB unless the store plugs in another engine.
+   */
+  public DbSourceInter<byte[]> getSource() {
+    return dbSource;
+  }
+
   /**
    * reset the database.
    */
@@ -3,6 +3,7 @@ package org.tron.core.db;
 import java.util.Objects;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ArrayUtils;
+import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
 import org.tron.core.capsule.ProtoCapsule;
 import org.tron.core.db.AbstractRevokingStore.RevokingTuple;
 
@@ -15,6 +16,11 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> extends Tron
     this(dbName, RevokingStore.getInstance());
   }
 
+  protected TronStoreWithRevoking(LevelDbDataSourceImpl dbSource) {
+    super(dbSource);
+    this.revokingDatabase = RevokingStore.getInstance();
+  }
+
   // only for unit test
   protected TronStoreWithRevoking(String dbName, RevokingDatabase revokingDatabase) {
     super(dbName);
@@ -27,12 +33,12 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> extends Tron
       return;
     }
     //logger.info("Address is {}, " + item.getClass().getSimpleName() + " is {}", key, item);
-    byte[] value = dbSource.getData(key);
+    byte[] value = getSource().getData(key);
     if (ArrayUtils.isNotEmpty(value)) {
       onModify(key, value);
     }
 
-    dbSource.putData(key, item.getData());
+    getSource().putData(key, item.getData());
 
     if (ArrayUtils.isEmpty(value)) {
       onCreate(key);
@@ -42,21 +48,21 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> extends Tron
   @Override
   public void delete(byte[] key) {
     onDelete(key);
-    dbSource.deleteData(key);
+    getSource().deleteData(key);
   }
 
   /**
    * This should be called just after an object is created
    */
   private void onCreate(byte[] key) {
-    revokingDatabase.onCreate(new RevokingTuple(dbSource, key), null);
+    revokingDatabase.onCreate(new RevokingTuple(getSource(), key), null);
   }
 
   /**
    * This should be called just before an object is modified
    */
   private void onModify(byte[] key, byte[] value) {
-    revokingDatabase.onModify(new RevokingTuple(dbSource, key), value);
+    revokingDatabase.onModify(new RevokingTuple(getSource(), key), value);
   }
 
   /**
@@ -64,8 +70,8 @@ public abstract class TronStoreWithRevoking<T extends ProtoCapsule> extends Tron
    */
   private void onDelete(byte[] key) {
     byte[] value;
-    if (Objects.nonNull(value = dbSource.getData(key))) {
-      revokingDatabase.onRemove(new RevokingTuple(dbSource, key), value);
+    if (Objects.nonNull(value = getSource().getData(key))) {
+      revokingDatabase.onRemove(new RevokingTuple(getSource(), key), value);
     }
   }
 }
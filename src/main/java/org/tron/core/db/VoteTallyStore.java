@@ -0,0 +1,97 @@
+package org.tron.core.db;
+
+import com.google.common.collect.Maps;
+import com.google.protobuf.ByteString;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import org.apache.commons.lang3.ArrayUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.capsule.BytesCapsule;
+
+/**
+ * Running vote change per witness since the last maintenance, keyed by witness address. Once
+ * the tally is active the actuators update it as votes change, so the maintenance only reads one
+ * entry per witness instead of every voter in the votes store.
+ */
+@Component
+public class VoteTallyStore extends TronStoreWithRevoking<BytesCapsule> {
+
+  @Autowired
+  public VoteTallyStore(@Qualifier("vote-tally") String dbName) {
+    super(dbName);
+  }
+
+  private static VoteTallyStore instance;
+
+  public static void destroy() {
+    instance = null;
+  }
+
+  /**
+   * create fun.
+   *
+   * @param dbName the name of database
+   */
+  public static VoteTallyStore create(String dbName) {
+    if (instance == null) {
+      synchronized (VoteTallyStore.class) {
+        if (instance == null) {
+          instance = new VoteTallyStore(dbName);
+        }
+      }
+    }
+    return instance;
+  }
+
+  @Override
+  public BytesCapsule get(byte[] key) {
+    byte[] value = dbSource.getData(key);
+    return ArrayUtils.isEmpty(value) ? null : new BytesCapsule(value);
+  }
+
+  @Override
+  public boolean has(byte[] key) {
+    return null != dbSource.getData(key);
+  }
+
+  /**
+   * the vote change of the witness since the last maintenance.
+   */
+  public long getVoteCount(ByteString witness) {
+    BytesCapsule count = get(witness.toByteArray());
+    return count == null ? 0 : ByteArray.toLong(count.getData());
+  }
+
+  /**
+   * add the vote change to the witness. A change that nets out to zero is kept, the witness was
+   * still voted for in this epoch.
+   */
+  public void addVoteCount(ByteString witness, long delta) {
+    long count = getVoteCount(witness) + delta;
+    put(witness.toByteArray(), new BytesCapsule(ByteArray.fromLong(count)));
+  }
+
+  /**
+   * the vote change of every witness with votes changed since the last maintenance.
+   */
+  public Map<ByteString, Long> getAllVoteCounts() {
+    Map<ByteString, Long> counts = Maps.newHashMap();
+    Iterator<Entry<byte[], byte[]>> iterator = dbSource.iterator();
+    while (iterator.hasNext()) {
+      Entry<byte[], byte[]> entry = iterator.next();
+      counts.put(ByteString.copyFrom(entry.getKey()), ByteArray.toLong(entry.getValue()));
+    }
+    return counts;
+  }
+
+  /**
+   * remove the counted changes, revocably unlike a reset.
+   */
+  public void clear(Iterable<ByteString> witnesses) {
+    witnesses.forEach(witness -> delete(witness.toByteArray()));
+  }
+}
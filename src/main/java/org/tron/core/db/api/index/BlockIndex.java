@@ -64,7 +64,7 @@ public class BlockIndex extends AbstractIndex<BlockCapsule, Block> {
         attribute("block id",
             bytes -> {
               Block block = getObject(bytes);
-              return Sha256Hash.of(block.getBlockHeader().toByteArray()).toString();
+              return Sha256Hash.of(block.getBlockHeader()).toString();
             });
     Block_NUMBER =
         attribute("block number",
@@ -77,7 +77,7 @@ public class BlockIndex extends AbstractIndex<BlockCapsule, Block> {
             bytes -> {
               Block block = getObject(bytes);
               return block.getTransactionsList().stream()
-                  .map(t -> Sha256Hash.of(t.getRawData().toByteArray()).toString())
+                  .map(t -> Sha256Hash.of(t.getRawData()).toString())
                   .collect(Collectors.toList());
             });
     WITNESS_ID =
@@ -0,0 +1,72 @@
+package org.tron.core.db.snapshot;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Map.Entry;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.db.snapshot.SnapshotManifest.Chunk;
+import org.tron.core.exception.SnapshotException;
+
+/**
+ * Reads back the entries of a chunk written by {@link SnapshotChunkWriter}.
+ */
+public class SnapshotChunkReader implements Closeable {
+
+  private final Chunk chunk;
+  private final DataInputStream in;
+  private long read = 0;
+
+  public SnapshotChunkReader(File directory, Chunk chunk) throws IOException {
+    this.chunk = chunk;
+    this.in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(new File(directory, chunk.getFileName()))));
+  }
+
+  /**
+   * check the chunk file against the checksum recorded in the manifest.
+   */
+  public static void verify(File directory, Chunk chunk) throws SnapshotException {
+    File file = new File(directory, chunk.getFileName());
+    MessageDigest digest = Sha256Hash.newDigest();
+    try (InputStream in = new DigestInputStream(new FileInputStream(file), digest)) {
+      byte[] buffer = new byte[64 * 1024];
+      while (in.read(buffer) != -1) {
+        // digest is updated while reading
+      }
+      String checksum = Sha256Hash.wrap(digest.digest()).toString();
+      if (!checksum.equals(chunk.getChecksum())) {
+        throw new SnapshotException(
+            "checksum mismatch of " + file + ", expect " + chunk.getChecksum() + ", got "
+                + checksum);
+      }
+    } catch (IOException e) {
+      throw new SnapshotException("can not read " + file, e);
+    }
+  }
+
+  public boolean hasNext() {
+    return read < chunk.getCount();
+  }
+
+  public Entry<byte[], byte[]> next() throws IOException {
+    byte[] key = new byte[in.readInt()];
+    in.readFully(key);
+    byte[] value = new byte[in.readInt()];
+    in.readFully(value);
+    read++;
+    return new SimpleEntry<>(key, value);
+  }
+
+  @Override
+  public void close() throws IOException {
+    in.close();
+  }
+}
@@ -0,0 +1,81 @@
+package org.tron.core.db.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.db.snapshot.SnapshotManifest.Chunk;
+
+/**
+ * Writes the sorted entries of one database into size bounded chunk files. Every entry is stored
+ * as {@code keyLength, key, valueLength, value}.
+ */
+public class SnapshotChunkWriter implements Closeable {
+
+  public static final long DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+  private final File directory;
+  private final String dbName;
+  private final SnapshotManifest manifest;
+  private final long chunkSize;
+
+  private int index = 0;
+  private File file;
+  private MessageDigest digest;
+  private DataOutputStream out;
+  private long count;
+  private long size;
+
+  public SnapshotChunkWriter(File directory, String dbName, SnapshotManifest manifest) {
+    this(directory, dbName, manifest, DEFAULT_CHUNK_SIZE);
+  }
+
+  public SnapshotChunkWriter(File directory, String dbName, SnapshotManifest manifest,
+      long chunkSize) {
+    this.directory = directory;
+    this.dbName = dbName;
+    this.manifest = manifest;
+    this.chunkSize = chunkSize;
+  }
+
+  public void write(byte[] key, byte[] value) throws IOException {
+    if (out == null) {
+      file = new File(directory, String.format("%s-%06d.chunk", dbName, index++));
+      digest = Sha256Hash.newDigest();
+      out = new DataOutputStream(new BufferedOutputStream(
+          new DigestOutputStream(new FileOutputStream(file), digest)));
+      count = 0;
+      size = 0;
+    }
+
+    out.writeInt(key.length);
+    out.write(key);
+    out.writeInt(value.length);
+    out.write(value);
+    count++;
+    size += 8 + key.length + value.length;
+
+    if (size >= chunkSize) {
+      finishChunk();
+    }
+  }
+
+  private void finishChunk() throws IOException {
+    out.close();
+    out = null;
+    manifest.addChunk(
+        new Chunk(file.getName(), dbName, count, Sha256Hash.wrap(digest.digest()).toString()));
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (out != null) {
+      finishChunk();
+    }
+  }
+}
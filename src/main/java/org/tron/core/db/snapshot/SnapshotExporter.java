@@ -0,0 +1,205 @@
+package org.tron.core.db.snapshot;
+
+import com.google.common.collect.Lists;
+import com.google.common.primitives.UnsignedBytes;
+import java.io.File;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import lombok.extern.slf4j.Slf4j;
+import org.iq80.leveldb.DBIterator;
+import org.iq80.leveldb.Snapshot;
+import org.tron.common.storage.leveldb.LevelDbDataSourceImpl;
+import org.tron.core.Constant;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.Parameter.ChainConstant;
+import org.tron.core.db.AbstractRevokingStore;
+import org.tron.core.db.AbstractRevokingStore.RevokingTuple;
+import org.tron.core.db.Manager;
+import org.tron.core.db.PendingManager;
+import org.tron.core.db.RevokingStore;
+import org.tron.core.db.TronDatabase;
+import org.tron.core.exception.SnapshotException;
+import org.tron.core.exception.StoreException;
+
+/**
+ * Exports the state of the latest solidified block into a snapshot directory.
+ *
+ * <p>The stores are captured with LevelDB snapshots while the manager lock is held, then the
+ * changes of the blocks above the solidified block are taken back out of the revoking stack, so
+ * the export itself does not block block processing.</p>
+ */
+@Slf4j
+public class SnapshotExporter {
+
+  /**
+   * Blocks kept before the snapshot block: a transaction can not stay valid longer than this, so
+   * the duplicate check stays correct on the imported node.
+   */
+  public static final long BLOCK_WINDOW =
+      Constant.MAXIMUM_TIME_UNTIL_EXPIRATION / ChainConstant.BLOCK_PRODUCED_INTERVAL;
+
+  private static final Comparator<byte[]> KEY_COMPARATOR =
+      UnsignedBytes.lexicographicalComparator();
+
+  private Manager manager;
+
+  public SnapshotExporter(Manager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * the stores whose whole content is part of the snapshot.
+   */
+  static List<TronDatabase> getStateStores(Manager manager) {
+    return Lists.newArrayList(
+        manager.getAccountStore(),
+        manager.getWitnessStore(),
+        manager.getVotesStore(),
+        manager.getVoteTallyStore(),
+        manager.getAssetIssueStore(),
+        manager.getDynamicPropertiesStore(),
+        manager.getWitnessScheduleStore(),
+        manager.getAccountIndexStore(),
+        manager.getBlockIndexStore(),
+        manager.getRecentBlockStore());
+  }
+
+  /**
+   * export the solidified state into the directory, which must not exist or be empty.
+   */
+  public SnapshotManifest export(File directory) throws SnapshotException {
+    if (!directory.exists() && !directory.mkdirs()) {
+      throw new SnapshotException("can not create " + directory);
+    }
+    String[] existing = directory.list();
+    if (existing == null || existing.length > 0) {
+      throw new SnapshotException(directory + " is not an empty directory");
+    }
+
+    List<TronDatabase> stores = getStateStores(manager);
+    Map<TronDatabase, Snapshot> snapshots = new HashMap<>();
+    Map<RevokingTuple, byte[]> reverted;
+    long blockNum;
+
+    synchronized (manager) {
+      try (PendingManager pm = new PendingManager(manager)) {
+        long headNum = manager.getHeadBlockNum();
+        blockNum = Math.min(headNum,
+            manager.getDynamicPropertiesStore().getLatestSolidifiedBlockNum());
+        AbstractRevokingStore revokingStore = (AbstractRevokingStore) RevokingStore.getInstance();
+        int depth = (int) (headNum - blockNum);
+        if (depth > revokingStore.size()) {
+          throw new SnapshotException("revoking history of " + revokingStore.size()
+              + " blocks does not reach back to solidified block " + blockNum);
+        }
+        reverted = revokingStore.getRevertedValues(depth);
+        stores.forEach(store -> snapshots.put(store, store.getDbSource().getSnapshot()));
+      }
+    }
+
+    try {
+      SnapshotManifest manifest = new SnapshotManifest();
+      manifest.setBlockNum(blockNum);
+      for (TronDatabase store : stores) {
+        exportStore(directory, manifest, store.getDbSource(), snapshots.get(store), reverted);
+      }
+      BlockId blockId = exportBlocks(directory, manifest, blockNum);
+      manifest.setBlockId(blockId.toString());
+      manifest.save(directory);
+      logger.info("export snapshot of block {} into {}, {} chunks", blockId.getString(),
+          directory, manifest.getChunks().size());
+      return manifest;
+    } catch (IOException e) {
+      throw new SnapshotException("export snapshot failed", e);
+    } finally {
+      snapshots.values().forEach(snapshot -> {
+        try {
+          snapshot.close();
+        } catch (IOException e) {
+          logger.warn(e.getMessage(), e);
+        }
+      });
+    }
+  }
+
+  private void exportStore(File directory, SnapshotManifest manifest,
+      LevelDbDataSourceImpl dbSource, Snapshot snapshot, Map<RevokingTuple, byte[]> reverted)
+      throws IOException {
+    TreeMap<byte[], byte[]> overlay = new TreeMap<>(KEY_COMPARATOR);
+    reverted.forEach((tuple, value) -> {
+      if (tuple.getDatabase() == dbSource) {
+        overlay.put(tuple.getKey(), value);
+      }
+    });
+
+    try (SnapshotChunkWriter writer =
+        new SnapshotChunkWriter(directory, dbSource.getDBName(), manifest);
+        DBIterator iterator = dbSource.iterator(snapshot)) {
+      Iterator<Entry<byte[], byte[]>> overlayIterator = overlay.entrySet().iterator();
+      Entry<byte[], byte[]> pending = overlayIterator.hasNext() ? overlayIterator.next() : null;
+
+      for (iterator.seekToFirst(); iterator.hasNext(); iterator.next()) {
+        Entry<byte[], byte[]> entry = iterator.peekNext();
+        while (pending != null && KEY_COMPARATOR.compare(pending.getKey(), entry.getKey()) < 0) {
+          writeIfPresent(writer, pending);
+          pending = overlayIterator.hasNext() ? overlayIterator.next() : null;
+        }
+        if (pending != null && KEY_COMPARATOR.compare(pending.getKey(), entry.getKey()) == 0) {
+          writeIfPresent(writer, pending);
+          pending = overlayIterator.hasNext() ? overlayIterator.next() : null;
+          continue;
+        }
+        writer.write(entry.getKey(), entry.getValue());
+      }
+
+      while (pending != null) {
+        writeIfPresent(writer, pending);
+        pending = overlayIterator.hasNext() ? overlayIterator.next() : null;
+      }
+    }
+  }
+
+  private static void writeIfPresent(SnapshotChunkWriter writer, Entry<byte[], byte[]> entry)
+      throws IOException {
+    if (entry.getValue() != null) {
+      writer.write(entry.getKey(), entry.getValue());
+    }
+  }
+
+  /**
+   * export the genesis block and the recent block window ending at the snapshot block, with their
+   * transactions for the duplicate check.
+   */
+  private BlockId exportBlocks(File directory, SnapshotManifest manifest, long blockNum)
+      throws IOException, SnapshotException {
+    BlockId blockId = null;
+    try (SnapshotChunkWriter blockWriter = new SnapshotChunkWriter(directory,
+        manager.getBlockStore().getDbSource().getDBName(), manifest);
+        SnapshotChunkWriter trxWriter = new SnapshotChunkWriter(directory,
+            manager.getTransactionStore().getDbSource().getDBName(), manifest)) {
+      BlockCapsule genesis = manager.getGenesisBlock();
+      blockWriter.write(genesis.getBlockId().getBytes(), genesis.getData());
+
+      for (long num = Math.max(1, blockNum - BLOCK_WINDOW + 1); num <= blockNum; num++) {
+        BlockCapsule block = manager.getBlockStore()
+            .get(manager.getBlockIdByNum(num).getBytes());
+        blockWriter.write(block.getBlockId().getBytes(), block.getData());
+        for (TransactionCapsule trx : block.getTransactions()) {
+          trxWriter.write(trx.getTransactionId().getBytes(), trx.getData());
+        }
+        blockId = block.getBlockId();
+      }
+    } catch (StoreException e) {
+      throw new SnapshotException("block window is incomplete", e);
+    }
+    return blockId == null ? manager.getGenesisBlockId() : blockId;
+  }
+}
@@ -0,0 +1,83 @@
+package org.tron.core.db.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.tron.common.storage.DbSourceInter;
+import org.tron.core.db.Manager;
+import org.tron.core.db.TronDatabase;
+import org.tron.core.db.snapshot.SnapshotManifest.Chunk;
+import org.tron.core.exception.SnapshotException;
+
+/**
+ * Bulk loads a snapshot written by {@link SnapshotExporter} into empty stores. Chunks are sorted
+ * by key, so each batch is written to its store in key order.
+ */
+@Slf4j
+public class SnapshotImporter {
+
+  private static final int BATCH_SIZE = 10_000;
+
+  private Manager manager;
+
+  public SnapshotImporter(Manager manager) {
+    this.manager = manager;
+  }
+
+  /**
+   * verify every chunk of the snapshot, then load it.
+   */
+  public SnapshotManifest importFrom(File directory) throws SnapshotException {
+    SnapshotManifest manifest = SnapshotManifest.load(directory);
+
+    List<TronDatabase> stores = SnapshotExporter.getStateStores(manager);
+    stores.add(manager.getBlockStore());
+    stores.add(manager.getTransactionStore());
+    Map<String, DbSourceInter<byte[]>> dbSources = stores.stream()
+        .collect(Collectors.toMap(store -> store.getDbSource().getDBName(),
+            TronDatabase::getSource));
+
+    for (Chunk chunk : manifest.getChunks()) {
+      if (!dbSources.containsKey(chunk.getDbName())) {
+        throw new SnapshotException("unknown database " + chunk.getDbName());
+      }
+      SnapshotChunkReader.verify(directory, chunk);
+    }
+
+    logger.info("import snapshot of block {} from {}", manifest.getBlockNum(), directory);
+    for (Chunk chunk : manifest.getChunks()) {
+      DbSourceInter<byte[]> dbSource = dbSources.get(chunk.getDbName());
+      try (SnapshotChunkReader reader = new SnapshotChunkReader(directory, chunk)) {
+        Map<byte[], byte[]> batch = new LinkedHashMap<>();
+        while (reader.hasNext()) {
+          Entry<byte[], byte[]> entry = reader.next();
+          batch.put(entry.getKey(), entry.getValue());
+          if (batch.size() >= BATCH_SIZE) {
+            dbSource.updateByBatch(batch);
+            batch.clear();
+          }
+        }
+        if (!batch.isEmpty()) {
+          dbSource.updateByBatch(batch);
+        }
+      } catch (IOException e) {
+        throw new SnapshotException("can not load " + chunk.getFileName(), e);
+      }
+      logger.info("load {} entries of {} from {}", chunk.getCount(), chunk.getDbName(),
+          chunk.getFileName());
+    }
+
+    long headNum = manager.getDynamicPropertiesStore().getLatestBlockHeaderNumber();
+    String headId = manager.getDynamicPropertiesStore().getLatestBlockHeaderHash().toString();
+    if (headNum != manifest.getBlockNum() || !headId.equals(manifest.getBlockId())) {
+      throw new SnapshotException("snapshot head " + headNum + ":" + headId
+          + " does not match manifest " + manifest.getBlockNum() + ":" + manifest.getBlockId());
+    }
+    return manifest;
+  }
+}
@@ -0,0 +1,108 @@
+package org.tron.core.db.snapshot;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.lang3.StringUtils;
+import org.tron.core.exception.SnapshotException;
+
+/**
+ * Describes a snapshot directory: the block the state belongs to and every chunk file with its
+ * entry count and SHA-256 checksum.
+ */
+public class SnapshotManifest {
+
+  public static final String FILE_NAME = "snapshot.properties";
+  private static final int VERSION = 1;
+
+  @Getter
+  @Setter
+  private long blockNum;
+
+  @Getter
+  @Setter
+  private String blockId;
+
+  @Getter
+  private List<Chunk> chunks = new ArrayList<>();
+
+  @AllArgsConstructor
+  @Getter
+  public static class Chunk {
+
+    private String fileName;
+    private String dbName;
+    private long count;
+    private String checksum;
+  }
+
+  public void addChunk(Chunk chunk) {
+    chunks.add(chunk);
+  }
+
+  /**
+   * write the manifest into the snapshot directory.
+   */
+  public void save(File directory) throws IOException {
+    Properties props = new Properties();
+    props.setProperty("version", String.valueOf(VERSION));
+    props.setProperty("blockNum", String.valueOf(blockNum));
+    props.setProperty("blockId", blockId);
+    List<String> names = new ArrayList<>();
+    for (Chunk chunk : chunks) {
+      names.add(chunk.getFileName());
+      props.setProperty(chunk.getFileName() + ".db", chunk.getDbName());
+      props.setProperty(chunk.getFileName() + ".count", String.valueOf(chunk.getCount()));
+      props.setProperty(chunk.getFileName() + ".sha256", chunk.getChecksum());
+    }
+    props.setProperty("chunks", StringUtils.join(names, ","));
+    try (Writer w = new FileWriter(new File(directory, FILE_NAME))) {
+      props.store(w, "java-tron state snapshot");
+    }
+  }
+
+  /**
+   * read the manifest of a snapshot directory.
+   */
+  public static SnapshotManifest load(File directory) throws SnapshotException {
+    File file = new File(directory, FILE_NAME);
+    if (!file.canRead()) {
+      throw new SnapshotException("can not read " + file);
+    }
+
+    Properties props = new Properties();
+    try (Reader r = new FileReader(file)) {
+      props.load(r);
+    } catch (IOException e) {
+      throw new SnapshotException("can not read " + file, e);
+    }
+
+    if (!String.valueOf(VERSION).equals(props.getProperty("version"))) {
+      throw new SnapshotException("unsupported snapshot version " + props.getProperty("version"));
+    }
+
+    SnapshotManifest manifest = new SnapshotManifest();
+    try {
+      manifest.setBlockNum(Long.parseLong(props.getProperty("blockNum")));
+      manifest.setBlockId(props.getProperty("blockId"));
+      for (String name : StringUtils.split(props.getProperty("chunks", ""), ",")) {
+        manifest.addChunk(new Chunk(name,
+            props.getProperty(name + ".db"),
+            Long.parseLong(props.getProperty(name + ".count")),
+            props.getProperty(name + ".sha256")));
+      }
+    } catch (NumberFormatException e) {
+      throw new SnapshotException("broken manifest " + file, e);
+    }
+    return manifest;
+  }
+}
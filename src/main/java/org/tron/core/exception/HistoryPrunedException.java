@@ -0,0 +1,16 @@
+package org.tron.core.exception;
+
+public class HistoryPrunedException extends ItemNotFoundException {
+
+  public HistoryPrunedException(String message) {
+    super(message);
+  }
+
+  public HistoryPrunedException() {
+    super();
+  }
+
+  public HistoryPrunedException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,16 @@
+package org.tron.core.exception;
+
+public class SnapshotException extends TronException {
+
+  public SnapshotException() {
+    super();
+  }
+
+  public SnapshotException(String message) {
+    super(message);
+  }
+
+  public SnapshotException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
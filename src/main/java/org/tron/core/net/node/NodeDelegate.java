@@ -3,6 +3,7 @@ package org.tron.core.net.node;
 import java.util.Deque;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import org.tron.common.overlay.message.Message;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.capsule.BlockCapsule;
@@ -22,6 +23,15 @@ public interface NodeDelegate {
 
   void handleTransaction(TransactionCapsule trx) throws BadTransactionException;
 
+  /**
+   * handle the transactions of one message together. Nothing is pushed when interrupted.
+   *
+   * @param bad receives the hashes of the bad transactions
+   * @return the hashes of the transactions pushed
+   */
+  Set<Sha256Hash> handleTransactions(List<TransactionCapsule> trxs, Set<Sha256Hash> bad)
+      throws InterruptedException;
+
   LinkedList<BlockId> getLostBlockIds(List<BlockId> blockChainSummary) throws StoreException;
 
   Deque<BlockId> getBlockChainSummary(BlockId beginBLockId, Deque<BlockId> blockIds)
@@ -6,8 +6,11 @@ import com.google.common.primitives.Longs;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Deque;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import org.tron.common.overlay.message.Message;
@@ -118,6 +121,28 @@ public class NodeDelegateImpl implements NodeDelegate {
     }
   }
 
+  @Override
+  public Set<Sha256Hash> handleTransactions(List<TransactionCapsule> trxs, Set<Sha256Hash> bad)
+      throws InterruptedException {
+    logger.info("handle {} transactions", trxs.size());
+    Map<TransactionCapsule, Exception> failures = dbManager.pushTransactionBatch(trxs);
+    Set<Sha256Hash> pushed = new HashSet<>();
+    for (TransactionCapsule trx : trxs) {
+      Exception e = failures.get(trx);
+      if (e == null) {
+        pushed.add(trx.getHash());
+      } else if (e instanceof ContractValidateException
+          || e instanceof ContractExeException
+          || e instanceof ValidateSignatureException) {
+        logger.warn("Bad transaction {}: {}", trx.getHash(), e.getMessage());
+        bad.add(trx.getHash());
+      } else {
+        logger.debug("Transaction {} not pushed: {}", trx.getHash(), e.getMessage());
+      }
+    }
+    return pushed;
+  }
+
   @Override
   public LinkedList<BlockId> getLostBlockIds(List<BlockId> blockChainSummary)
       throws StoreException {
@@ -152,6 +177,10 @@ public class NodeDelegateImpl implements NodeDelegate {
 
     //todo: limit the count of block to send peer by one time.
     long unForkedBlockIdNum = unForkedBlockId.getNum();
+    // the blocks the peer lacks are pruned, getData can not serve them
+    if (unForkedBlockIdNum < dbManager.getDynamicPropertiesStore().getLatestPrunedBlockNum()) {
+      return new LinkedList<>();
+    }
     long len = Longs
         .min(dbManager.getHeadBlockNum(), unForkedBlockIdNum + NodeConstant.SYNC_FETCH_BATCH_NUM);
 
@@ -275,7 +304,7 @@ public class NodeDelegateImpl implements NodeDelegate {
   @Override
   public long getBlockTime(BlockId id) {
     try {
-      return dbManager.getBlockById(id).getTimeStamp();
+      return dbManager.getBlockHeaderById(id).getTimeStamp();
     } catch (BadItemException e) {
       return dbManager.getGenesisBlock().getTimeStamp();
     } catch (ItemNotFoundException e) {
@@ -13,6 +13,7 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import io.netty.util.internal.ConcurrentSet;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Deque;
@@ -718,6 +719,7 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
     Map<BlockId, Long> syncBlockRequested = peer.getSyncBlockRequested();
     BlockId blockId = blkMsg.getBlockId();
     Item item = new Item(blockId, InventoryType.BLOCK);
+    peer.getNodeStatistics().tronInBlock.add();
     boolean syncFlag = false;
     if (syncBlockRequested.containsKey(blockId)) {
       if (!peer.getSyncFlag()) {
@@ -754,6 +756,7 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
     //TODO: lack the complete flow.
     if (!freshBlockId.contains(block.getBlockId())) {
       try {
+        block.setSource(peer.getPeerId());
         LinkedList<Sha256Hash> trxIds = del.handleBlock(block, false);
         freshBlockId.offer(block.getBlockId());
 
@@ -864,12 +867,8 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
     }
   }
 
-  synchronized boolean isTrxExist(TransactionMessage trxMsg){
-    if (TrxCache.getIfPresent(trxMsg.getMessageId()) != null){
-      return true;
-    }
-    TrxCache.put(trxMsg.getMessageId(), trxMsg);
-    return false;
+  boolean isTrxExist(TransactionMessage trxMsg){
+    return TrxCache.asMap().putIfAbsent(trxMsg.getMessageId(), trxMsg) != null;
   }
 
   private void onHandleTransactionMessage(PeerConnection peer, TransactionMessage trxMsg) {
@@ -895,9 +894,62 @@ public class NodeImpl extends PeerConnectionDelegate implements Node {
   }
 
   private void onHandleTransactionsMessage(PeerConnection peer, TransactionsMessage msg) {
+    trxsHandlePool.submit(() -> handleTransactionBatch(peer, msg));
+  }
+
+  /**
+   * push the new transactions of a message as one batch, their signatures are validated in
+   * parallel and the pending state is locked once for all of them.
+   */
+  private void handleTransactionBatch(PeerConnection peer, TransactionsMessage msg) {
+    List<TransactionMessage> received = new ArrayList<>();
     for (Transaction trans : msg.getTransactions().getTransactionsList()) {
-      trxsHandlePool
-          .submit(() -> onHandleTransactionMessage(peer, new TransactionMessage(trans)));
+      TransactionMessage trxMsg = new TransactionMessage(trans);
+      if (!peer.getAdvObjWeRequested()
+          .containsKey(new Item(trxMsg.getMessageId(), InventoryType.TRX))) {
+        logger.error("We don't send fetch request to" + peer);
+        banTraitorPeer(peer, ReasonCode.BAD_PROTOCOL);
+        return;
+      }
+      received.add(trxMsg);
+    }
+
+    // every item was requested, only now they are taken
+    List<TransactionMessage> trxMsgs = new ArrayList<>();
+    for (TransactionMessage trxMsg : received) {
+      peer.getAdvObjWeRequested().remove(new Item(trxMsg.getMessageId(), InventoryType.TRX));
+      if (isTrxExist(trxMsg)) {
+        logger.info("Trx {} from Peer {} already processed.", trxMsg.getMessageId(),
+            peer.getNode().getHost());
+        continue;
+      }
+      trxMsgs.add(trxMsg);
+    }
+    if (trxMsgs.isEmpty()) {
+      return;
+    }
+
+    Set<Sha256Hash> bad = new HashSet<>();
+    Set<Sha256Hash> pushed;
+    try {
+      pushed = del.handleTransactions(trxMsgs.stream()
+          .map(TransactionMessage::getTransactionCapsule)
+          .collect(Collectors.toList()), bad);
+    } catch (InterruptedException e) {
+      // nothing was pushed, the transactions may come again
+      trxMsgs.forEach(trxMsg -> TrxCache.invalidate(trxMsg.getMessageId()));
+      Thread.currentThread().interrupt();
+      return;
+    }
+    for (TransactionMessage trxMsg : trxMsgs) {
+      if (bad.contains(trxMsg.getMessageId())) {
+        badAdvObj.put(trxMsg.getMessageId(), System.currentTimeMillis());
+      } else if (pushed.contains(trxMsg.getMessageId())) {
+        broadcast(trxMsg);
+      }
+    }
+    if (!bad.isEmpty()) {
+      banTraitorPeer(peer, ReasonCode.BAD_TX);
     }
   }
 
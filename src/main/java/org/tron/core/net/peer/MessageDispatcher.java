@@ -0,0 +1,315 @@
+package org.tron.core.net.peer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.netty.channel.Channel;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.tron.core.net.message.MessageTypes;
+import org.tron.core.net.message.TronMessage;
+
+/**
+ * Hands the tron messages read by the netty event loops to a pool of workers, so a block being
+ * applied or a fetch reading the disk does not hold up the other peers on the same loop.
+ *
+ * <p>Messages wait in lanes by type. The workers pick the lanes by weighted priority: while
+ * several lanes have work, each gets turns in proportion to its weight, the higher lanes first,
+ * so blocks go ahead of transactions without starving them. Every lane serves its peers round
+ * robin, one message per turn, so one busy peer cannot starve the others.</p>
+ *
+ * <p>A peer has at most one message in work, like on its event loop before: the per-peer state of
+ * NodeImpl, such as the sync queues and the requested items, is not thread safe. Messages of a
+ * peer are handled in order within a lane; across lanes a later block may go ahead of an earlier
+ * inventory, which the protocol tolerates as every block and chain inventory answers a request
+ * we sent after handling what led to it.</p>
+ *
+ * <p>When the messages waiting in a lane reach its capacity, the peers sending to it stop being
+ * read until the lane has drained to half of it.</p>
+ */
+@Slf4j
+@Component
+public class MessageDispatcher {
+
+  private static final int WORKERS = 6;
+
+  public enum LaneType {
+    BLOCK(8, 200),
+    SYNC(4, 200),
+    INVENTORY(2, 2000),
+    TRX(1, 2000);
+
+    private final int weight;
+    private final int capacity;
+
+    LaneType(int weight, int capacity) {
+      this.weight = weight;
+      this.capacity = capacity;
+    }
+  }
+
+  // guarded by this
+  private final Map<LaneType, Lane> lanes = new EnumMap<>(LaneType.class);
+  private final Map<Object, PeerQueues> peers = new HashMap<>();
+  private boolean closed;
+
+  private final ExecutorService workers;
+
+  public MessageDispatcher() {
+    this(WORKERS);
+  }
+
+  MessageDispatcher(int threads) {
+    for (LaneType type : LaneType.values()) {
+      lanes.put(type, new Lane(type));
+    }
+    workers = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+        .setNameFormat("MessageDispatcher-%d").setDaemon(true).build());
+    for (int i = 0; i < threads; i++) {
+      workers.execute(this::work);
+    }
+  }
+
+  /**
+   * the lane of the message type, null for types handled on the event loop.
+   */
+  static LaneType getLaneType(MessageTypes type) {
+    switch (type) {
+      case BLOCK:
+        return LaneType.BLOCK;
+      case SYNC_BLOCK_CHAIN:
+      case BLOCK_CHAIN_INVENTORY:
+        return LaneType.SYNC;
+      case INVENTORY:
+      case FETCH_INV_DATA:
+        return LaneType.INVENTORY;
+      case TRX:
+      case TRXS:
+        return LaneType.TRX;
+      default:
+        return null;
+    }
+  }
+
+  public void dispatch(PeerConnection peer, Channel channel, TronMessage msg,
+      PeerConnectionDelegate peerDel) {
+    LaneType type = getLaneType(msg.getType());
+    if (type == null) {
+      peerDel.onMessage(peer, msg);
+      return;
+    }
+    submit(type, peer, channel, () -> {
+      try {
+        peerDel.onMessage(peer, msg);
+      } catch (Exception e) {
+        peer.processException(e);
+      }
+    });
+  }
+
+  synchronized void submit(LaneType type, Object peer, Channel channel, Runnable task) {
+    if (closed) {
+      return;
+    }
+    PeerQueues queues = peers.computeIfAbsent(peer, PeerQueues::new);
+    queues.messages.get(type).offer(task);
+    Lane lane = lanes.get(type);
+    if (++lane.depth >= type.capacity && channel != null && lane.paused.add(channel)) {
+      logger.info("Lane {} is full, stop reading from {}", type, channel.remoteAddress());
+      channel.config().setAutoRead(false);
+    }
+    if (queues.schedule(type)) {
+      notify();
+    }
+  }
+
+  /**
+   * drop the messages of a peer that went away.
+   */
+  public void removePeer(PeerConnection peer, Channel channel) {
+    remove(peer, channel);
+  }
+
+  synchronized void remove(Object peer, Channel channel) {
+    PeerQueues queues = peers.remove(peer);
+    for (Lane lane : lanes.values()) {
+      if (channel != null) {
+        lane.paused.remove(channel);
+      }
+      if (queues != null) {
+        while (queues.messages.get(lane.type).poll() != null) {
+          lane.taken();
+        }
+      }
+    }
+  }
+
+  public synchronized int getDepth(LaneType type) {
+    return lanes.get(type).depth;
+  }
+
+  @PreDestroy
+  public void close() {
+    synchronized (this) {
+      closed = true;
+      notifyAll();
+    }
+    workers.shutdownNow();
+  }
+
+  private void work() {
+    while (true) {
+      Turn turn;
+      try {
+        turn = take();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (turn == null) {
+        return;
+      }
+      try {
+        turn.task.run();
+      } catch (Throwable t) {
+        logger.error("Unhandled exception in lane " + turn.type, t);
+      }
+      finish(turn.queues);
+    }
+  }
+
+  /**
+   * wait for the next message, null once closed.
+   */
+  private synchronized Turn take() throws InterruptedException {
+    while (!closed) {
+      Turn turn = next();
+      if (turn != null) {
+        return turn;
+      }
+      wait();
+    }
+    return null;
+  }
+
+  /**
+   * a lane spends a credit per message; when the lanes with work have spent theirs, every lane
+   * gets its weight again.
+   */
+  private Turn next() {
+    for (int round = 0; round < 2; round++) {
+      for (Lane lane : lanes.values()) {
+        if (lane.credits > 0) {
+          Turn turn = lane.poll();
+          if (turn != null) {
+            lane.credits--;
+            return turn;
+          }
+        }
+      }
+      lanes.values().forEach(lane -> lane.credits = lane.type.weight);
+    }
+    return null;
+  }
+
+  /**
+   * the peer goes back behind the other peers of its lanes.
+   */
+  private synchronized void finish(PeerQueues queues) {
+    queues.running = false;
+    if (peers.get(queues.peer) != queues) {
+      return;
+    }
+    boolean ready = false;
+    for (LaneType type : LaneType.values()) {
+      ready |= queues.schedule(type);
+    }
+    if (ready) {
+      notify();
+    }
+  }
+
+  private static class Turn {
+
+    private final LaneType type;
+    private final PeerQueues queues;
+    private final Runnable task;
+
+    Turn(LaneType type, PeerQueues queues, Runnable task) {
+      this.type = type;
+      this.queues = queues;
+      this.task = task;
+    }
+  }
+
+  private class Lane {
+
+    private final LaneType type;
+    // peers with messages in the lane; a peer that started on another lane meanwhile is skipped
+    private final Queue<PeerQueues> ready = new ArrayDeque<>();
+    private final Set<Channel> paused = new HashSet<>();
+    private int depth;
+    private int credits;
+
+    Lane(LaneType type) {
+      this.type = type;
+      this.credits = type.weight;
+    }
+
+    Turn poll() {
+      PeerQueues queues;
+      while ((queues = ready.poll()) != null) {
+        queues.ready.remove(type);
+        Runnable task = queues.running ? null : queues.messages.get(type).poll();
+        if (task != null) {
+          queues.running = true;
+          taken();
+          return new Turn(type, queues, task);
+        }
+      }
+      return null;
+    }
+
+    void taken() {
+      if (--depth <= type.capacity / 2 && !paused.isEmpty()) {
+        paused.forEach(channel -> channel.config().setAutoRead(true));
+        paused.clear();
+      }
+    }
+  }
+
+  private class PeerQueues {
+
+    private final Object peer;
+    private final Map<LaneType, Queue<Runnable>> messages = new EnumMap<>(LaneType.class);
+    private final Set<LaneType> ready = EnumSet.noneOf(LaneType.class);
+    private boolean running;
+
+    PeerQueues(Object peer) {
+      this.peer = peer;
+      for (LaneType type : LaneType.values()) {
+        messages.put(type, new ArrayDeque<>());
+      }
+    }
+
+    /**
+     * queue the peer in the lane if it has messages there and is not in work.
+     */
+    boolean schedule(LaneType type) {
+      if (running || messages.get(type).isEmpty() || !ready.add(type)) {
+        return false;
+      }
+      lanes.get(type).ready.offer(this);
+      return true;
+    }
+  }
+}
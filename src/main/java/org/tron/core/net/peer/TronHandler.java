@@ -4,6 +4,7 @@ import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.SimpleChannelInboundHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 import org.tron.common.overlay.server.Channel;
@@ -21,6 +22,9 @@ public class TronHandler extends SimpleChannelInboundHandler<TronMessage> {
 
   public PeerConnectionDelegate peerDel;
 
+  @Autowired
+  private MessageDispatcher dispatcher;
+
   public void setPeerDel(PeerConnectionDelegate peerDel) {
     this.peerDel = peerDel;
   }
@@ -28,8 +32,14 @@ public class TronHandler extends SimpleChannelInboundHandler<TronMessage> {
   @Override
   public void channelRead0(final ChannelHandlerContext ctx, TronMessage msg) throws InterruptedException {
     msgQueue.receivedMessage(msg);
-    //handle message
-    peerDel.onMessage(peer, msg);
+    //handle message off the event loop
+    dispatcher.dispatch(peer, ctx.channel(), msg, peerDel);
+  }
+
+  @Override
+  public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+    dispatcher.removePeer(peer, ctx.channel());
+    super.channelInactive(ctx);
   }
 
   @Override
@@ -0,0 +1,88 @@
+package org.tron.core.services;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+import org.apache.commons.lang3.tuple.Pair;
+import org.tron.common.utils.Sha256Hash;
+
+/**
+ * Responses of read-only queries, valid until the head block changes. Entries are keyed by method
+ * and request and belong to the head they were built for; once a block is applied or a fork
+ * switch reverts the head, the next lookup starts an empty generation for the new head.
+ */
+public class ResponseCache {
+
+  private final Supplier<Sha256Hash> headSupplier;
+  private final AtomicReference<Generation> generation =
+      new AtomicReference<>(new Generation(null));
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public ResponseCache(Supplier<Sha256Hash> headSupplier) {
+    this.headSupplier = headSupplier;
+  }
+
+  /**
+   * the cached response of the method for the request, built by the loader on a miss. Null
+   * responses and responses while the head is unknown are not cached.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Message> T get(String method, Message request, Supplier<T> loader) {
+    Generation current = getGeneration(headSupplier.get());
+    if (current == null) {
+      misses.incrementAndGet();
+      return loader.get();
+    }
+    Pair<String, ByteString> key = Pair.of(method, request.toByteString());
+    Message response = current.responses.get(key);
+    if (response != null) {
+      hits.incrementAndGet();
+      return (T) response;
+    }
+    misses.incrementAndGet();
+    T loaded = loader.get();
+    if (loaded != null) {
+      current.responses.put(key, loaded);
+    }
+    return loaded;
+  }
+
+  /**
+   * the generation of the head, null if the head is unknown or another thread moved to a
+   * different head meanwhile.
+   */
+  private Generation getGeneration(Sha256Hash head) {
+    if (head == null) {
+      return null;
+    }
+    Generation current = generation.get();
+    if (!head.equals(current.head)) {
+      Generation next = new Generation(head);
+      current = generation.compareAndSet(current, next) ? next : generation.get();
+    }
+    return head.equals(current.head) ? current : null;
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  private static class Generation {
+
+    private final Sha256Hash head;
+    private final Map<Pair<String, ByteString>, Message> responses = new ConcurrentHashMap<>();
+
+    private Generation(Sha256Hash head) {
+      this.head = head;
+    }
+  }
+}
@@ -4,6 +4,8 @@ import com.google.common.base.Preconditions;
 import com.google.protobuf.ByteString;
 import io.grpc.Server;
 import io.grpc.ServerBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
 import java.io.IOException;
 import java.util.HashMap;
@@ -48,8 +50,10 @@ import org.tron.core.capsule.TransactionCapsule;
 import org.tron.core.capsule.WitnessCapsule;
 import org.tron.core.config.args.Args;
 import org.tron.core.db.Manager;
+import org.tron.core.db.ReadView;
 import org.tron.core.exception.ContractValidateException;
 import org.tron.core.exception.HeaderNotFound;
+import org.tron.core.exception.HistoryPrunedException;
 import org.tron.core.exception.StoreException;
 import org.tron.protos.Contract;
 import org.tron.protos.Contract.AssetIssueContract;
@@ -84,6 +88,8 @@ public class RpcApiService implements Service {
   private static final long BLOCK_LIMIT_NUM = 100;
   private static final long TRANSACTION_LIMIT_NUM = 1000;
 
+  private ResponseCache responseCache;
+
   @Override
   public void init() {
   }
@@ -94,6 +100,7 @@ public class RpcApiService implements Service {
 
   @Override
   public void start() {
+    responseCache = new ResponseCache(dbManager::getReadViewHeadBlockId);
     try {
       ServerBuilder serverBuilder = ServerBuilder.forPort(port)
           .addService(new DatabaseApi());
@@ -121,6 +128,12 @@ public class RpcApiService implements Service {
     }));
   }
 
+  /**
+   * pruned history is reported as NOT_FOUND with the pruned height in the description.
+   */
+  private static StatusRuntimeException prunedStatus(HistoryPrunedException e) {
+    return Status.NOT_FOUND.withDescription(e.getMessage()).asRuntimeException();
+  }
 
   /**
    * DatabaseApi.
@@ -130,27 +143,20 @@ public class RpcApiService implements Service {
     @Override
     public void getBlockReference(org.tron.api.GrpcAPI.EmptyMessage request,
         io.grpc.stub.StreamObserver<org.tron.api.GrpcAPI.BlockReference> responseObserver) {
-      long headBlockNum = dbManager.getDynamicPropertiesStore()
-          .getLatestBlockHeaderNumber();
-      byte[] blockHeaderHash = dbManager.getDynamicPropertiesStore()
-          .getLatestBlockHeaderHash().getBytes();
-      BlockReference ref = BlockReference.newBuilder()
-          .setBlockHash(ByteString.copyFrom(blockHeaderHash))
-          .setBlockNum(headBlockNum)
-          .build();
-      responseObserver.onNext(ref);
+      responseObserver.onNext(responseCache.get("getBlockReference", request, () -> {
+        try (ReadView view = dbManager.openReadView()) {
+          return BlockReference.newBuilder()
+              .setBlockHash(ByteString.copyFrom(view.getHeadBlockId().getBytes()))
+              .setBlockNum(view.getHeadBlockNum())
+              .build();
+        }
+      }));
       responseObserver.onCompleted();
     }
 
     @Override
     public void getNowBlock(EmptyMessage request, StreamObserver<Block> responseObserver) {
-      Block block = null;
-      try {
-        block = dbManager.getHead().getInstance();
-      } catch (StoreException e) {
-        logger.error(e.getMessage());
-      }
-      responseObserver.onNext(block);
+      responseObserver.onNext(responseCache.get("getNowBlock", request, wallet::getNowBlock));
       responseObserver.onCompleted();
     }
 
@@ -169,11 +175,9 @@ public class RpcApiService implements Service {
     @Override
     public void getDynamicProperties(EmptyMessage request,
         StreamObserver<DynamicProperties> responseObserver) {
-      DynamicProperties.Builder builder = DynamicProperties.newBuilder();
-      builder.setLastSolidityBlockNum(
-          dbManager.getDynamicPropertiesStore().getLatestSolidifiedBlockNum());
-      DynamicProperties dynamicProperties = builder.build();
-      responseObserver.onNext(dynamicProperties);
+      responseObserver.onNext(responseCache.get("getDynamicProperties", request,
+          () -> DynamicProperties.newBuilder().setLastSolidityBlockNum(
+              dbManager.getDynamicPropertiesStore().getLatestSolidifiedBlockNum()).build()));
       responseObserver.onCompleted();
     }
   }
@@ -549,13 +553,18 @@ public class RpcApiService implements Service {
 
     @Override
     public void getNowBlock(EmptyMessage request, StreamObserver<Block> responseObserver) {
-      responseObserver.onNext(wallet.getNowBlock());
+      responseObserver.onNext(responseCache.get("getNowBlock", request, wallet::getNowBlock));
       responseObserver.onCompleted();
     }
 
     @Override
     public void getBlockByNum(NumberMessage request, StreamObserver<Block> responseObserver) {
-      responseObserver.onNext(wallet.getBlockByNum(request.getNum()));
+      try {
+        responseObserver.onNext(wallet.getBlockByNum(request.getNum()));
+      } catch (HistoryPrunedException e) {
+        responseObserver.onError(prunedStatus(e));
+        return;
+      }
       responseObserver.onCompleted();
     }
 
@@ -645,7 +654,12 @@ public class RpcApiService implements Service {
       ByteString blockId = request.getValue();
 
       if (Objects.nonNull(blockId)) {
-        responseObserver.onNext(wallet.getBlockById(blockId));
+        try {
+          responseObserver.onNext(wallet.getBlockById(blockId));
+        } catch (HistoryPrunedException e) {
+          responseObserver.onError(prunedStatus(e));
+          return;
+        }
       } else {
         responseObserver.onNext(null);
       }
@@ -685,7 +699,12 @@ public class RpcApiService implements Service {
       ByteString transactionId = request.getValue();
 
       if (Objects.nonNull(transactionId)) {
-        responseObserver.onNext(wallet.getTransactionById(transactionId));
+        try {
+          responseObserver.onNext(wallet.getTransactionById(transactionId));
+        } catch (HistoryPrunedException e) {
+          responseObserver.onError(prunedStatus(e));
+          return;
+        }
       } else {
         responseObserver.onNext(null);
       }
@@ -702,24 +721,31 @@ public class RpcApiService implements Service {
     @Override
     public void getNextMaintenanceTime(EmptyMessage request,
         StreamObserver<NumberMessage> responseObserver) {
-      responseObserver.onNext(wallet.getNextMaintenanceTime());
+      responseObserver.onNext(responseCache.get("getNextMaintenanceTime", request,
+          wallet::getNextMaintenanceTime));
       responseObserver.onCompleted();
     }
 
     @Override
     public void getAssetIssueList(EmptyMessage request,
         StreamObserver<AssetIssueList> responseObserver) {
-      responseObserver.onNext(wallet.getAssetIssueList());
+      responseObserver.onNext(responseCache.get("getAssetIssueList", request,
+          wallet::getAssetIssueList));
       responseObserver.onCompleted();
     }
 
     @Override
     public void listWitnesses(EmptyMessage request, StreamObserver<WitnessList> responseObserver) {
-      responseObserver.onNext(wallet.getWitnessList());
+      responseObserver.onNext(responseCache.get("listWitnesses", request,
+          wallet::getWitnessList));
       responseObserver.onCompleted();
     }
   }
 
+  public ResponseCache getResponseCache() {
+    return responseCache;
+  }
+
   @Override
   public void stop() {
 
@@ -0,0 +1,86 @@
+package org.tron.core.witness;
+
+import com.google.protobuf.ByteString;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.config.Parameter.ChainConstant;
+
+/**
+ * The latest produced block num of every active witness, kept sorted so the solidified block is
+ * read by index. The tracker remembers the head it was updated for; a block that does not extend
+ * that head means the chain was revoked or switched, and the tracker must be rebuilt.
+ */
+public class SolidifiedBlockTracker {
+
+  private Map<ByteString, Long> latestBlockNums = new HashMap<>();
+  private long[] sortedBlockNums = new long[0];
+  private Sha256Hash head;
+
+  /**
+   * rebuild from the active witnesses, reading their latest block num.
+   */
+  public void rebuild(List<ByteString> activeWitnesses,
+      Function<ByteString, Long> latestBlockNum, Sha256Hash head) {
+    latestBlockNums = new HashMap<>();
+    activeWitnesses.forEach(address -> latestBlockNums.put(address, latestBlockNum.apply(address)));
+    sortedBlockNums = latestBlockNums.values().stream().mapToLong(Long::longValue).sorted()
+        .toArray();
+    this.head = head;
+  }
+
+  public void invalidate() {
+    head = null;
+  }
+
+  public boolean isValid() {
+    return head != null;
+  }
+
+  /**
+   * whether the block with the parent hash extends the tracked head.
+   */
+  public boolean follows(Sha256Hash parentHash) {
+    return head != null && head.equals(parentHash);
+  }
+
+  /**
+   * move the witness to its new block num, witnesses not active are not counted.
+   */
+  public void update(ByteString address, long blockNum, Sha256Hash head) {
+    this.head = head;
+    Long old = latestBlockNums.get(address);
+    if (old == null || old == blockNum) {
+      return;
+    }
+    latestBlockNums.put(address, blockNum);
+
+    int from = Arrays.binarySearch(sortedBlockNums, old);
+    int to = Arrays.binarySearch(sortedBlockNums, blockNum);
+    if (to < 0) {
+      to = -to - 1;
+    }
+    if (from < to) {
+      // the slot left by the old num is taken by the elements in between
+      to--;
+      System.arraycopy(sortedBlockNums, from + 1, sortedBlockNums, from, to - from);
+    } else {
+      System.arraycopy(sortedBlockNums, to, sortedBlockNums, to + 1, from - to);
+    }
+    sortedBlockNums[to] = blockNum;
+  }
+
+  /**
+   * the block num confirmed by the threshold of active witnesses, -1 without active witnesses.
+   */
+  public long getSolidifiedBlockNum() {
+    if (sortedBlockNums.length == 0) {
+      return -1;
+    }
+    int position = (int) (sortedBlockNums.length * (1 - ChainConstant.SOLIDIFIED_THRESHOLD));
+    return sortedBlockNums[position];
+  }
+}
@@ -13,6 +13,7 @@ import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
 import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.Sha256Hash;
 import org.tron.common.utils.StringUtil;
 import org.tron.common.utils.Time;
 import org.tron.core.capsule.AccountCapsule;
@@ -22,6 +23,7 @@ import org.tron.core.capsule.WitnessCapsule;
 import org.tron.core.config.Parameter.ChainConstant;
 import org.tron.core.db.AccountStore;
 import org.tron.core.db.Manager;
+import org.tron.core.db.VoteTallyStore;
 import org.tron.core.db.VotesStore;
 import org.tron.core.db.WitnessStore;
 import org.tron.core.exception.HeaderNotFound;
@@ -37,6 +39,12 @@ public class WitnessController {
   @Getter
   private boolean isGeneratingBlock;
 
+  private SolidifiedBlockTracker solidifiedBlockTracker = new SolidifiedBlockTracker();
+
+  // decoded from the witness schedule store, dropped when a block is revoked
+  private volatile WitnessSchedule activeSchedule;
+  private volatile WitnessSchedule shuffledSchedule;
+
   public static WitnessController createInstance(Manager manager) {
     WitnessController instance = new WitnessController();
     instance.setManager(manager);
@@ -64,12 +72,67 @@ public class WitnessController {
     return this.manager.getWitnessStore().get(address.toByteArray());
   }
 
+  /**
+   * the active witnesses, as a copy that can be modified.
+   */
   public List<ByteString> getActiveWitnesses() {
-    return this.manager.getWitnessScheduleStore().getActiveWitnesses();
+    return getActiveSchedule().toList();
+  }
+
+  public WitnessSchedule getActiveSchedule() {
+    WitnessSchedule schedule = activeSchedule;
+    if (schedule == null) {
+      synchronized (this) {
+        if (activeSchedule == null) {
+          activeSchedule = new WitnessSchedule(
+              this.manager.getWitnessScheduleStore().getActiveWitnesses());
+        }
+        schedule = activeSchedule;
+      }
+    }
+    return schedule;
   }
 
-  public void setActiveWitnesses(List<ByteString> addresses) {
+  public synchronized void setActiveWitnesses(List<ByteString> addresses) {
     this.manager.getWitnessScheduleStore().saveActiveWitnesses(addresses);
+    activeSchedule = new WitnessSchedule(addresses);
+    solidifiedBlockTracker.invalidate();
+  }
+
+  /**
+   * drop the schedules read from the store, after a block changing them may have been revoked.
+   */
+  public synchronized void invalidateSchedule() {
+    activeSchedule = null;
+    shuffledSchedule = null;
+  }
+
+  /**
+   * track the latest block num of the witness who produced the block, after the witness store is
+   * updated.
+   */
+  public void updateLatestBlockNum(BlockCapsule block) {
+    if (solidifiedBlockTracker.follows(block.getParentHash())) {
+      solidifiedBlockTracker.update(block.getWitnessAddress(), block.getNum(),
+          Sha256Hash.wrap(block.getBlockId().getBytes()));
+    } else {
+      rebuildSolidifiedBlockTracker(Sha256Hash.wrap(block.getBlockId().getBytes()));
+    }
+  }
+
+  /**
+   * get the latest solidified block num of the active witnesses, -1 if there is none.
+   */
+  public long getSolidifiedBlockNum() {
+    if (!solidifiedBlockTracker.isValid()) {
+      rebuildSolidifiedBlockTracker(manager.getDynamicPropertiesStore().getLatestBlockHeaderHash());
+    }
+    return solidifiedBlockTracker.getSolidifiedBlockNum();
+  }
+
+  private void rebuildSolidifiedBlockTracker(Sha256Hash head) {
+    solidifiedBlockTracker.rebuild(getActiveSchedule().asList(),
+        address -> getWitnesseByAddress(address).getLatestBlockNum(), head);
   }
 
   public void addWitness(ByteString address) {
@@ -79,11 +142,22 @@ public class WitnessController {
   }
 
   public List<ByteString> getCurrentShuffledWitnesses() {
-    return this.manager.getWitnessScheduleStore().getCurrentShuffledWitnesses();
+    WitnessSchedule schedule = shuffledSchedule;
+    if (schedule == null) {
+      synchronized (this) {
+        if (shuffledSchedule == null) {
+          shuffledSchedule = new WitnessSchedule(
+              this.manager.getWitnessScheduleStore().getCurrentShuffledWitnesses());
+        }
+        schedule = shuffledSchedule;
+      }
+    }
+    return schedule.toList();
   }
 
-  public void setCurrentShuffledWitnesses(List<ByteString> addresses) {
+  public synchronized void setCurrentShuffledWitnesses(List<ByteString> addresses) {
     this.manager.getWitnessScheduleStore().saveCurrentShuffledWitnesses(addresses);
+    shuffledSchedule = new WitnessSchedule(addresses);
   }
 
   /**
@@ -171,7 +245,7 @@ public class WitnessController {
   }
 
   public boolean activeWitnessesContain(final Set<ByteString> localWitnesses) {
-    List<ByteString> activeWitnesses = this.getActiveWitnesses();
+    WitnessSchedule activeWitnesses = this.getActiveSchedule();
     for (ByteString witnessAddress : localWitnesses) {
       if (activeWitnesses.contains(witnessAddress)) {
         return true;
@@ -191,7 +265,8 @@ public class WitnessController {
       throw new RuntimeException("currentSlot should be positive.");
     }
 
-    int numberActiveWitness = this.getActiveWitnesses().size();
+    WitnessSchedule activeWitnesses = this.getActiveSchedule();
+    int numberActiveWitness = activeWitnesses.size();
     int singleRepeat = this.manager.getDynamicPropertiesStore().getSingleRepeat();
     if (numberActiveWitness <= 0) {
       throw new RuntimeException("Active Witnesses is null.");
@@ -202,7 +277,7 @@ public class WitnessController {
         + ", witnessIndex" + witnessIndex
         + ", currentActiveWitnesses size:" + numberActiveWitness);
 
-    final ByteString scheduledWitness = this.getActiveWitnesses().get(witnessIndex);
+    final ByteString scheduledWitness = activeWitnesses.get(witnessIndex);
     logger.info("scheduledWitness:" + ByteArray.toHexString(scheduledWitness.toByteArray())
         + ", currentSlot:" + currentSlot);
 
@@ -239,6 +314,18 @@ public class WitnessController {
 //    }
   }
 
+  /**
+   * the vote change of every witness in this epoch, kept by the actuators once the tally is
+   * active.
+   */
+  private Map<ByteString, Long> countVoteTally() {
+    VoteTallyStore voteTallyStore = this.manager.getVoteTallyStore();
+    final Map<ByteString, Long> countWitness = voteTallyStore.getAllVoteCounts();
+    voteTallyStore.clear(countWitness.keySet());
+    logger.info("there is {} witnesses with votes changed in this epoch", countWitness.size());
+    return countWitness;
+  }
+
   private Map<ByteString, Long> countVote(VotesStore votesStore) {
     final Map<ByteString, Long> countWitness = Maps.newHashMap();
     final List<VotesCapsule> votesList = votesStore.getAllVotes();
@@ -298,10 +385,11 @@ public class WitnessController {
     VotesStore votesStore = manager.getVotesStore();
     AccountStore accountStore = manager.getAccountStore();
 
-    Map<ByteString, Long> countWitness = countVote(votesStore);
+    boolean voteTally = manager.getDynamicPropertiesStore().getAllowVoteTally() == 1;
+    Map<ByteString, Long> countWitness = voteTally ? countVoteTally() : countVote(votesStore);
 
     //Only possible during the initialization phase
-    if (countWitness.size() == 0) {
+    if (countWitness.size() == 0 && !voteTally) {
       logger.info("No vote, no change to witness.");
     } else {
       List<ByteString> currentWits = getActiveWitnesses();
@@ -353,6 +441,13 @@ public class WitnessController {
               + ",\nafter:{} " + StringUtil.getAddressStringList(getActiveWitnesses()));
     }
 
+    // switch at the first maintenance from the fork block on, the votes store was just counted
+    // and reset
+    if (!voteTally && manager.getDynamicPropertiesStore().getLatestBlockHeaderNumber()
+        >= ChainConstant.VOTE_TALLY_ACTIVATION_NUM) {
+      manager.getDynamicPropertiesStore().saveAllowVoteTally(1);
+      logger.info("votes are tallied by the actuators from now on");
+    }
   }
 
   public int calculateParticipationRate() {
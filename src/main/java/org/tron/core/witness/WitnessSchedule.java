@@ -0,0 +1,57 @@
+package org.tron.core.witness;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a witness list of the schedule store, with the index of every address.
+ */
+public class WitnessSchedule {
+
+  private final ByteString[] witnesses;
+  private final Map<ByteString, Integer> indexes;
+
+  public WitnessSchedule(List<ByteString> witnesses) {
+    this.witnesses = witnesses.toArray(new ByteString[0]);
+    this.indexes = new HashMap<>(this.witnesses.length * 2);
+    for (int i = this.witnesses.length - 1; i >= 0; i--) {
+      indexes.put(this.witnesses[i], i);
+    }
+  }
+
+  public int size() {
+    return witnesses.length;
+  }
+
+  public ByteString get(int index) {
+    return witnesses[index];
+  }
+
+  public boolean contains(ByteString address) {
+    return indexes.containsKey(address);
+  }
+
+  /**
+   * the first index of the address, -1 if it is not in the schedule.
+   */
+  public int indexOf(ByteString address) {
+    Integer index = indexes.get(address);
+    return index == null ? -1 : index;
+  }
+
+  public List<ByteString> asList() {
+    return Collections.unmodifiableList(Arrays.asList(witnesses));
+  }
+
+  /**
+   * a mutable copy of the witnesses.
+   */
+  public List<ByteString> toList() {
+    return new ArrayList<>(Arrays.asList(witnesses));
+  }
+}
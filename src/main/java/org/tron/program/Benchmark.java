@@ -0,0 +1,144 @@
+package org.tron.program;
+
+import com.beust.jcommander.JCommander;
+import com.beust.jcommander.Parameter;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.utils.ByteArray;
+import org.tron.core.Constant;
+import org.tron.core.benchmark.BenchmarkReport;
+import org.tron.core.benchmark.ChainReplayer;
+import org.tron.core.benchmark.LoadGenerator;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.Manager;
+
+/**
+ * Measures a node offline. The options after {@code --} are the ones of the full node, they pick
+ * the config and the database directory.
+ *
+ * <pre>
+ * Benchmark generate --blocks 100 --tps 2000 --accounts 1000 -- -d bench -w
+ * Benchmark export --from 1 --to 5000 --file blocks.bin -- -d output-directory
+ * Benchmark replay --file blocks.bin --report replay.txt -- -d replay
+ * Benchmark replay --generated --accounts 1000 --file blocks.bin -- -d replay -w
+ * </pre>
+ *
+ * <p>generate needs a new database and a local witness, replay a new database with the genesis
+ * of the exporting node. A generated chain is replayed with --generated and the accounts, seed
+ * and local witness it was generated with, which recreate its synthetic genesis.</p>
+ */
+@Slf4j
+public class Benchmark {
+
+  @Parameter(description = "generate | export | replay")
+  private List<String> mode = new ArrayList<>();
+
+  @Parameter(names = {"--blocks"}, description = "Blocks to generate")
+  private int blocks = 100;
+
+  @Parameter(names = {"--tps"}, description = "Transactions per second of chain time")
+  private int tps = 1000;
+
+  @Parameter(names = {"--accounts"}, description = "Funded accounts of the synthetic genesis")
+  private int accounts = 1000;
+
+  @Parameter(names = {"--mix"}, description = "Weights of transfer:asset:vote transactions")
+  private String mix = "8:1:1";
+
+  @Parameter(names = {"--seed"}, description = "Seed of the accounts and transactions")
+  private long seed = 1;
+
+  @Parameter(names = {"--from"}, description = "First block to export")
+  private long from = 1;
+
+  @Parameter(names = {"--to"}, description = "Last block to export")
+  private long to = Long.MAX_VALUE;
+
+  @Parameter(names = {"--file"}, description = "Block file to export or replay")
+  private String file = "blocks.bin";
+
+  @Parameter(names = {"--generated"}, description = "Replay a generated chain")
+  private boolean generated;
+
+  @Parameter(names = {"--report"}, description = "Also write the report into the file")
+  private String report;
+
+  @Parameter(names = {"-h", "--help"}, help = true, description = "HELP message")
+  private boolean help;
+
+  public static void main(String[] args) throws Exception {
+    int split = Arrays.asList(args).indexOf("--");
+    String[] own = split < 0 ? args : Arrays.copyOfRange(args, 0, split);
+    String[] node = split < 0 ? new String[0] : Arrays.copyOfRange(args, split + 1, args.length);
+
+    Benchmark benchmark = new Benchmark();
+    JCommander commander = JCommander.newBuilder().addObject(benchmark).build();
+    commander.parse(own);
+    if (benchmark.help || benchmark.mode.size() != 1) {
+      commander.usage();
+      return;
+    }
+
+    Args.setParam(node, Constant.TESTNET_CONF);
+    // offline: the discovery and the peer server start their threads as the context is created
+    Args.getInstance().setNodeDiscoveryEnable(false);
+    Args.getInstance().setNodeListenPort(0);
+    AnnotationConfigApplicationContext context =
+        new AnnotationConfigApplicationContext(DefaultConfig.class);
+    try {
+      BenchmarkReport result = benchmark.run(context.getBean(Manager.class));
+      if (result != null) {
+        logger.info("\n{}", result.format());
+        if (StringUtils.isNotEmpty(benchmark.report)) {
+          Files.write(Paths.get(benchmark.report),
+              result.format().getBytes(StandardCharsets.UTF_8));
+        }
+      }
+    } finally {
+      context.close();
+    }
+  }
+
+  private BenchmarkReport run(Manager dbManager) throws Exception {
+    switch (mode.get(0)) {
+      case "generate":
+        int[] weights = Arrays.stream(mix.split(":")).mapToInt(Integer::parseInt).toArray();
+        if (weights.length != 3) {
+          throw new IllegalArgumentException("--mix needs three weights, got " + mix);
+        }
+        LoadGenerator generator = new LoadGenerator(dbManager, localWitnessKey(), accounts, seed);
+        generator.setMix(weights[0], weights[1], weights[2]);
+        generator.initGenesis();
+        return generator.run(blocks, tps);
+      case "export":
+        new ChainReplayer(dbManager).export(from, to, new File(file));
+        return null;
+      case "replay":
+        if (generated) {
+          new LoadGenerator(dbManager, localWitnessKey(), accounts, seed).initGenesis();
+        }
+        return new ChainReplayer(dbManager).replay(new File(file));
+      default:
+        throw new IllegalArgumentException("unknown mode " + mode.get(0));
+    }
+  }
+
+  private byte[] localWitnessKey() {
+    String privateKey = Args.getInstance().getLocalWitnesses() == null ? null
+        : Args.getInstance().getLocalWitnesses().getPrivateKey();
+    if (StringUtils.isEmpty(privateKey)) {
+      throw new IllegalArgumentException(mode.get(0) + " needs a local witness, set localwitness "
+          + "in the config or pass -p");
+    }
+    return ByteArray.fromHexString(privateKey);
+  }
+}
@@ -1,6 +1,8 @@
 package org.tron.program;
 
+import java.io.File;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.tron.common.application.Application;
@@ -8,6 +10,8 @@ import org.tron.common.application.ApplicationFactory;
 import org.tron.core.Constant;
 import org.tron.core.config.DefaultConfig;
 import org.tron.core.config.args.Args;
+import org.tron.core.db.snapshot.SnapshotExporter;
+import org.tron.core.exception.SnapshotException;
 import org.tron.core.services.RpcApiService;
 import org.tron.core.services.WitnessService;
 
@@ -39,9 +43,24 @@ public class FullNode {
     appT.initServices(cfgArgs);
     appT.startServices();
     appT.startup();
+    exportSnapshot(cfgArgs, appT);
     rpcApiService.blockUntilShutdown();
   }
 
+  private static void exportSnapshot(Args cfgArgs, Application app) {
+    if (StringUtils.isEmpty(cfgArgs.getSnapshotExportDirectory())) {
+      return;
+    }
+    new Thread(() -> {
+      try {
+        new SnapshotExporter(app.getDbManager())
+            .export(new File(cfgArgs.getSnapshotExportDirectory()));
+      } catch (SnapshotException e) {
+        logger.error("export snapshot failed", e);
+      }
+    }, "snapshot-export").start();
+  }
+
   public static void shutdown(final Application app) {
     logger.info("********register application shutdown hook********");
     Runtime.getRuntime().addShutdownHook(new Thread(app::shutdown));
@@ -0,0 +1,113 @@
+package org.tron.common.crypto;
+
+import com.google.protobuf.ByteString;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.crypto.cryptohash.Keccak256;
+import org.tron.protos.Protocol.BlockHeader;
+
+public class HasherTest {
+
+  private static byte[] randomBytes(Random random, int length) {
+    byte[] bytes = new byte[length];
+    random.nextBytes(bytes);
+    return bytes;
+  }
+
+  private static byte[] referenceSha256(byte[] input) throws Exception {
+    return MessageDigest.getInstance("SHA-256").digest(input);
+  }
+
+  private static byte[] referenceKeccak256(byte[] input) {
+    return new Keccak256().digest(input);
+  }
+
+  @Test
+  public void testBytes() throws Exception {
+    Random random = new Random(1);
+    for (int length : new int[]{0, 1, 31, 135, 136, 137, 1000, 70000}) {
+      byte[] input = randomBytes(random, length);
+      Assert.assertArrayEquals(referenceSha256(input), Hasher.sha256(input));
+      Assert.assertArrayEquals(referenceKeccak256(input), Hasher.keccak256(input));
+      Assert.assertArrayEquals(referenceKeccak256(input), Hash.sha3(input));
+    }
+    // the engines are reset between calls
+    byte[] input = randomBytes(random, 100);
+    Assert.assertArrayEquals(Hasher.sha256(input), Hasher.sha256(input));
+    Assert.assertArrayEquals(Hasher.keccak256(input), Hasher.keccak256(input));
+  }
+
+  @Test
+  public void testRangesAndBuffers() throws Exception {
+    Random random = new Random(2);
+    byte[] input = randomBytes(random, 500);
+    byte[] left = Arrays.copyOfRange(input, 0, 200);
+    byte[] middle = Arrays.copyOfRange(input, 100, 400);
+    byte[] right = Arrays.copyOfRange(input, 200, 500);
+
+    Assert.assertArrayEquals(referenceSha256(middle), Hasher.sha256(input, 100, 300));
+    Assert.assertArrayEquals(referenceKeccak256(middle), Hasher.keccak256(input, 100, 300));
+    Assert.assertArrayEquals(referenceSha256(input), Hasher.sha256(left, right));
+    Assert.assertArrayEquals(referenceKeccak256(input), Hasher.keccak256(left, right));
+
+    Assert.assertArrayEquals(referenceSha256(middle),
+        Hasher.sha256(ByteBuffer.wrap(input, 100, 300)));
+    Assert.assertArrayEquals(referenceKeccak256(middle),
+        Hasher.keccak256(ByteBuffer.wrap(input, 100, 300)));
+    ByteBuffer direct = ByteBuffer.allocateDirect(input.length);
+    direct.put(input).flip();
+    Assert.assertArrayEquals(referenceKeccak256(input), Hasher.keccak256(direct));
+    Assert.assertFalse(direct.hasRemaining());
+  }
+
+  @Test
+  public void testMessage() throws Exception {
+    BlockHeader header = BlockHeader.newBuilder()
+        .setRawData(BlockHeader.raw.newBuilder().setNumber(42).setTimestamp(1000)
+            .setParentHash(ByteString.copyFrom(new byte[32])))
+        .setWitnessSignature(ByteString.copyFrom(randomBytes(new Random(3), 65)))
+        .build();
+    Assert.assertArrayEquals(referenceSha256(header.toByteArray()), Hasher.sha256(header));
+    Assert.assertArrayEquals(referenceKeccak256(header.toByteArray()), Hasher.keccak256(header));
+  }
+
+  @Test
+  public void testConcurrent() throws Exception {
+    Random random = new Random(4);
+    List<byte[]> inputs = new ArrayList<>();
+    for (int i = 0; i < 200; i++) {
+      inputs.add(randomBytes(random, random.nextInt(2000)));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Boolean>> results = new ArrayList<>();
+      for (int t = 0; t < 8; t++) {
+        results.add(executor.submit(() -> {
+          for (int round = 0; round < 20; round++) {
+            for (byte[] input : inputs) {
+              if (!MessageDigest.isEqual(referenceSha256(input), Hash.sha256(input))
+                  || !MessageDigest.isEqual(referenceKeccak256(input), Hash.sha3(input))) {
+                return false;
+              }
+            }
+          }
+          return true;
+        }));
+      }
+      for (Future<Boolean> result : results) {
+        Assert.assertTrue(result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
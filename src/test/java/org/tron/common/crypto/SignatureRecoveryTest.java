@@ -0,0 +1,69 @@
+package org.tron.common.crypto;
+
+import java.security.SignatureException;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.crypto.ECKey.ECDSASignature;
+import org.tron.common.utils.Sha256Hash;
+
+public class SignatureRecoveryTest {
+
+  private final Random random = new Random(41);
+
+  private byte[] randomHash() {
+    byte[] data = new byte[40];
+    random.nextBytes(data);
+    return Sha256Hash.hash(data);
+  }
+
+  @Test
+  public void testSameAsECKey() throws SignatureException {
+    int size = 64;
+    byte[][] hashes = new byte[size][];
+    byte[][] signatures = new byte[size][];
+    byte[][] expected = new byte[size][];
+    for (int i = 0; i < size; i++) {
+      ECKey key = new ECKey();
+      hashes[i] = randomHash();
+      ECDSASignature signature = key.sign(hashes[i]);
+      signatures[i] = signature.toByteArray();
+      expected[i] = ECKey.signatureToAddress(hashes[i], signature.toBase64());
+      Assert.assertArrayEquals(key.getAddress(), expected[i]);
+      Assert.assertArrayEquals(expected[i],
+          SignatureRecovery.recoverAddress(hashes[i], signatures[i]));
+    }
+
+    byte[][] addresses = SignatureRecovery.recoverAddresses(hashes, signatures);
+    for (int i = 0; i < size; i++) {
+      Assert.assertArrayEquals(expected[i], addresses[i]);
+    }
+  }
+
+  @Test
+  public void testInvalidSignatures() {
+    ECKey key = new ECKey();
+    byte[] hash = randomHash();
+    byte[] good = key.sign(hash).toByteArray();
+    byte[] badV = good.clone();
+    badV[64] = 9;
+    byte[] zeroR = good.clone();
+    Arrays.fill(zeroR, 0, 32, (byte) 0);
+
+    byte[][] addresses = SignatureRecovery.recoverAddresses(
+        new byte[][]{hash, hash, hash, hash},
+        new byte[][]{badV, good, zeroR, new byte[10]});
+    Assert.assertNull(addresses[0]);
+    Assert.assertArrayEquals(key.getAddress(), addresses[1]);
+    Assert.assertNull(addresses[2]);
+    Assert.assertNull(addresses[3]);
+
+    try {
+      SignatureRecovery.recoverAddress(hash, badV);
+      Assert.fail();
+    } catch (SignatureException e) {
+      // expected
+    }
+  }
+}
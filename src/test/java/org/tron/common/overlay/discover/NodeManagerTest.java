@@ -0,0 +1,65 @@
+package org.tron.common.overlay.discover;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.tron.common.overlay.discover.message.Message;
+import org.tron.common.overlay.discover.message.NeighborsMessage;
+import org.tron.core.Constant;
+import org.tron.core.config.args.Args;
+
+public class NodeManagerTest {
+
+  private static NodeManager nodeManager;
+
+  @BeforeClass
+  public static void init() {
+    Args.setParam(new String[]{}, Constant.TEST_CONF);
+    Args.getInstance().setNodeDiscoveryEnable(false);
+    nodeManager = new NodeManager(null);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    nodeManager.close();
+    Args.clearParam();
+  }
+
+  private Node node(int seed, int port) {
+    byte[] id = new byte[64];
+    Arrays.fill(id, (byte) seed);
+    return new Node(id, "127.0.0." + seed, port);
+  }
+
+  private List<Node> decode(byte[] encoded) throws Exception {
+    NeighborsMessage message = (NeighborsMessage) Message.parse(
+        new NeighborsMessage(nodeManager.homeNode, encoded).getSendData());
+    return message.getNodes();
+  }
+
+  @Test
+  public void testEncodedNeighbours() throws Exception {
+    Node first = node(3, 18890);
+    List<Node> neighbours = Arrays.asList(first, node(4, 18891));
+    byte[] encoded = nodeManager.getEncodedNeighbours(neighbours);
+    Assert.assertSame(encoded, nodeManager.getEncodedNeighbours(neighbours));
+    // other instances of the same nodes get the same reply
+    Assert.assertSame(encoded,
+        nodeManager.getEncodedNeighbours(Arrays.asList(node(3, 18890), node(4, 18891))));
+
+    // a pong brought the real id of the node
+    byte[] id = new byte[64];
+    Arrays.fill(id, (byte) 5);
+    first.setId(id);
+    encoded = nodeManager.getEncodedNeighbours(neighbours);
+    Assert.assertEquals(first.getHexId(), decode(encoded).get(0).getHexId());
+
+    first.setPort(18892);
+    encoded = nodeManager.getEncodedNeighbours(neighbours);
+    Assert.assertEquals(18892, decode(encoded).get(0).getPort());
+    Assert.assertSame(encoded, nodeManager.getEncodedNeighbours(neighbours));
+  }
+}
@@ -0,0 +1,24 @@
+package org.tron.common.overlay.discover;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RttHistogramTest {
+
+  @Test
+  public void testBuckets() {
+    RttHistogram histogram = new RttHistogram();
+    histogram.add(0);
+    histogram.add(10);
+    histogram.add(11);
+    histogram.add(450);
+    histogram.add(60000);
+
+    long[] counts = histogram.getCounts();
+    Assert.assertEquals(RttHistogram.getBounds().length + 1, counts.length);
+    Assert.assertEquals(2, counts[0]);
+    Assert.assertEquals(1, counts[1]);
+    Assert.assertEquals(1, counts[5]);
+    Assert.assertEquals(1, counts[counts.length - 1]);
+  }
+}
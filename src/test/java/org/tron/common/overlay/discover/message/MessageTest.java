@@ -0,0 +1,49 @@
+package org.tron.common.overlay.discover.message;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.overlay.discover.Node;
+
+public class MessageTest {
+
+  private Node node(int seed, int port) {
+    byte[] id = new byte[64];
+    Arrays.fill(id, (byte) seed);
+    return new Node(id, "127.0.0." + seed, port);
+  }
+
+  @Test
+  public void testParseFromBuffer() throws Exception {
+    Node from = node(1, 18888);
+    byte[] target = node(2, 0).getId();
+    byte[] wire = new FindNodeMessage(from, target).getSendData();
+
+    // the body sits inside a larger buffer, as it does in a datagram
+    byte[] packet = new byte[wire.length + 8];
+    System.arraycopy(wire, 0, packet, 4, wire.length);
+    Message message = Message.parse(packet[4], ByteBuffer.wrap(packet, 5, wire.length - 1));
+
+    Assert.assertTrue(message instanceof FindNodeMessage);
+    Assert.assertArrayEquals(target, ((FindNodeMessage) message).getTargetId());
+    Assert.assertArrayEquals(from.getId(), message.getNodeId());
+    Assert.assertArrayEquals(wire, message.getSendData());
+  }
+
+  @Test
+  public void testSharedNeighbours() throws Exception {
+    Node from = node(1, 18888);
+    List<Node> neighbours = Arrays.asList(node(3, 18890), node(4, 18891));
+    byte[] encoded = NeighborsMessage.encodeNeighbours(neighbours);
+
+    NeighborsMessage message = (NeighborsMessage) Message.parse(
+        new NeighborsMessage(from, encoded).getSendData());
+    Assert.assertArrayEquals(from.getId(), message.getNodeId());
+    Assert.assertEquals(2, message.getNodes().size());
+    Assert.assertEquals(neighbours.get(1).getHexId(), message.getNodes().get(1).getHexId());
+    Assert.assertEquals(neighbours.get(1).getHost(), message.getNodes().get(1).getHost());
+    Assert.assertEquals(18891, message.getNodes().get(1).getPort());
+  }
+}
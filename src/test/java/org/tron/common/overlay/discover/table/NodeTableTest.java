@@ -0,0 +1,58 @@
+package org.tron.common.overlay.discover.table;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.overlay.discover.Node;
+
+public class NodeTableTest {
+
+  private final Random random = new Random(7);
+
+  private Node randomNode(int port) {
+    byte[] id = new byte[64];
+    random.nextBytes(id);
+    return new Node(id, "127.0.0.1", port);
+  }
+
+  @Test
+  public void testAddAndDrop() {
+    NodeTable table = new NodeTable(randomNode(18888));
+    Node node = randomNode(18889);
+    Assert.assertNull(table.addNode(node));
+    // the same id with another endpoint is the same entry
+    Assert.assertNull(table.addNode(new Node(node.getId().clone(), "127.0.0.2", 18889)));
+    Assert.assertEquals(1, table.getNodesCount());
+    Assert.assertTrue(table.contains(node));
+
+    table.dropNode(node);
+    Assert.assertEquals(0, table.getNodesCount());
+    Assert.assertFalse(table.contains(node));
+    table.dropNode(node);
+    Assert.assertEquals(0, table.getNodesCount());
+  }
+
+  @Test
+  public void testFullBucket() {
+    Node home = randomNode(18888);
+    NodeTable table = new NodeTable(home);
+    // flipping the first bit puts every node into the farthest bucket
+    int added = 0;
+    Node challenged = null;
+    for (int port = 20000; challenged == null; port++) {
+      Node node = randomNode(port);
+      node.getId()[0] = (byte) (home.getId()[0] ^ 0x80);
+      challenged = table.addNode(node);
+      if (challenged == null) {
+        added++;
+      }
+    }
+    Assert.assertEquals(KademliaOptions.BUCKET_SIZE, added);
+    Assert.assertEquals(KademliaOptions.BUCKET_SIZE, table.getNodesCount());
+    Assert.assertTrue(table.contains(challenged));
+
+    List<Node> closest = table.getClosestNodes(home.getId());
+    Assert.assertEquals(KademliaOptions.BUCKET_SIZE, closest.size());
+  }
+}
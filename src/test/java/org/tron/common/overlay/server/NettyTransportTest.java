@@ -0,0 +1,61 @@
+package org.tron.common.overlay.server;
+
+import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.core.Constant;
+import org.tron.core.config.args.Args;
+
+public class NettyTransportTest {
+
+  @Before
+  public void init() {
+    Args.setParam(new String[]{}, Constant.TEST_CONF);
+  }
+
+  @After
+  public void destroy() {
+    Args.clearParam();
+  }
+
+  @Test
+  public void testNio() {
+    Args.getInstance().setNodeEpollEnable(false);
+    Args.getInstance().setUdpNettyWorkThreadNum(4);
+    Assert.assertFalse(NettyTransport.isEpoll());
+    Assert.assertEquals(NioServerSocketChannel.class, NettyTransport.serverSocketChannel());
+    Assert.assertEquals(NioSocketChannel.class, NettyTransport.socketChannel());
+    Assert.assertEquals(NioDatagramChannel.class, NettyTransport.datagramChannel());
+    // NIO cannot share the port
+    Assert.assertEquals(1, NettyTransport.datagramChannelCount());
+  }
+
+  @Test
+  public void testEpoll() {
+    Args.getInstance().setNodeEpollEnable(true);
+    Args.getInstance().setUdpNettyWorkThreadNum(4);
+    Assert.assertEquals(Epoll.isAvailable(), NettyTransport.isEpoll());
+    if (Epoll.isAvailable()) {
+      Assert.assertEquals(EpollDatagramChannel.class, NettyTransport.datagramChannel());
+      Assert.assertEquals(4, NettyTransport.datagramChannelCount());
+    }
+  }
+
+  @Test
+  public void testWriteBufferWaterMark() {
+    Args args = Args.getInstance();
+    Assert.assertTrue(args.getNodeWriteBufferLowWaterMark() > 0);
+    args.setNodeWriteBufferLowWaterMark(8192);
+    args.setNodeWriteBufferHighWaterMark(4096);
+    WriteBufferWaterMark mark = NettyTransport.writeBufferWaterMark(args);
+    Assert.assertEquals(8192, mark.low());
+    Assert.assertEquals(8192, mark.high());
+  }
+}
@@ -0,0 +1,25 @@
+package org.tron.common.overlay.server;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PeerScorerTest {
+
+  @Test
+  public void testOrdering() {
+    double near = PeerScorer.score(200, 20, 0, 0, 0);
+    double far = PeerScorer.score(200, 800, 0, 0, 0);
+    Assert.assertTrue(near > far);
+
+    // no measured round trip counts as a moderate one
+    double unknown = PeerScorer.score(200, Double.NaN, 0, 0, 0);
+    Assert.assertTrue(unknown < near && unknown > far);
+
+    double delivering = PeerScorer.score(200, 800, 20, 0, 0);
+    Assert.assertTrue(delivering > far);
+    Assert.assertEquals(delivering, PeerScorer.score(200, 800, 1000, 0, 0), 0);
+
+    Assert.assertTrue(PeerScorer.score(200, 20, 0, 50, 0) < near);
+    Assert.assertTrue(PeerScorer.score(200, 20, 0, 0, 2) < near);
+  }
+}
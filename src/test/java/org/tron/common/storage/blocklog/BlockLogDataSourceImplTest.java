@@ -0,0 +1,181 @@
+package org.tron.common.storage.blocklog;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Paths;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.common.utils.FileUtil;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.Constant;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.config.args.Args;
+
+@Slf4j
+public class BlockLogDataSourceImplTest {
+
+  private static final String dbPath = "output-blocklog-test";
+  private static final int SEGMENT_SIZE = 1024;
+  private BlockLogDataSourceImpl dataSource;
+
+  @Before
+  public void init() {
+    Args.setParam(new String[]{"--output-directory", dbPath}, Constant.TEST_CONF);
+    dataSource = open();
+  }
+
+  @After
+  public void destroy() {
+    dataSource.closeDB();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private BlockLogDataSourceImpl open() {
+    BlockLogDataSourceImpl source =
+        new BlockLogDataSourceImpl(dbPath + File.separator, "block-log", SEGMENT_SIZE);
+    source.initDB();
+    return source;
+  }
+
+  private static byte[] key(long num) {
+    return new BlockId(Sha256Hash.of(("block" + num).getBytes()), num).getBytes();
+  }
+
+  private static byte[] value(long num) {
+    return ("value of block " + num).getBytes();
+  }
+
+  private void putBlocks(long from, long to) {
+    for (long num = from; num <= to; num++) {
+      dataSource.putData(key(num), value(num));
+    }
+  }
+
+  @Test
+  public void testPutGet() {
+    putBlocks(0, 100);
+    Assert.assertEquals(100, dataSource.getTailHeight());
+    Assert.assertEquals(101, dataSource.getTotal());
+    for (long num = 0; num <= 100; num++) {
+      Assert.assertArrayEquals(value(num), dataSource.getData(key(num)));
+    }
+    Assert.assertNull(dataSource.getData(key(101)));
+    Assert.assertNull(dataSource.getData(new BlockId(Sha256Hash.ZERO_HASH, 5).getBytes()));
+
+    List<byte[]> next = dataSource.getValuesNext(key(10), 5);
+    Assert.assertEquals(5, next.size());
+    Assert.assertArrayEquals(value(10), next.get(0));
+    List<byte[]> latest = dataSource.getlatestValues(3);
+    Assert.assertEquals(3, latest.size());
+    Assert.assertArrayEquals(value(100), latest.get(0));
+  }
+
+  @Test
+  public void testDelete() {
+    putBlocks(0, 60);
+    dataSource.deleteData(key(60));
+    dataSource.deleteData(key(59));
+    Assert.assertEquals(58, dataSource.getTailHeight());
+    Assert.assertNull(dataSource.getData(key(60)));
+
+    dataSource.deleteData(key(10));
+    Assert.assertNull(dataSource.getData(key(10)));
+    Assert.assertEquals(58, dataSource.getTotal());
+
+    putBlocks(59, 70);
+    Assert.assertArrayEquals(value(70), dataSource.getData(key(70)));
+    try {
+      dataSource.putData(key(10), value(10));
+      Assert.fail();
+    } catch (IllegalStateException e) {
+      logger.info(e.getMessage());
+    }
+  }
+
+  @Test
+  public void testReopen() {
+    putBlocks(0, 50);
+    dataSource.deleteData(key(50));
+    dataSource.closeDB();
+
+    dataSource = open();
+    Assert.assertEquals(49, dataSource.getTailHeight());
+    Assert.assertArrayEquals(value(49), dataSource.getData(key(49)));
+    putBlocks(50, 60);
+    Assert.assertArrayEquals(value(60), dataSource.getData(key(60)));
+  }
+
+  private File getFile(String name) {
+    return Paths.get(dbPath, Args.getInstance().getStorage().getDirectory(), "block-log", name)
+        .toFile();
+  }
+
+  @Test
+  public void testReleaseSegments() {
+    putBlocks(0, 100);
+    for (long num = 0; num < 60; num++) {
+      dataSource.deleteData(key(num));
+    }
+    Assert.assertTrue(dataSource.releaseSegments() > 0);
+    Assert.assertFalse(getFile("blocks-000000.log").exists());
+    Assert.assertEquals(0, dataSource.releaseSegments());
+    for (long num = 60; num <= 100; num++) {
+      Assert.assertArrayEquals(value(num), dataSource.getData(key(num)));
+    }
+    Assert.assertEquals(41, dataSource.getTotal());
+
+    dataSource.closeDB();
+    dataSource = open();
+    Assert.assertEquals(100, dataSource.getTailHeight());
+    Assert.assertArrayEquals(value(60), dataSource.getData(key(60)));
+    putBlocks(101, 110);
+    Assert.assertArrayEquals(value(110), dataSource.getData(key(110)));
+    Assert.assertFalse(getFile("blocks-000000.log").exists());
+  }
+
+  @Test
+  public void testRecoverUnindexedRecords() throws IOException {
+    putBlocks(0, 40);
+    dataSource.closeDB();
+
+    try (RandomAccessFile index = new RandomAccessFile(getFile("height.idx"), "rw")) {
+      index.seek(30 * 8);
+      index.write(new byte[11 * 8]);
+    }
+
+    dataSource = open();
+    Assert.assertEquals(40, dataSource.getTailHeight());
+    for (long num = 0; num <= 40; num++) {
+      Assert.assertArrayEquals(value(num), dataSource.getData(key(num)));
+    }
+  }
+
+  @Test
+  public void testRecoverCorruptedTail() throws IOException {
+    putBlocks(0, 40);
+    dataSource.closeDB();
+
+    long pointer;
+    try (RandomAccessFile index = new RandomAccessFile(getFile("height.idx"), "r")) {
+      index.seek(40 * 8);
+      pointer = index.readLong() - 1;
+    }
+    String segment = String.format("blocks-%06d.log", pointer >>> 32);
+    try (RandomAccessFile file = new RandomAccessFile(getFile(segment), "rw")) {
+      file.seek((int) pointer + 4 + 32);
+      file.write('x');
+    }
+
+    dataSource = open();
+    Assert.assertEquals(39, dataSource.getTailHeight());
+    Assert.assertNull(dataSource.getData(key(40)));
+    putBlocks(40, 45);
+    Assert.assertArrayEquals(value(45), dataSource.getData(key(45)));
+  }
+}
@@ -43,6 +43,7 @@ import org.tron.core.capsule.TransactionCapsule;
 import org.tron.core.config.DefaultConfig;
 import org.tron.core.config.args.Args;
 import org.tron.core.db.Manager;
+import org.tron.core.exception.HistoryPrunedException;
 import org.tron.protos.Contract.TransferContract;
 import org.tron.protos.Protocol.Block;
 import org.tron.protos.Protocol.BlockHeader;
@@ -280,7 +281,7 @@ public class WalletTest {
 
   @Ignore
   @Test
-  public void getTransactionById() {
+  public void getTransactionById() throws HistoryPrunedException {
     Transaction transactionById = wallet.getTransactionById(
         ByteString.copyFrom(new TransactionCapsule(transaction1).getTransactionId().getBytes()));
     Assert.assertEquals("getTransactionById1", transaction1, transactionById);
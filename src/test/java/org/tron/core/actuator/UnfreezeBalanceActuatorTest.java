@@ -288,5 +288,40 @@ public class UnfreezeBalanceActuatorTest {
 
   }
 
+  @Test
+  public void testClearVotesWithVoteTally() {
+    byte[] ownerAddressBytes = ByteArray.fromHexString(OWNER_ADDRESS);
+    ByteString ownerAddress = ByteString.copyFrom(ownerAddressBytes);
+    long now = System.currentTimeMillis();
+    dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderTimestamp(now);
+    dbManager.getDynamicPropertiesStore().saveAllowVoteTally(1);
+
+    AccountCapsule accountCapsule = dbManager.getAccountStore().get(ownerAddressBytes);
+    accountCapsule.addVotes(ownerAddress, 100);
+    accountCapsule.setFrozen(1_000_000_000L, now);
+    dbManager.getAccountStore().put(accountCapsule.createDbKey(), accountCapsule);
+    dbManager.getVotesStore().reset();
+    dbManager.getVoteTallyStore().addVoteCount(ownerAddress, 100);
+    UnfreezeBalanceActuator actuator = new UnfreezeBalanceActuator(
+        getContract(OWNER_ADDRESS), dbManager);
+    TransactionResultCapsule ret = new TransactionResultCapsule();
+    try {
+      actuator.validate();
+      actuator.execute(ret);
+      Assert.assertEquals(0, dbManager.getVoteTallyStore().getVoteCount(ownerAddress));
+      Assert.assertEquals(0,
+          dbManager.getAccountStore().get(ownerAddressBytes).getVotesList().size());
+      Assert.assertNull(dbManager.getVotesStore().get(ownerAddressBytes));
+    } catch (ContractValidateException e) {
+      Assert.assertFalse(e instanceof ContractValidateException);
+    } catch (ContractExeException e) {
+      Assert.assertFalse(e instanceof ContractExeException);
+    } finally {
+      dbManager.getDynamicPropertiesStore().saveAllowVoteTally(0);
+      dbManager.getVoteTallyStore().clear(dbManager.getVoteTallyStore().getAllVoteCounts()
+          .keySet());
+    }
+  }
+
 }
 
@@ -0,0 +1,53 @@
+package org.tron.core.benchmark;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.core.benchmark.BenchmarkReport.Stage;
+
+public class BenchmarkReportTest {
+
+  @Test
+  public void testPercentiles() {
+    BenchmarkReport report = new BenchmarkReport("test");
+    Stage stage = report.stage("apply");
+    Assert.assertEquals(0, stage.percentile(50));
+
+    // more than the initial capacity, in reverse order
+    for (int i = 2000; i >= 1; i--) {
+      stage.add(i);
+    }
+    Assert.assertEquals(2000, stage.getCount());
+    Assert.assertEquals(2000L * 2001 / 2, stage.getTotalNanos());
+    Assert.assertEquals(1, stage.percentile(0));
+    Assert.assertEquals(1000, stage.percentile(50));
+    Assert.assertEquals(1980, stage.percentile(99));
+    Assert.assertEquals(2000, stage.percentile(100));
+    Assert.assertSame(stage, report.stage("apply"));
+  }
+
+  @Test
+  public void testReport() throws InterruptedException {
+    BenchmarkReport report = new BenchmarkReport("test");
+    report.stage("decode").add(1_000_000);
+    report.stage("apply").add(3_000_000);
+    report.start();
+    Thread.sleep(20);
+    report.addBlock(10);
+    report.addBlock(30);
+    report.addRejected(2);
+    report.stop();
+
+    Assert.assertEquals(2, report.getBlocks());
+    Assert.assertEquals(40, report.getTransactions());
+    Assert.assertEquals(2, report.getRejected());
+    Assert.assertTrue(report.getWallSeconds() >= 0.02);
+    Assert.assertEquals(40 / report.getWallSeconds(), report.getTps(), 1e-9);
+
+    String text = report.format();
+    Assert.assertTrue(text.startsWith("benchmark test\n"));
+    Assert.assertTrue(text.contains("blocks: 2, transactions: 40, rejected: 2"));
+    Assert.assertTrue(text.indexOf("stage decode") < text.indexOf("stage apply"));
+    Assert.assertTrue(text.contains("stage apply: count 1, total 0.003 s, p50 3.000 ms"));
+    Assert.assertTrue(text.contains("allocation: "));
+  }
+}
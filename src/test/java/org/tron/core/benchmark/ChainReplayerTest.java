@@ -0,0 +1,84 @@
+package org.tron.core.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.Manager;
+
+@Slf4j
+public class ChainReplayerTest {
+
+  private static final String generatePath = "output-benchmark-generate-test";
+  private static final String replayPath = "output-benchmark-replay-test";
+  private static final File blocksFile = new File("output-benchmark-blocks-test.bin");
+  private static final int ACCOUNTS = 10;
+  private static final long SEED = 7;
+  private static final int BLOCKS = 3;
+
+  @AfterClass
+  public static void destroy() {
+    FileUtil.deleteDir(new File(generatePath));
+    FileUtil.deleteDir(new File(replayPath));
+    blocksFile.delete();
+  }
+
+  private static AnnotationConfigApplicationContext newContext(String dbPath) {
+    Args.setParam(new String[]{"-d", dbPath}, Constant.TEST_CONF);
+    Args.getInstance().setNodeDiscoveryEnable(false);
+    Args.getInstance().setNodeListenPort(0);
+    return new AnnotationConfigApplicationContext(DefaultConfig.class);
+  }
+
+  private static byte[] witnessKey() {
+    return ByteArray.fromHexString(Args.getInstance().getLocalWitnesses().getPrivateKey());
+  }
+
+  @Test
+  public void generateExportReplay() throws Exception {
+    List<BlockId> generatedIds = new ArrayList<>();
+    BenchmarkReport generated;
+    AnnotationConfigApplicationContext context = newContext(generatePath);
+    try {
+      Manager dbManager = context.getBean(Manager.class);
+      LoadGenerator generator = new LoadGenerator(dbManager, witnessKey(), ACCOUNTS, SEED);
+      generator.initGenesis();
+      generated = generator.run(BLOCKS, 5);
+      Assert.assertEquals(BLOCKS, generated.getBlocks());
+      Assert.assertTrue(generated.getTransactions() > 0);
+      for (long num = 1; num <= BLOCKS; num++) {
+        generatedIds.add(dbManager.getBlockIdByNum(num));
+      }
+      Assert.assertEquals(BLOCKS, new ChainReplayer(dbManager).export(1, BLOCKS, blocksFile));
+    } finally {
+      context.destroy();
+      Args.clearParam();
+    }
+
+    context = newContext(replayPath);
+    try {
+      Manager dbManager = context.getBean(Manager.class);
+      new LoadGenerator(dbManager, witnessKey(), ACCOUNTS, SEED).initGenesis();
+      BenchmarkReport replayed = new ChainReplayer(dbManager).replay(blocksFile);
+      Assert.assertEquals(BLOCKS, replayed.getBlocks());
+      Assert.assertEquals(generated.getTransactions(), replayed.getTransactions());
+      Assert.assertEquals(BLOCKS, dbManager.getHeadBlockNum());
+      for (long num = 1; num <= BLOCKS; num++) {
+        Assert.assertEquals(generatedIds.get((int) num - 1), dbManager.getBlockIdByNum(num));
+      }
+    } finally {
+      context.destroy();
+      Args.clearParam();
+    }
+  }
+}
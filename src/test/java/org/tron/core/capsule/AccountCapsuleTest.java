@@ -102,6 +102,26 @@ public class AccountCapsuleTest {
     Assert.assertTrue(addAsssetTrue);
   }
 
+  @Test
+  public void dirtyFieldsTest() {
+    //test the updated fields are kept when the account is serialized once
+    AccountCapsule account = new AccountCapsule(accountCapsule.getData());
+    account.setBalance(100L);
+    account.setBandwidth(20L);
+    account.addAssetAmount(ByteString.copyFromUtf8("TokenY"), 30L);
+    account.setLatestAssetOperationTimeMap("TokenY", 40L);
+    account.setIsWitness(true);
+    account.setAllowance(50L);
+
+    AccountCapsule copy = new AccountCapsule(account.getData());
+    Assert.assertEquals(100L, copy.getBalance());
+    Assert.assertEquals(20L, copy.getBandwidth());
+    Assert.assertEquals(30L, copy.getAssetMap().get("TokenY").longValue());
+    Assert.assertEquals(40L, copy.getLatestAssetOperationTimeMap().get("TokenY").longValue());
+    Assert.assertTrue(copy.getIsWitness());
+    Assert.assertEquals(50L, copy.getAllowance());
+    Assert.assertSame(account.getInstance(), account.getInstance());
+  }
 
   public static byte[] randomBytes(int length) {
     //generate the random number
@@ -2,6 +2,11 @@ package org.tron.core.capsule;
 
 import com.google.protobuf.ByteString;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -12,9 +17,11 @@ import org.tron.common.utils.FileUtil;
 import org.tron.common.utils.Sha256Hash;
 import org.tron.core.Constant;
 import org.tron.core.Wallet;
+import org.tron.core.capsule.utils.MerkleTree;
 import org.tron.core.config.args.Args;
 import org.tron.core.exception.BadItemException;
 import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Transaction;
 import org.tron.protos.Protocol.Transaction.Contract.ContractType;
 
 @Slf4j
@@ -116,4 +123,40 @@ public class BlockCapsuleTest {
     Assert.assertEquals(1234L, blockCapsule0.getTimeStamp());
   }
 
+  @Test
+  public void testLargeBlockTransactions() throws Exception {
+    List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < BlockCapsule.PARALLEL_THRESHOLD + 10; i++) {
+      TransferContract contract = TransferContract.newBuilder()
+          .setAmount(i + 1)
+          .setOwnerAddress(ByteString.copyFrom("0x0000000000000000000".getBytes()))
+          .build();
+      transactions.add(
+          new TransactionCapsule(contract, ContractType.TransferContract).getInstance());
+    }
+    BlockCapsule block = new BlockCapsule(1234, ByteString.copyFrom(new byte[32]), 1,
+        transactions);
+
+    // every thread sees the same capsules
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    List<Future<List<TransactionCapsule>>> views = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      views.add(executor.submit(block::getTransactions));
+    }
+    for (Future<List<TransactionCapsule>> view : views) {
+      Assert.assertSame(block.getTransactions(), view.get());
+    }
+    executor.shutdown();
+
+    Assert.assertEquals(transactions.size(), block.getTransactionCount());
+    List<Sha256Hash> hashes = new ArrayList<>();
+    for (int i = 0; i < block.getTransactionCount(); i++) {
+      Assert.assertEquals(Sha256Hash.of(transactions.get(i).getRawData()),
+          block.getTransaction(i).getTransactionId());
+      hashes.add(Sha256Hash.of(transactions.get(i).toByteArray()));
+    }
+    Assert.assertEquals(new MerkleTree().createTree(hashes).getRoot().getHash(),
+        block.calcMerkleRoot());
+  }
+
 }
\ No newline at end of file
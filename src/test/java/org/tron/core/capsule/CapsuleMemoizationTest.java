@@ -0,0 +1,96 @@
+package org.tron.core.capsule;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.exception.BadItemException;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.Block;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+/**
+ * The capsules compute their ids, hashes and bytes once and drop them when they change.
+ */
+public class CapsuleMemoizationTest {
+
+  private static final int TRANSACTIONS_PER_BLOCK = 20;
+
+  private static Block createBlock() {
+    List<Transaction> transactions = new ArrayList<>();
+    for (int i = 0; i < TRANSACTIONS_PER_BLOCK; i++) {
+      TransferContract contract = TransferContract.newBuilder()
+          .setAmount(i + 1)
+          .setOwnerAddress(ByteString.copyFrom(Sha256Hash.of(ByteArray.fromInt(i)).getBytes()))
+          .setToAddress(ByteString.copyFrom(Sha256Hash.of(ByteArray.fromInt(-i)).getBytes()))
+          .build();
+      TransactionCapsule trx = new TransactionCapsule(contract, ContractType.TransferContract);
+      trx.setReference(i, Sha256Hash.ZERO_HASH.getBytes());
+      transactions.add(trx.getInstance());
+    }
+    return new BlockCapsule(3000, Sha256Hash.ZERO_HASH.getByteString(), 1, transactions)
+        .getInstance();
+  }
+
+  @Test
+  public void memoizedHashing() throws BadItemException {
+    byte[] blockData = createBlock().toByteArray();
+    BlockCapsule block = new BlockCapsule(blockData);
+    Assert.assertSame(blockData, block.getData());
+    Assert.assertSame(block.getBlockId(), block.getBlockId());
+    Assert.assertSame(block.getTransactions(), block.getTransactions());
+
+    List<Sha256Hash> hashes = new ArrayList<>();
+    for (TransactionCapsule trx : block.getTransactions()) {
+      Sha256Hash id = trx.getTransactionId();
+      Assert.assertSame(id, trx.getTransactionId());
+      Assert.assertSame(id, trx.getRawHash());
+      byte[] data = trx.getData();
+      Assert.assertSame(data, trx.getData());
+      Assert.assertEquals(data.length, trx.getSerializedSize());
+      hashes.add(trx.getHash());
+    }
+    // the merkle root hashes through the capsules, their hashes are not computed again
+    Sha256Hash merkleRoot = block.calcMerkleRoot();
+    for (int i = 0; i < TRANSACTIONS_PER_BLOCK; i++) {
+      Assert.assertSame(hashes.get(i), block.getTransactions().get(i).getHash());
+    }
+    Assert.assertEquals(merkleRoot, new BlockCapsule(blockData).calcMerkleRoot());
+
+    byte[] trxData = block.getTransactions().get(0).getData();
+    TransactionCapsule trx = new TransactionCapsule(trxData);
+    Assert.assertSame(trxData, trx.getData());
+    Assert.assertEquals(hashes.get(0), trx.getHash());
+  }
+
+  @Test
+  public void invalidatedOnMutation() throws Exception {
+    TransactionCapsule trx = new TransactionCapsule(
+        TransferContract.newBuilder().setAmount(1).build(), ContractType.TransferContract);
+    Sha256Hash id = trx.getTransactionId();
+    byte[] data = trx.getData();
+    Assert.assertSame(id, trx.getTransactionId());
+    Assert.assertSame(data, trx.getData());
+
+    trx.setReference(1, Sha256Hash.ZERO_HASH.getBytes());
+    Assert.assertNotEquals(id, trx.getTransactionId());
+    Sha256Hash hash = trx.getHash();
+    trx.sign(new ECKey().getPrivKeyBytes());
+    Assert.assertNotEquals(hash, trx.getHash());
+    Assert.assertEquals(trx.getHash(), new TransactionCapsule(trx.getData()).getHash());
+
+    BlockCapsule block = new BlockCapsule(1, Sha256Hash.ZERO_HASH, 3000,
+        ByteString.copyFromUtf8("witness"));
+    block.addTransaction(trx);
+    Sha256Hash blockId = block.getBlockId();
+    block.setMerkleRoot();
+    Assert.assertNotEquals(blockId, block.getBlockId());
+    Assert.assertEquals(trx.getHash(), block.calcMerkleRoot());
+    Assert.assertEquals(block.getBlockId(), new BlockCapsule(block.getData()).getBlockId());
+  }
+}
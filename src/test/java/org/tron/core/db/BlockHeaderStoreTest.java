@@ -0,0 +1,81 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BlockHeaderCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.exception.StoreException;
+
+@Slf4j
+public class BlockHeaderStoreTest {
+
+  private static final String dbPath = "output-blockHeaderStore-test";
+  private static AnnotationConfigApplicationContext context;
+  private static Manager dbManager;
+
+  static {
+    Args.setParam(new String[]{"-d", dbPath}, Constant.TEST_CONF);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+    context.destroy();
+  }
+
+  private BlockCapsule newBlock(long num) {
+    return new BlockCapsule(num, ByteString.copyFromUtf8("parent" + num), num * 3000,
+        ByteString.copyFromUtf8("witness"));
+  }
+
+  @Test
+  public void testHeaderOfBlock() throws StoreException {
+    BlockCapsule block = newBlock(1);
+    Assert.assertFalse(dbManager.containBlockInMainChain(block.getBlockId()));
+    dbManager.getBlockHeaderStore().put(block);
+
+    Assert.assertTrue(dbManager.containBlockInMainChain(block.getBlockId()));
+    Assert.assertTrue(dbManager.containBlock(block.getBlockId()));
+    BlockHeaderCapsule header = dbManager.getBlockHeaderById(block.getBlockId());
+    Assert.assertEquals(block.getBlockId(), header.getBlockId());
+    Assert.assertEquals(block.getParentBlockId(), header.getParentBlockId());
+    Assert.assertEquals(block.getTimeStamp(), header.getTimeStamp());
+    Assert.assertEquals(block.getWitnessAddress(), header.getWitnessAddress());
+  }
+
+  @Test
+  public void testFillFromBlockStore() {
+    BlockHeaderStore headerStore = dbManager.getBlockHeaderStore();
+    BlockCapsule block = newBlock(2);
+    dbManager.getBlockStore().put(block.getBlockId().getBytes(), block);
+    Assert.assertTrue(headerStore.isFilled());
+    headerStore.fillFrom(dbManager.getBlockStore());
+    Assert.assertFalse(headerStore.has(block.getBlockId().getBytes()));
+
+    // a fill that stopped after the genesis header, or headers that were not copied along
+    headerStore.reset();
+    headerStore.put(dbManager.getGenesisBlock());
+    Assert.assertFalse(headerStore.isFilled());
+    headerStore.fillFrom(dbManager.getBlockStore());
+    Assert.assertTrue(headerStore.has(block.getBlockId().getBytes()));
+    Assert.assertTrue(headerStore.has(dbManager.getGenesisBlockId().getBytes()));
+    Assert.assertTrue(headerStore.isFilled());
+  }
+}
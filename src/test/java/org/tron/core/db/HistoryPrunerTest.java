@@ -0,0 +1,110 @@
+package org.tron.core.db;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.ArrayList;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.Wallet;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.snapshot.SnapshotExporter;
+import org.tron.core.exception.HistoryPrunedException;
+import org.tron.core.exception.StoreException;
+import org.tron.core.net.node.NodeDelegateImpl;
+
+@Slf4j
+public class HistoryPrunerTest {
+
+  private static final String dbPath = "output-historyPruner-test";
+  private static AnnotationConfigApplicationContext context;
+  private static Manager dbManager;
+  private static Wallet wallet;
+
+  static {
+    Args.setParam(new String[]{"-d", dbPath}, Constant.TEST_CONF);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+    wallet = context.getBean(Wallet.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+    context.destroy();
+  }
+
+  private TransactionCapsule putBlock(long num) {
+    TransactionCapsule trx = new TransactionCapsule(
+        ByteArray.fromHexString(Wallet.getAddressPreFixString()
+            + "548794500882809695a8a687866e76d4271a1abc"), num);
+    BlockCapsule block = new BlockCapsule(num * 3000, ByteString.copyFromUtf8("parent" + num),
+        num, Lists.newArrayList(trx.getInstance()));
+    dbManager.getBlockStore().put(block.getBlockId().getBytes(), block);
+    dbManager.getBlockIndexStore().put(block.getBlockId());
+    dbManager.getTransactionStore().put(trx.getTransactionId().getBytes(), trx);
+    return trx;
+  }
+
+  @Test
+  public void pruneBelowRetentionWindow() throws StoreException {
+    TransactionCapsule trx1 = putBlock(1);
+    TransactionCapsule trx2 = putBlock(2);
+    TransactionCapsule trx3 = putBlock(3);
+    dbManager.getDynamicPropertiesStore()
+        .saveLatestSolidifiedBlockNum(SnapshotExporter.BLOCK_WINDOW + 2);
+
+    new HistoryPruner(dbManager, 1).prune();
+
+    Assert.assertEquals(2, dbManager.getDynamicPropertiesStore().getLatestPrunedBlockNum());
+    Assert.assertNull(dbManager.getTransactionStore().get(trx1.getTransactionId().getBytes()));
+    Assert.assertNull(dbManager.getTransactionStore().get(trx2.getTransactionId().getBytes()));
+    Assert.assertNotNull(dbManager.getTransactionStore().get(trx3.getTransactionId().getBytes()));
+    Assert.assertNotNull(dbManager.getBlockByNum(3));
+    Assert.assertNotNull(dbManager.getBlockIdByNum(1));
+
+    try {
+      wallet.getBlockByNum(1);
+      Assert.fail();
+    } catch (HistoryPrunedException e) {
+      logger.info(e.getMessage());
+    }
+    try {
+      wallet.getTransactionById(ByteString.copyFrom(trx1.getTransactionId().getBytes()));
+      Assert.fail();
+    } catch (HistoryPrunedException e) {
+      logger.info(e.getMessage());
+    }
+    Assert.assertEquals(Long.valueOf(1), dbManager.getPrunedTransactionStore()
+        .get(trx1.getTransactionId().getBytes()));
+    // never seen and malformed ids are not found rather than pruned
+    Assert.assertNull(wallet.getTransactionById(ByteString.copyFrom(new byte[32])));
+    Assert.assertNull(wallet.getTransactionById(ByteString.copyFromUtf8("abc")));
+    Assert.assertNotNull(wallet.getBlockByNum(3));
+
+    // a peer starting from the genesis block lacks pruned blocks
+    long headNum = dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber();
+    dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderNumber(3);
+    try {
+      Assert.assertTrue(new NodeDelegateImpl(dbManager).getLostBlockIds(new ArrayList<>())
+          .isEmpty());
+    } finally {
+      dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderNumber(headNum);
+    }
+  }
+}
@@ -4,6 +4,10 @@ import com.google.protobuf.ByteString;
 import java.io.File;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import javafx.util.Pair;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.AfterClass;
 import org.junit.Assert;
@@ -12,6 +16,7 @@ import org.junit.Test;
 import org.springframework.context.annotation.AnnotationConfigApplicationContext;
 import org.tron.common.utils.ByteArray;
 import org.tron.common.utils.FileUtil;
+import org.tron.common.utils.Sha256Hash;
 import org.tron.core.Constant;
 import org.tron.core.capsule.BlockCapsule;
 import org.tron.core.config.DefaultConfig;
@@ -114,4 +119,96 @@ public class KhaosDatabaseTest {
     Assert.assertNull(objectReference.get());
     Assert.assertNull(khaosDatabase.getParentBlock(blockCapsule2.getBlockId()));
   }
+
+  private static BlockCapsule child(BlockCapsule parent, String witness) {
+    return new BlockCapsule(parent.getNum() + 1, parent.getBlockId(), parent.getTimeStamp() + 3000,
+        ByteString.copyFromUtf8(witness));
+  }
+
+  private static List<BlockCapsule> chain(BlockCapsule from, int length, String witness) {
+    List<BlockCapsule> blocks = new ArrayList<>();
+    BlockCapsule parent = from;
+    for (int i = 0; i < length; i++) {
+      parent = child(parent, witness);
+      blocks.add(parent);
+    }
+    return blocks;
+  }
+
+  @Test
+  public void testBranchAndBytesBound() throws UnLinkedBlockException {
+    KhaosDatabase khaosDb = new KhaosDatabase("block_KDB-bound");
+    BlockCapsule genesis = new BlockCapsule(0, Sha256Hash.ZERO_HASH, 0,
+        ByteString.copyFromUtf8("genesis"));
+    khaosDb.start(genesis);
+    List<BlockCapsule> main = chain(genesis, 10, "a");
+    for (BlockCapsule block : main) {
+      khaosDb.push(block);
+    }
+    List<BlockCapsule> fork = chain(main.get(4), 3, "b");
+    for (BlockCapsule block : fork) {
+      khaosDb.push(block);
+    }
+    Assert.assertEquals(main.get(9).getBlockId(), khaosDb.getHead().getBlockId());
+
+    Pair<LinkedList<BlockCapsule>, LinkedList<BlockCapsule>> branch = khaosDb
+        .getBranch(main.get(9).getBlockId(), fork.get(2).getBlockId());
+    Assert.assertEquals(5, branch.getKey().size());
+    Assert.assertEquals(3, branch.getValue().size());
+    Assert.assertEquals(main.get(4).getBlockId(), branch.getValue().peekLast().getParentHash());
+
+    // only the retained heights survive a tiny budget, the branch is gone with them
+    khaosDb.getMiniStore().setMaxBytes(1);
+    for (BlockCapsule block : chain(main.get(9), KhaosDatabase.MIN_RETAINED_HEIGHTS, "a")) {
+      khaosDb.push(block);
+    }
+    Assert.assertFalse(khaosDb.containBlock(genesis.getBlockId()));
+    Assert.assertFalse(khaosDb.containBlock(fork.get(2).getBlockId()));
+    Assert.assertEquals(KhaosDatabase.MIN_RETAINED_HEIGHTS + 1, khaosDb.getMiniStore().size());
+    branch = khaosDb.getBranch(main.get(9).getBlockId(), fork.get(2).getBlockId());
+    Assert.assertTrue(branch.getKey().isEmpty() && branch.getValue().isEmpty());
+
+    // the manager moves the head back when such a fork can not be switched to
+    Assert.assertFalse(khaosDb.resetHead(genesis.getBlockId()));
+    Assert.assertTrue(khaosDb.resetHead(main.get(9).getBlockId()));
+    Assert.assertEquals(main.get(9).getBlockId(), khaosDb.getHead().getBlockId());
+    khaosDb.close();
+  }
+
+  @Test
+  public void testUnlinkedPerSource() {
+    KhaosDatabase khaosDb = new KhaosDatabase("block_KDB-unlinked");
+    BlockCapsule genesis = new BlockCapsule(0, Sha256Hash.ZERO_HASH, 0,
+        ByteString.copyFromUtf8("genesis"));
+    khaosDb.start(genesis);
+    BlockCapsule unknown = new BlockCapsule(100, Sha256Hash.of("unknown".getBytes()), 0,
+        ByteString.copyFromUtf8("x"));
+    List<BlockCapsule> orphans = chain(unknown, KhaosDatabase.MAX_UNLINKED_PER_SOURCE + 4, "x");
+    for (BlockCapsule orphan : orphans) {
+      orphan.setSource("peer1");
+      try {
+        khaosDb.push(orphan);
+        Assert.fail();
+      } catch (UnLinkedBlockException e) {
+        // expected
+      }
+    }
+    Assert.assertEquals(KhaosDatabase.MAX_UNLINKED_PER_SOURCE,
+        khaosDb.getMiniUnlinkedStore().size());
+    Assert.assertFalse(khaosDb.containBlock(orphans.get(0).getBlockId()));
+    Assert.assertTrue(khaosDb.containBlock(orphans.get(orphans.size() - 1).getBlockId()));
+
+    // another peer has its own share
+    BlockCapsule other = child(unknown, "y");
+    other.setSource("peer2");
+    try {
+      khaosDb.push(other);
+    } catch (UnLinkedBlockException e) {
+      // expected
+    }
+    Assert.assertTrue(khaosDb.containBlock(other.getBlockId()));
+    khaosDb.removeBlk(other.getBlockId());
+    Assert.assertFalse(khaosDb.containBlock(other.getBlockId()));
+    khaosDb.close();
+  }
 }
\ No newline at end of file
@@ -0,0 +1,174 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.crypto.ECKey;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.exception.ContractValidateException;
+import org.tron.core.exception.DupTransactionException;
+import org.tron.core.exception.TaposException;
+import org.tron.core.exception.ValidateSignatureException;
+import org.tron.protos.Contract.TransferContract;
+import org.tron.protos.Protocol.AccountType;
+import org.tron.protos.Protocol.Transaction;
+import org.tron.protos.Protocol.Transaction.Contract.ContractType;
+
+@Slf4j
+public class PushTransactionBatchTest {
+
+  private static final String dbPath = "output-pushTransactionBatch-test";
+  private static final long BALANCE = 1_000_000_000L;
+  private static AnnotationConfigApplicationContext context;
+  private static Manager dbManager;
+
+  static {
+    Args.setParam(new String[]{"-d", dbPath}, Constant.TEST_CONF);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+    // the transactions reference the genesis block, which no block processing put in the table
+    dbManager.updateRecentBlock(dbManager.getGenesisBlock());
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+    context.destroy();
+  }
+
+  /**
+   * counts the signature checks done one transaction at a time.
+   */
+  private static class CountingCapsule extends TransactionCapsule {
+
+    private int checks;
+
+    CountingCapsule(Transaction trx) {
+      super(trx);
+    }
+
+    @Override
+    public boolean validateSignature() throws ValidateSignatureException {
+      checks++;
+      return super.validateSignature();
+    }
+  }
+
+  private static ECKey newAccount() {
+    ECKey key = new ECKey();
+    AccountCapsule account = new AccountCapsule(ByteString.copyFrom(key.getAddress()),
+        AccountType.Normal, 0);
+    account.setBalance(BALANCE);
+    account.setBandwidth(Long.MAX_VALUE / 4);
+    dbManager.getAccountStore().put(account.createDbKey(), account);
+    return key;
+  }
+
+  private static Transaction transfer(ECKey from, ECKey to, long amount, ECKey signer,
+      boolean reference) {
+    TransactionCapsule trx = new TransactionCapsule(TransferContract.newBuilder()
+        .setOwnerAddress(ByteString.copyFrom(from.getAddress()))
+        .setToAddress(ByteString.copyFrom(to.getAddress()))
+        .setAmount(amount)
+        .build(), ContractType.TransferContract);
+    if (reference) {
+      dbManager.setBlockReference(trx);
+    }
+    trx.setExpiration(dbManager.getHeadBlockTimeStamp() + 60_000);
+    trx.sign(signer.getPrivKeyBytes());
+    return trx.getInstance();
+  }
+
+  private static long getBalance(ECKey key) {
+    return dbManager.getAccountStore().get(key.getAddress()).getBalance();
+  }
+
+  @Test
+  public void onlyTheBadSliceIsRechecked() throws InterruptedException {
+    int threads = Args.getInstance().getValidateSignThreadNum();
+    Args.getInstance().setValidateSignThreadNum(4);
+    try {
+      ECKey from = newAccount();
+      ECKey to = newAccount();
+      List<CountingCapsule> trxs = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        // without a reference the valid ones stop at tapos, before any signature check
+        trxs.add(new CountingCapsule(transfer(from, to, i + 1, i == 5 ? to : from, false)));
+      }
+
+      Map<TransactionCapsule, Exception> failures = dbManager
+          .pushTransactionBatch(new ArrayList<>(trxs));
+      Assert.assertEquals(8, failures.size());
+      for (int i = 0; i < 8; i++) {
+        Assert.assertEquals(i == 4 || i == 5 ? 1 : 0, trxs.get(i).checks);
+        Assert.assertTrue((i == 5 ? ValidateSignatureException.class : TaposException.class)
+            .isInstance(failures.get(trxs.get(i))));
+      }
+    } finally {
+      Args.getInstance().setValidateSignThreadNum(threads);
+    }
+  }
+
+  @Test
+  public void failingTransactionIsRolledBackAlone() throws InterruptedException {
+    ECKey from = newAccount();
+    ECKey poor = newAccount();
+    ECKey to = newAccount();
+    byte[] poorAccount = dbManager.getAccountStore().get(poor.getAddress()).getData();
+    TransactionCapsule first = new TransactionCapsule(transfer(from, to, 1, from, true));
+    TransactionCapsule failing = new TransactionCapsule(
+        transfer(poor, to, BALANCE * 2, poor, true));
+    TransactionCapsule second = new TransactionCapsule(transfer(from, to, 2, from, true));
+
+    Map<TransactionCapsule, Exception> failures = dbManager
+        .pushTransactionBatch(Arrays.asList(first, failing, second));
+    Assert.assertEquals(1, failures.size());
+    Assert.assertTrue(failures.get(failing) instanceof ContractValidateException);
+    Assert.assertEquals(BALANCE - 3, getBalance(from));
+    Assert.assertEquals(BALANCE + 3, getBalance(to));
+    // the bandwidth the failing transaction consumed is rolled back with it
+    Assert.assertArrayEquals(poorAccount,
+        dbManager.getAccountStore().get(poor.getAddress()).getData());
+    Assert.assertTrue(dbManager.getPendingTransactions().contains(first));
+    Assert.assertTrue(dbManager.getPendingTransactions().contains(second));
+    Assert.assertFalse(dbManager.getPendingTransactions().contains(failing));
+  }
+
+  @Test
+  public void duplicatesAreNotPushedTwice() throws InterruptedException {
+    ECKey from = newAccount();
+    ECKey to = newAccount();
+    Transaction trx = transfer(from, to, 1, from, true);
+    TransactionCapsule first = new TransactionCapsule(trx);
+    TransactionCapsule copy = new TransactionCapsule(trx);
+
+    Map<TransactionCapsule, Exception> failures = dbManager
+        .pushTransactionBatch(Arrays.asList(first, copy));
+    Assert.assertEquals(1, failures.size());
+    Assert.assertTrue(failures.get(copy) instanceof DupTransactionException);
+
+    TransactionCapsule again = new TransactionCapsule(trx);
+    failures = dbManager.pushTransactionBatch(Arrays.asList(again));
+    Assert.assertTrue(failures.get(again) instanceof DupTransactionException);
+    Assert.assertEquals(BALANCE - 1, getBalance(from));
+  }
+}
@@ -0,0 +1,90 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.protos.Protocol.AccountType;
+
+public class ReadViewTest {
+
+  private static String dbPath = "output_ReadView_test";
+  private static AnnotationConfigApplicationContext context;
+  private static Manager dbManager;
+
+  static {
+    Args.setParam(new String[]{"--output-directory", dbPath},
+        Constant.TEST_CONF);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+  }
+
+  @BeforeClass
+  public static void init() {
+    dbManager = context.getBean(Manager.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+    context.destroy();
+  }
+
+  @Test
+  public void testSnapshotIsolation() {
+    byte[] address = TransactionStoreTest.randomBytes(21);
+    long headBlockNum = dbManager.getDynamicPropertiesStore().getLatestBlockHeaderNumber();
+    try (ReadView view = dbManager.openReadView()) {
+      dbManager.getAccountStore().put(address, new AccountCapsule(ByteString.copyFrom(address),
+          ByteString.copyFromUtf8("readView"), AccountType.Normal));
+      dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderNumber(headBlockNum + 10);
+
+      Assert.assertNotNull(dbManager.getAccountStore().get(address));
+      Assert.assertNull(view.getAccount(address));
+      Assert.assertEquals(headBlockNum, view.getHeadBlockNum());
+      Assert.assertNull(view.getBlockByNum(headBlockNum + 1));
+    } catch (Exception e) {
+      Assert.fail(e.getMessage());
+    } finally {
+      dbManager.getDynamicPropertiesStore().saveLatestBlockHeaderNumber(headBlockNum);
+    }
+  }
+
+  @Test
+  public void testReferences() {
+    ReadView view = dbManager.openReadView();
+    view.close();
+    // the manager still holds its own reference
+    Assert.assertTrue(view.retain());
+    view.close();
+    try (ReadView again = dbManager.openReadView()) {
+      Assert.assertSame(view, again);
+    }
+  }
+
+  @Test
+  public void testCloseAwaitsReaders() throws InterruptedException {
+    ReadView view = new ReadView(dbManager);
+    Assert.assertTrue(view.retain());
+    Thread reader = new Thread(() -> {
+      try {
+        Thread.sleep(100);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      view.close();
+    });
+    reader.start();
+    Assert.assertTrue(view.closeAndAwait(5000));
+    Assert.assertFalse(view.retain());
+    reader.join();
+  }
+}
@@ -0,0 +1,63 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.common.utils.Sha256Hash;
+import org.tron.core.capsule.BlockCapsule;
+
+public class RecentBlockCacheTest {
+
+  private static final int CAPACITY = 8;
+  private RecentBlockCache cache;
+  private List<BlockCapsule> chain = new ArrayList<>();
+
+  private static BlockCapsule createBlock(BlockCapsule parent, String witness) {
+    Sha256Hash parentHash = parent == null ? Sha256Hash.ZERO_HASH : parent.getBlockId();
+    long num = parent == null ? 0 : parent.getNum() + 1;
+    return new BlockCapsule(num, parentHash, num * 3000, ByteString.copyFromUtf8(witness));
+  }
+
+  @Before
+  public void init() {
+    cache = new RecentBlockCache(CAPACITY);
+    BlockCapsule parent = null;
+    for (int i = 0; i < 20; i++) {
+      parent = createBlock(parent, "witness");
+      chain.add(parent);
+      cache.put(parent);
+    }
+  }
+
+  @Test
+  public void testGet() {
+    Assert.assertSame(chain.get(19), cache.getHead());
+    Assert.assertSame(chain.get(15), cache.getByNum(15));
+    Assert.assertSame(chain.get(12), cache.getById(chain.get(12).getBlockId()));
+    // out of the ring
+    Assert.assertNull(cache.getByNum(12 - CAPACITY + 4));
+    Assert.assertNull(cache.getById(chain.get(3).getBlockId()));
+    Assert.assertNull(cache.getByNum(20));
+    Assert.assertNull(cache.getById(Sha256Hash.ZERO_HASH));
+  }
+
+  @Test
+  public void testSwitchFork() {
+    cache.pop(chain.get(19).getBlockId());
+    cache.pop(chain.get(18).getBlockId());
+    Assert.assertSame(chain.get(17), cache.getHead());
+    Assert.assertNull(cache.getById(chain.get(18).getBlockId()));
+
+    BlockCapsule fork = createBlock(chain.get(17), "other");
+    cache.put(fork);
+    Assert.assertSame(fork, cache.getByNum(18));
+    Assert.assertNull(cache.getByNum(19));
+
+    cache.remove(fork.getBlockId());
+    Assert.assertNull(cache.getHead());
+    Assert.assertNull(cache.getByNum(17));
+  }
+}
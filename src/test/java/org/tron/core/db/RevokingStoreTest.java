@@ -4,6 +4,7 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
@@ -18,6 +19,7 @@ import org.tron.core.Constant;
 import org.tron.core.capsule.ProtoCapsule;
 import org.tron.core.config.args.Args;
 import org.tron.core.db.AbstractRevokingStore.Dialog;
+import org.tron.core.db.AbstractRevokingStore.RevokingTuple;
 import org.tron.core.exception.RevokingStoreIllegalStateException;
 
 @Slf4j
@@ -130,6 +132,45 @@ public class RevokingStoreTest {
 
   }
 
+  @Test
+  public synchronized void testRevertedValues() throws RevokingStoreIllegalStateException {
+    revokingDatabase.getStack().clear();
+    TestRevokingTronStore tronDatabase = new TestRevokingTronStore(
+        "testrevokingtronstore-testRevertedValues", revokingDatabase);
+    byte[] keyA = "a".getBytes();
+    byte[] keyB = "b".getBytes();
+
+    try (Dialog tmpDialog = revokingDatabase.buildDialog()) {
+      tronDatabase.put(keyA, new TestProtoCapsule("v1".getBytes()));
+      tmpDialog.commit();
+    }
+    try (Dialog tmpDialog = revokingDatabase.buildDialog()) {
+      tronDatabase.put(keyA, new TestProtoCapsule("v2".getBytes()));
+      tronDatabase.put(keyB, new TestProtoCapsule("v1".getBytes()));
+      tmpDialog.commit();
+    }
+    try (Dialog tmpDialog = revokingDatabase.buildDialog()) {
+      tronDatabase.delete(keyA);
+      tmpDialog.commit();
+    }
+
+    RevokingTuple tupleA = new RevokingTuple(tronDatabase.getDbSource(), keyA);
+    RevokingTuple tupleB = new RevokingTuple(tronDatabase.getDbSource(), keyB);
+
+    Map<RevokingTuple, byte[]> reverted = revokingDatabase.getRevertedValues(1);
+    Assert.assertArrayEquals("v2".getBytes(), reverted.get(tupleA));
+    Assert.assertFalse(reverted.containsKey(tupleB));
+
+    reverted = revokingDatabase.getRevertedValues(2);
+    Assert.assertArrayEquals("v1".getBytes(), reverted.get(tupleA));
+    Assert.assertTrue(reverted.containsKey(tupleB));
+    Assert.assertNull(reverted.get(tupleB));
+
+    Assert.assertNull(tronDatabase.getDbSource().getData(keyA));
+    Assert.assertEquals(3, revokingDatabase.getStack().size());
+    tronDatabase.close();
+  }
+
   @NoArgsConstructor
   @AllArgsConstructor
   @EqualsAndHashCode
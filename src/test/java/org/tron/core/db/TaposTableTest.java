@@ -0,0 +1,84 @@
+package org.tron.core.db;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.config.args.Args;
+
+public class TaposTableTest {
+
+  private static final String dbPath = "output-taposTable-test";
+  private TaposTable table;
+
+  @Before
+  public void init() {
+    Args.setParam(new String[]{"-d", dbPath}, Constant.TEST_CONF);
+    table = new TaposTable(Args.getInstance().getOutputDirectory(), "recent-block");
+    table.initDB();
+  }
+
+  @After
+  public void destroy() {
+    table.closeDB();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+  }
+
+  private static byte[] key(long num) {
+    return ByteArray.subArray(ByteArray.fromLong(num), 6, 8);
+  }
+
+  private static byte[] hash(long value) {
+    return ByteArray.fromLong(value);
+  }
+
+  @Test
+  public void testPutAndDelete() {
+    Assert.assertFalse(table.matches(key(1), hash(11)));
+    Assert.assertNull(table.get(key(1)));
+
+    table.putData(key(1), hash(11));
+    Assert.assertTrue(table.matches(key(1), hash(11)));
+    Assert.assertFalse(table.matches(key(1), hash(12)));
+    Assert.assertArrayEquals(hash(11), table.get(key(1)));
+
+    // a block of another fork replaces the reference, as a rollback does
+    table.putData(key(1), hash(12));
+    Assert.assertTrue(table.matches(key(1), hash(12)));
+
+    table.deleteData(key(1));
+    Assert.assertFalse(table.matches(key(1), hash(12)));
+    Assert.assertNull(table.getData(key(1)));
+  }
+
+  @Test
+  public void testBatchAndReload() {
+    Map<byte[], byte[]> rows = new HashMap<>();
+    rows.put(key(65535), hash(1));
+    rows.put(key(65536 + 2), hash(2));
+    table.updateByBatch(rows);
+    Assert.assertTrue(table.matches(key(65535), hash(1)));
+    Assert.assertTrue(table.matches(key(2), hash(2)));
+
+    table.closeDB();
+    table = new TaposTable(Args.getInstance().getOutputDirectory(), "recent-block");
+    table.initDB();
+    Assert.assertTrue(table.matches(key(65535), hash(1)));
+    Assert.assertTrue(table.matches(key(2), hash(2)));
+    Assert.assertFalse(table.matches(key(3), hash(0)));
+  }
+
+  @Test
+  public void testMalformedReference() {
+    table.putData(key(5), hash(5));
+    Assert.assertFalse(table.matches(new byte[]{5}, hash(5)));
+    Assert.assertFalse(table.matches(key(5), new byte[]{0, 5}));
+  }
+}
@@ -0,0 +1,71 @@
+package org.tron.core.db;
+
+import com.google.protobuf.ByteString;
+import java.io.File;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+
+@Slf4j
+public class VoteTallyStoreTest {
+
+  private static final String dbPath = "output-voteTallyStore-test";
+  private static AnnotationConfigApplicationContext context;
+  VoteTallyStore voteTallyStore;
+
+  static {
+    Args.setParam(new String[]{"-d", dbPath}, Constant.TEST_CONF);
+    context = new AnnotationConfigApplicationContext(DefaultConfig.class);
+  }
+
+  @Before
+  public void initDb() {
+    this.voteTallyStore = context.getBean(VoteTallyStore.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    Args.clearParam();
+    FileUtil.deleteDir(new File(dbPath));
+    context.destroy();
+  }
+
+  @Test
+  public void addAndClearVoteCount() {
+    ByteString witness1 = ByteString.copyFromUtf8("100000000x");
+    ByteString witness2 = ByteString.copyFromUtf8("100000000y");
+
+    voteTallyStore.addVoteCount(witness1, 10);
+    voteTallyStore.addVoteCount(witness1, -3);
+    voteTallyStore.addVoteCount(witness2, 5);
+    voteTallyStore.addVoteCount(witness2, -5);
+    Assert.assertEquals(7, voteTallyStore.getVoteCount(witness1));
+    Assert.assertEquals(0, voteTallyStore.getVoteCount(witness2));
+
+    // a witness whose votes net out is still reported as changed
+    Map<ByteString, Long> counts = voteTallyStore.getAllVoteCounts();
+    Assert.assertEquals(2, counts.size());
+    Assert.assertEquals(7L, (long) counts.get(witness1));
+    Assert.assertEquals(0L, (long) counts.get(witness2));
+
+    voteTallyStore.clear(counts.keySet());
+    Assert.assertTrue(voteTallyStore.getAllVoteCounts().isEmpty());
+  }
+
+  @Test
+  public void maintenanceKeepsCountingVotesStoreBeforeTheFork() {
+    Manager dbManager = context.getBean(Manager.class);
+    Assert.assertEquals(0, dbManager.getDynamicPropertiesStore().getAllowVoteTally());
+    dbManager.getWitnessController().updateWitness();
+    // no node config switches the tally on, only the fork block of the chain
+    Assert.assertEquals(0, dbManager.getDynamicPropertiesStore().getAllowVoteTally());
+  }
+}
@@ -0,0 +1,93 @@
+package org.tron.core.db.snapshot;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Map.Entry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.db.snapshot.SnapshotManifest.Chunk;
+import org.tron.core.exception.SnapshotException;
+
+@Slf4j
+public class SnapshotChunkTest {
+
+  private static final String dbPath = "output-snapshot-test";
+  private File directory;
+
+  @Before
+  public void init() {
+    directory = new File(dbPath);
+    directory.mkdirs();
+  }
+
+  @After
+  public void destroy() {
+    FileUtil.deleteDir(directory);
+  }
+
+  private SnapshotManifest writeEntries(int count, long chunkSize) throws IOException {
+    SnapshotManifest manifest = new SnapshotManifest();
+    try (SnapshotChunkWriter writer =
+        new SnapshotChunkWriter(directory, "account", manifest, chunkSize)) {
+      for (int i = 0; i < count; i++) {
+        writer.write(ByteArray.fromLong(i), ("value" + i).getBytes());
+      }
+    }
+    return manifest;
+  }
+
+  @Test
+  public void writeAndRead() throws IOException, SnapshotException {
+    SnapshotManifest manifest = writeEntries(100, 256);
+    Assert.assertTrue(manifest.getChunks().size() > 1);
+
+    long index = 0;
+    for (Chunk chunk : manifest.getChunks()) {
+      Assert.assertEquals("account", chunk.getDbName());
+      SnapshotChunkReader.verify(directory, chunk);
+      try (SnapshotChunkReader reader = new SnapshotChunkReader(directory, chunk)) {
+        while (reader.hasNext()) {
+          Entry<byte[], byte[]> entry = reader.next();
+          Assert.assertEquals(index, ByteArray.toLong(entry.getKey()));
+          Assert.assertArrayEquals(("value" + index).getBytes(), entry.getValue());
+          index++;
+        }
+      }
+    }
+    Assert.assertEquals(100, index);
+  }
+
+  @Test
+  public void saveAndLoadManifest() throws IOException, SnapshotException {
+    SnapshotManifest manifest = writeEntries(10, SnapshotChunkWriter.DEFAULT_CHUNK_SIZE);
+    manifest.setBlockNum(42);
+    manifest.setBlockId("00000000000000002a");
+    manifest.save(directory);
+
+    SnapshotManifest loaded = SnapshotManifest.load(directory);
+    Assert.assertEquals(42, loaded.getBlockNum());
+    Assert.assertEquals("00000000000000002a", loaded.getBlockId());
+    Assert.assertEquals(1, loaded.getChunks().size());
+    Chunk chunk = loaded.getChunks().get(0);
+    Assert.assertEquals(10, chunk.getCount());
+    Assert.assertEquals(manifest.getChunks().get(0).getChecksum(), chunk.getChecksum());
+  }
+
+  @Test(expected = SnapshotException.class)
+  public void verifyBrokenChunk() throws IOException, SnapshotException {
+    SnapshotManifest manifest = writeEntries(10, SnapshotChunkWriter.DEFAULT_CHUNK_SIZE);
+    Chunk chunk = manifest.getChunks().get(0);
+    try (RandomAccessFile file =
+        new RandomAccessFile(new File(directory, chunk.getFileName()), "rw")) {
+      file.seek(file.length() - 1);
+      file.write('x');
+    }
+    SnapshotChunkReader.verify(directory, chunk);
+  }
+}
@@ -0,0 +1,163 @@
+package org.tron.core.db.snapshot;
+
+import java.io.File;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Map.Entry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.tron.common.utils.ByteArray;
+import org.tron.common.utils.FileUtil;
+import org.tron.core.Constant;
+import org.tron.core.benchmark.BenchmarkReport;
+import org.tron.core.benchmark.LoadGenerator;
+import org.tron.core.capsule.AccountCapsule;
+import org.tron.core.capsule.BlockCapsule;
+import org.tron.core.capsule.BlockCapsule.BlockId;
+import org.tron.core.capsule.TransactionCapsule;
+import org.tron.core.config.DefaultConfig;
+import org.tron.core.config.args.Args;
+import org.tron.core.db.Manager;
+import org.tron.core.db.TaposTable;
+import org.tron.core.exception.DupTransactionException;
+
+@Slf4j
+public class SnapshotRoundTripTest {
+
+  private static final String exportPath = "output-snapshot-export-test";
+  private static final String importPath = "output-snapshot-import-test";
+  private static final String snapshotPath = "output-snapshot-round-trip-test";
+  private static final int ACCOUNTS = 10;
+  private static final long SEED = 3;
+  private static final int BLOCKS = 4;
+
+  private static SnapshotManifest manifest;
+  private static BlockId exportedHeadId;
+  private static Map<String, String> exportedAccounts;
+  private static TransactionCapsule exportedTrx;
+  private static AnnotationConfigApplicationContext context;
+  private static Manager dbManager;
+
+  private static AnnotationConfigApplicationContext newContext(String... args) {
+    Args.setParam(args, Constant.TEST_CONF);
+    Args.getInstance().setNodeDiscoveryEnable(false);
+    Args.getInstance().setNodeListenPort(0);
+    return new AnnotationConfigApplicationContext(DefaultConfig.class);
+  }
+
+  private static byte[] witnessKey() {
+    return ByteArray.fromHexString(Args.getInstance().getLocalWitnesses().getPrivateKey());
+  }
+
+  /**
+   * export a short generated chain, then boot a new node from the snapshot.
+   */
+  @BeforeClass
+  public static void init() throws Exception {
+    AnnotationConfigApplicationContext exporting = newContext("-d", exportPath);
+    try {
+      Manager exporter = exporting.getBean(Manager.class);
+      LoadGenerator generator = new LoadGenerator(exporter, witnessKey(), ACCOUNTS, SEED);
+      generator.initGenesis();
+      generator.run(BLOCKS, 5);
+      // the only witness confirms its own blocks
+      Assert.assertEquals(BLOCKS,
+          exporter.getDynamicPropertiesStore().getLatestSolidifiedBlockNum());
+      manifest = new SnapshotExporter(exporter).export(new File(snapshotPath));
+      exportedHeadId = exporter.getHeadBlockId();
+      exportedAccounts = getAccounts(exporter);
+      exportedTrx = exporter.getBlockByNum(BLOCKS).getTransactions().get(0);
+    } finally {
+      exporting.destroy();
+      Args.clearParam();
+    }
+
+    context = newContext("-d", importPath, "--snapshot-import", snapshotPath);
+    dbManager = context.getBean(Manager.class);
+  }
+
+  @AfterClass
+  public static void destroy() {
+    context.destroy();
+    Args.clearParam();
+    FileUtil.deleteDir(new File(exportPath));
+    FileUtil.deleteDir(new File(importPath));
+    FileUtil.deleteDir(new File(snapshotPath));
+  }
+
+  private static Map<String, String> getAccounts(Manager manager) {
+    Map<String, String> accounts = new HashMap<>();
+    Iterator<Entry<byte[], AccountCapsule>> iterator = manager.getAccountStore().iterator();
+    while (iterator.hasNext()) {
+      Entry<byte[], AccountCapsule> entry = iterator.next();
+      accounts.put(ByteArray.toHexString(entry.getKey()),
+          ByteArray.toHexString(entry.getValue().getData()));
+    }
+    return accounts;
+  }
+
+  /**
+   * the tests share the imported node, the checks run in order before it moves on.
+   */
+  @Test
+  public void resumesFromSnapshot() throws Exception {
+    checkHead();
+    checkState();
+    checkWindows();
+    checkResume();
+  }
+
+  private void checkHead() {
+    Assert.assertEquals(BLOCKS, manifest.getBlockNum());
+    Assert.assertEquals(BLOCKS, dbManager.getHeadBlockNum());
+    Assert.assertEquals(exportedHeadId, dbManager.getHeadBlockId());
+
+    // the headers are not part of the snapshot, they are filled from the imported blocks
+    Assert.assertTrue(dbManager.getBlockHeaderStore().isFilled());
+    Assert.assertTrue(dbManager.containBlock(dbManager.getGenesisBlockId()));
+    Assert.assertTrue(dbManager.containBlock(exportedHeadId));
+  }
+
+  private void checkState() {
+    Assert.assertEquals(exportedAccounts, getAccounts(dbManager));
+  }
+
+  /**
+   * the TaPoS references and the duplicate check of the block window carry over.
+   */
+  private void checkWindows() throws Exception {
+    TaposTable taposTable = dbManager.getRecentBlockStore().getTaposTable();
+    for (long num = 1; num <= BLOCKS; num++) {
+      BlockId blockId = dbManager.getBlockIdByNum(num);
+      Assert.assertTrue(taposTable.matches(ByteArray.subArray(ByteArray.fromLong(num), 6, 8),
+          ByteArray.subArray(blockId.getBytes(), 8, 16)));
+    }
+
+    TransactionCapsule trx = new TransactionCapsule(exportedTrx.getInstance());
+    Assert.assertTrue(dbManager.getTransactionStore().has(trx.getTransactionId().getBytes()));
+    try {
+      dbManager.pushTransactions(trx);
+      Assert.fail("a transaction of the window was pushed again");
+    } catch (DupTransactionException e) {
+      // expected
+    }
+  }
+
+  /**
+   * the node produces the next block on top of the snapshot.
+   */
+  private void checkResume() throws Exception {
+    BenchmarkReport report = new LoadGenerator(dbManager, witnessKey(), ACCOUNTS, SEED)
+        .run(1, 5);
+    Assert.assertEquals(1, report.getBlocks());
+    Assert.assertTrue(report.getTransactions() > 0);
+    Assert.assertEquals(BLOCKS + 1, dbManager.getHeadBlockNum());
+    BlockCapsule head = dbManager.getBlockByNum(BLOCKS + 1);
+    Assert.assertEquals(exportedHeadId, head.getParentBlockId());
+  }
+}
@@ -0,0 +1,163 @@
+package org.tron.core.net.peer;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.core.net.message.MessageTypes;
+import org.tron.core.net.peer.MessageDispatcher.LaneType;
+
+public class MessageDispatcherTest {
+
+  private MessageDispatcher dispatcher;
+
+  @After
+  public void destroy() {
+    if (dispatcher != null) {
+      dispatcher.close();
+    }
+  }
+
+  /**
+   * a message of the peer that blocks the only worker until the returned latch is counted down.
+   */
+  private CountDownLatch block(LaneType type, Object peer) throws InterruptedException {
+    CountDownLatch blocked = new CountDownLatch(1);
+    CountDownLatch started = new CountDownLatch(1);
+    dispatcher.submit(type, peer, null, () -> {
+      started.countDown();
+      try {
+        blocked.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+    return blocked;
+  }
+
+  private void submit(LaneType type, Object peer, List<String> handled, CountDownLatch done) {
+    dispatcher.submit(type, peer, null, () -> {
+      handled.add(type + "-" + peer);
+      done.countDown();
+    });
+  }
+
+  @Test
+  public void testLaneTypes() {
+    Assert.assertEquals(LaneType.BLOCK, MessageDispatcher.getLaneType(MessageTypes.BLOCK));
+    Assert.assertEquals(LaneType.SYNC,
+        MessageDispatcher.getLaneType(MessageTypes.BLOCK_CHAIN_INVENTORY));
+    Assert.assertEquals(LaneType.INVENTORY,
+        MessageDispatcher.getLaneType(MessageTypes.FETCH_INV_DATA));
+    Assert.assertEquals(LaneType.TRX, MessageDispatcher.getLaneType(MessageTypes.TRXS));
+    Assert.assertNull(MessageDispatcher.getLaneType(MessageTypes.P2P_PING));
+  }
+
+  @Test
+  public void testRoundRobin() throws InterruptedException {
+    dispatcher = new MessageDispatcher(1);
+    List<String> handled = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(3);
+    CountDownLatch blocked = block(LaneType.TRX, "a");
+    dispatcher.submit(LaneType.TRX, "a", null, () -> {
+      handled.add("a2");
+      done.countDown();
+    });
+    dispatcher.submit(LaneType.TRX, "a", null, () -> {
+      handled.add("a3");
+      done.countDown();
+    });
+    dispatcher.submit(LaneType.TRX, "b", null, () -> {
+      handled.add("b1");
+      done.countDown();
+    });
+
+    blocked.countDown();
+    Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+    Assert.assertTrue(handled.indexOf("b1") < handled.indexOf("a3"));
+    Assert.assertTrue(handled.indexOf("a2") < handled.indexOf("a3"));
+    Assert.assertEquals(0, dispatcher.getDepth(LaneType.TRX));
+  }
+
+  @Test
+  public void testPriority() throws InterruptedException {
+    dispatcher = new MessageDispatcher(1);
+    List<String> handled = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(33);
+    CountDownLatch blocked = block(LaneType.TRX, "x");
+    submit(LaneType.TRX, "t", handled, done);
+    submit(LaneType.INVENTORY, "i", handled, done);
+    submit(LaneType.SYNC, "s", handled, done);
+    for (int i = 0; i < 30; i++) {
+      submit(LaneType.BLOCK, "b" + i, handled, done);
+    }
+
+    blocked.countDown();
+    Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals("BLOCK-b0", handled.get(0));
+    Assert.assertTrue(handled.indexOf("SYNC-s") < handled.indexOf("INVENTORY-i"));
+    Assert.assertTrue(handled.indexOf("INVENTORY-i") < handled.indexOf("TRX-t"));
+    // the transaction lane gets its turn before the block lane has drained
+    Assert.assertTrue(handled.indexOf("TRX-t") < handled.indexOf("BLOCK-b29"));
+  }
+
+  @Test
+  public void testOneMessagePerPeer() throws InterruptedException {
+    dispatcher = new MessageDispatcher(2);
+    List<String> handled = new CopyOnWriteArrayList<>();
+    CountDownLatch done = new CountDownLatch(2);
+    CountDownLatch blocked = block(LaneType.BLOCK, "a");
+    submit(LaneType.TRX, "a", handled, done);
+    submit(LaneType.TRX, "b", handled, done);
+
+    // the other worker is free, but only for peer b
+    Thread.sleep(100);
+    Assert.assertEquals(1, handled.size());
+    Assert.assertEquals("TRX-b", handled.get(0));
+    blocked.countDown();
+    Assert.assertTrue(done.await(5, TimeUnit.SECONDS));
+    Assert.assertEquals("TRX-a", handled.get(1));
+  }
+
+  @Test
+  public void testThrottle() throws InterruptedException {
+    dispatcher = new MessageDispatcher(1);
+    EmbeddedChannel channel = new EmbeddedChannel();
+    CountDownLatch blocked = block(LaneType.BLOCK, "a");
+    for (int i = 1; i < 200; i++) {
+      dispatcher.submit(LaneType.BLOCK, "a", channel, () -> {
+      });
+    }
+    Assert.assertTrue(channel.config().isAutoRead());
+    dispatcher.submit(LaneType.BLOCK, "a", channel, () -> {
+    });
+    // 200 messages wait in a lane of capacity 200
+    Assert.assertFalse(channel.config().isAutoRead());
+
+    blocked.countDown();
+    for (int i = 0; i < 50 && dispatcher.getDepth(LaneType.BLOCK) > 0; i++) {
+      Thread.sleep(100);
+    }
+    Assert.assertEquals(0, dispatcher.getDepth(LaneType.BLOCK));
+    Assert.assertTrue(channel.config().isAutoRead());
+  }
+
+  @Test
+  public void testRemovePeer() throws InterruptedException {
+    dispatcher = new MessageDispatcher(1);
+    List<String> handled = new CopyOnWriteArrayList<>();
+    CountDownLatch blocked = block(LaneType.TRX, "a");
+    dispatcher.submit(LaneType.TRX, "a", null, () -> handled.add("a2"));
+    Assert.assertEquals(1, dispatcher.getDepth(LaneType.TRX));
+    dispatcher.remove("a", null);
+    Assert.assertEquals(0, dispatcher.getDepth(LaneType.TRX));
+    blocked.countDown();
+    Thread.sleep(100);
+    Assert.assertTrue(handled.isEmpty());
+  }
+}
@@ -0,0 +1,51 @@
+package org.tron.core.services;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assert;
+import org.junit.Test;
+import org.tron.api.GrpcAPI.EmptyMessage;
+import org.tron.api.GrpcAPI.NumberMessage;
+import org.tron.common.utils.Sha256Hash;
+
+public class ResponseCacheTest {
+
+  private static final EmptyMessage EMPTY = EmptyMessage.getDefaultInstance();
+
+  @Test
+  public void testInvalidateOnHeadChange() {
+    AtomicReference<Sha256Hash> head = new AtomicReference<>(Sha256Hash.of("1".getBytes()));
+    AtomicLong loads = new AtomicLong();
+    ResponseCache cache = new ResponseCache(head::get);
+
+    NumberMessage first = cache.get("method", EMPTY,
+        () -> NumberMessage.newBuilder().setNum(loads.incrementAndGet()).build());
+    NumberMessage second = cache.get("method", EMPTY,
+        () -> NumberMessage.newBuilder().setNum(loads.incrementAndGet()).build());
+    Assert.assertSame(first, second);
+    Assert.assertEquals(1, cache.getHits());
+    Assert.assertEquals(1, cache.getMisses());
+
+    head.set(Sha256Hash.of("2".getBytes()));
+    NumberMessage third = cache.get("method", EMPTY,
+        () -> NumberMessage.newBuilder().setNum(loads.incrementAndGet()).build());
+    Assert.assertEquals(2, third.getNum());
+    Assert.assertEquals(2, cache.getMisses());
+
+    NumberMessage other = cache.get("other", EMPTY,
+        () -> NumberMessage.newBuilder().setNum(loads.incrementAndGet()).build());
+    Assert.assertEquals(3, other.getNum());
+  }
+
+  @Test
+  public void testUnknownHead() {
+    ResponseCache cache = new ResponseCache(() -> null);
+    AtomicLong loads = new AtomicLong();
+    cache.get("method", EMPTY,
+        () -> NumberMessage.newBuilder().setNum(loads.incrementAndGet()).build());
+    cache.get("method", EMPTY,
+        () -> NumberMessage.newBuilder().setNum(loads.incrementAndGet()).build());
+    Assert.assertEquals(2, loads.get());
+    Assert.assertEquals(0, cache.getHits());
+  }
+}
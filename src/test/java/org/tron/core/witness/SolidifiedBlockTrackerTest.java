@@ -0,0 +1,71 @@
+package org.tron.core.witness;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.tron.common.utils.Sha256Hash;
+
+public class SolidifiedBlockTrackerTest {
+
+  private static final int WITNESS_NUM = 10;
+  private SolidifiedBlockTracker tracker;
+  private List<ByteString> witnesses = Lists.newArrayList();
+  private Map<ByteString, Long> latestBlockNums = new HashMap<>();
+
+  private static Sha256Hash hash(long num) {
+    return Sha256Hash.of(("block" + num).getBytes());
+  }
+
+  @Before
+  public void init() {
+    tracker = new SolidifiedBlockTracker();
+    for (int i = 0; i < WITNESS_NUM; i++) {
+      ByteString address = ByteString.copyFromUtf8("witness" + i);
+      witnesses.add(address);
+      latestBlockNums.put(address, (long) i + 1);
+    }
+    tracker.rebuild(witnesses, latestBlockNums::get, hash(WITNESS_NUM));
+  }
+
+  private long expected() {
+    List<Long> numbers = Lists.newArrayList(latestBlockNums.values());
+    numbers.sort(Long::compare);
+    return numbers.get((int) (numbers.size() * 0.3));
+  }
+
+  @Test
+  public void testUpdate() {
+    Assert.assertEquals(expected(), tracker.getSolidifiedBlockNum());
+    for (long num = WITNESS_NUM + 1; num <= WITNESS_NUM * 5; num++) {
+      Assert.assertTrue(tracker.follows(hash(num - 1)));
+      // witnesses produce out of order
+      ByteString address = witnesses.get((int) (num * 7 % WITNESS_NUM));
+      latestBlockNums.put(address, num);
+      tracker.update(address, num, hash(num));
+      Assert.assertEquals(expected(), tracker.getSolidifiedBlockNum());
+    }
+  }
+
+  @Test
+  public void testUnknownWitnessAndFork() {
+    long solidified = tracker.getSolidifiedBlockNum();
+    tracker.update(ByteString.copyFromUtf8("standby"), WITNESS_NUM + 1, hash(WITNESS_NUM + 1));
+    Assert.assertEquals(solidified, tracker.getSolidifiedBlockNum());
+
+    Assert.assertFalse(tracker.follows(hash(WITNESS_NUM)));
+    tracker.invalidate();
+    Assert.assertFalse(tracker.isValid());
+    Assert.assertFalse(tracker.follows(hash(WITNESS_NUM + 1)));
+  }
+
+  @Test
+  public void testEmpty() {
+    tracker.rebuild(Lists.newArrayList(), address -> 0L, hash(0));
+    Assert.assertEquals(-1, tracker.getSolidifiedBlockNum());
+  }
+}
@@ -0,0 +1,36 @@
+package org.tron.core.witness;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+import java.util.List;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WitnessScheduleTest {
+
+  private static final ByteString WITNESS_A = ByteString.copyFromUtf8("witnessA");
+  private static final ByteString WITNESS_B = ByteString.copyFromUtf8("witnessB");
+
+  @Test
+  public void testSchedule() {
+    List<ByteString> witnesses = Lists.newArrayList(WITNESS_A, WITNESS_B);
+    WitnessSchedule schedule = new WitnessSchedule(witnesses);
+    witnesses.clear();
+
+    Assert.assertEquals(2, schedule.size());
+    Assert.assertEquals(WITNESS_B, schedule.get(1));
+    Assert.assertTrue(schedule.contains(WITNESS_A));
+    Assert.assertEquals(1, schedule.indexOf(WITNESS_B));
+    Assert.assertEquals(-1, schedule.indexOf(ByteString.copyFromUtf8("witnessC")));
+
+    List<ByteString> copy = schedule.toList();
+    copy.add(ByteString.copyFromUtf8("witnessC"));
+    Assert.assertEquals(2, schedule.size());
+    try {
+      schedule.asList().add(WITNESS_A);
+      Assert.fail();
+    } catch (UnsupportedOperationException e) {
+      Assert.assertEquals(2, schedule.asList().size());
+    }
+  }
+}